@@ -240,9 +240,19 @@ public class ProxiedListener implements Listener {
                                                                  e.getConnection().isOnlineMode(),
                                                                  e.getConnection().isLegacy());
 
-        Document result = CloudAPI.getInstance().getNetworkConnection().getPacketManager().sendQuery(
-            new PacketOutPlayerLoginRequest(playerConnection), CloudAPI.getInstance().getNetworkConnection()).getResult();
+        e.registerIntent(CloudProxy.getInstance().getPlugin());
+        CloudAPI.getInstance().getNetworkConnection().getPacketManager().sendQueryAsync(
+            new PacketOutPlayerLoginRequest(playerConnection), CloudAPI.getInstance().getNetworkConnection())
+                .whenComplete((result, throwable) -> {
+                    try {
+                        handleLoginResult(e, throwable == null ? result.getResult() : new Document());
+                    } finally {
+                        e.completeIntent(CloudProxy.getInstance().getPlugin());
+                    }
+                });
+    }
 
+    private void handleLoginResult(LoginEvent e, Document result) {
         CloudPlayer cloudPlayer = result.getObject("player", CloudPlayer.TYPE);
 
         if (cloudPlayer == null) {
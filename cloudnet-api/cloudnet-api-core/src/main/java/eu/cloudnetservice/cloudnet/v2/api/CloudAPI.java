@@ -52,6 +52,7 @@ import java.lang.reflect.Type;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -80,6 +81,9 @@ public final class CloudAPI {
     private CloudService cloudService = null;
     //Init
     private CloudNetwork cloudNetwork = new CloudNetwork();
+    private long cloudNetworkEpoch;
+    private long cloudNetworkVersion = -1;
+    private volatile boolean cloudNetworkRequested;
 
     public CloudAPI(CloudConfigLoader loader, final Logger logger) throws UnknownHostException {
         if (instance != null) {
@@ -109,6 +113,7 @@ public final class CloudAPI {
 
         packetManager.registerHandler(PacketRC.SERVER_HANDLE + 8, PacketInCustomChannelMessage.class);
         packetManager.registerHandler(PacketRC.SERVER_HANDLE + 9, PacketInCustomSubChannelMessage.class);
+        packetManager.registerHandler(PacketRC.SERVER_HANDLE + 11, PacketInCloudNetworkPatch.class);
 
         packetManager.registerHandler(PacketRC.PLAYER_HANDLE + 1, PacketInLoginPlayer.class);
         packetManager.registerHandler(PacketRC.PLAYER_HANDLE + 2, PacketInLogoutPlayer.class);
@@ -210,6 +215,22 @@ public final class CloudAPI {
         return result.getResult().getObject("serverInfos", SERVER_INFO_COLLECTION_TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getServers(String)}.
+     *
+     * @param group the name of the server group.
+     *
+     * @return a future completing with all currently running servers belonging to the given server group.
+     */
+    public CompletableFuture<Collection<ServerInfo>> getServersAsync(String group) {
+        if (cloudService != null && cloudService.isProxyInstance()) {
+            return CompletableFuture.completedFuture(getServers(group));
+        }
+
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetServers(group), networkConnection)
+            .thenApply(result -> result.getResult().getObject("serverInfos", SERVER_INFO_COLLECTION_TYPE));
+    }
+
     /**
      * @return the cloud service backing this API, may be a proxy or a server.
      */
@@ -258,6 +279,47 @@ public final class CloudAPI {
         this.cloudNetwork = cloudNetwork;
     }
 
+    /**
+     * Updates the cloud network information available to this API together with its version.
+     * Internal use only!
+     *
+     * @param cloudNetwork the new information about the cloud network.
+     * @param epoch        the epoch of the master that published this information.
+     * @param version      the version of this information within the epoch.
+     */
+    public void setCloudNetwork(CloudNetwork cloudNetwork, long epoch, long version) {
+        this.cloudNetwork = cloudNetwork;
+        this.cloudNetworkEpoch = epoch;
+        this.cloudNetworkVersion = version;
+        this.cloudNetworkRequested = false;
+    }
+
+    /**
+     * @return the epoch of the master that published the current cloud network information.
+     */
+    public long getCloudNetworkEpoch() {
+        return cloudNetworkEpoch;
+    }
+
+    /**
+     * @return the version of the current cloud network information or -1, if no versioned information was received yet.
+     */
+    public long getCloudNetworkVersion() {
+        return cloudNetworkVersion;
+    }
+
+    /**
+     * Requests the full cloud network information from the master, for example after a missed update.
+     * Only one request is sent until the information arrives.
+     * Internal use only!
+     */
+    public void requestCloudNetwork() {
+        if (!cloudNetworkRequested) {
+            cloudNetworkRequested = true;
+            networkConnection.sendPacket(new PacketOutRequestCloudNetwork());
+        }
+    }
+
     /**
      * @return the network handler provider for this API instance.
      */
@@ -596,6 +658,20 @@ public final class CloudAPI {
         return result.getResult().getObject("serverInfos", SERVER_INFO_COLLECTION_TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getServers()}.
+     *
+     * @return a future completing with all currently running servers.
+     */
+    public CompletableFuture<Collection<ServerInfo>> getServersAsync() {
+        if (cloudService != null && cloudService.isProxyInstance()) {
+            return CompletableFuture.completedFuture(getServers());
+        }
+
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetServers(), networkConnection)
+            .thenApply(result -> result.getResult().getObject("serverInfos", SERVER_INFO_COLLECTION_TYPE));
+    }
+
     /**
      * Queries the master for all running proxies.
      *
@@ -606,6 +682,16 @@ public final class CloudAPI {
         return result.getResult().getObject("proxyInfos", PROXY_INFO_COLLECTION_TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getProxies()}.
+     *
+     * @return a future completing with all running proxies.
+     */
+    public CompletableFuture<Collection<ProxyInfo>> getProxiesAsync() {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetProxies(), networkConnection)
+            .thenApply(result -> result.getResult().getObject("proxyInfos", PROXY_INFO_COLLECTION_TYPE));
+    }
+
     /**
      * Queries the master for all running proxies in the given group.
      *
@@ -618,6 +704,18 @@ public final class CloudAPI {
         return result.getResult().getObject("proxyInfos", PROXY_INFO_COLLECTION_TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getProxies(String)}.
+     *
+     * @param group the name of the proxy group to get the proxies for.
+     *
+     * @return a future completing with all running proxies of the given proxy group.
+     */
+    public CompletableFuture<Collection<ProxyInfo>> getProxiesAsync(String group) {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetProxies(group), networkConnection)
+            .thenApply(result -> result.getResult().getObject("proxyInfos", PROXY_INFO_COLLECTION_TYPE));
+    }
+
     /**
      * Returns all players currently online on the network.
      * This methods queries the master so it may take a short moment.
@@ -635,6 +733,19 @@ public final class CloudAPI {
         return cloudPlayers;
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getOnlinePlayers()}.
+     *
+     * @return a future completing with all players currently online.
+     */
+    public CompletableFuture<Collection<CloudPlayer>> getOnlinePlayersAsync() {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetPlayers(), networkConnection)
+            .thenApply(result -> {
+                Collection<CloudPlayer> cloudPlayers = result.getResult().getObject("players", COLLECTION_CLOUDPLAYER_TYPE);
+                return cloudPlayers == null ? Collections.emptyList() : cloudPlayers;
+            });
+    }
+
     /**
      * Returns an online player by their UUID.
      * If the player is not cached, the master is queried.
@@ -655,6 +766,25 @@ public final class CloudAPI {
         return result.getResult().getObject("player", CloudPlayer.TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getOnlinePlayer(UUID)}.
+     *
+     * @param uniqueId the UUID of the player.
+     *
+     * @return a future completing with the online player or null, if the player is not currently online on the network.
+     */
+    public CompletableFuture<CloudPlayer> getOnlinePlayerAsync(UUID uniqueId) {
+        if (cloudService != null) {
+            CloudPlayer cloudPlayer = cloudService.getCachedPlayer(uniqueId);
+            if (cloudPlayer != null) {
+                return CompletableFuture.completedFuture(cloudPlayer);
+            }
+        }
+
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetPlayer(uniqueId), networkConnection)
+            .thenApply(result -> result.getResult().getObject("player", CloudPlayer.TYPE));
+    }
+
     /**
      * Returns an offline player by their UUID.
      * If the player is not cached, the master is queried.
@@ -675,6 +805,25 @@ public final class CloudAPI {
         return result.getResult().getObject("player", OfflinePlayer.TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getOfflinePlayer(UUID)}.
+     *
+     * @param uniqueId the UUID of the player.
+     *
+     * @return a future completing with the offline player or null, if the player is not registered on the network.
+     */
+    public CompletableFuture<OfflinePlayer> getOfflinePlayerAsync(UUID uniqueId) {
+        if (cloudService != null) {
+            CloudPlayer cloudPlayer = cloudService.getCachedPlayer(uniqueId);
+            if (cloudPlayer != null) {
+                return CompletableFuture.completedFuture(cloudPlayer);
+            }
+        }
+
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetOfflinePlayer(uniqueId), networkConnection)
+            .thenApply(result -> result.getResult().getObject("player", OfflinePlayer.TYPE));
+    }
+
     /**
      * Returns an offline player by their exact name.
      * If the player is not cached, the master is queried.
@@ -695,6 +844,25 @@ public final class CloudAPI {
         return result.getResult().getObject("player", OfflinePlayer.TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getOfflinePlayer(String)}.
+     *
+     * @param name the exact name of the player.
+     *
+     * @return a future completing with the offline player or null, if the player is not registered on the network.
+     */
+    public CompletableFuture<OfflinePlayer> getOfflinePlayerAsync(String name) {
+        if (cloudService != null) {
+            CloudPlayer cloudPlayer = cloudService.getCachedPlayer(name);
+            if (cloudPlayer != null) {
+                return CompletableFuture.completedFuture(cloudPlayer);
+            }
+        }
+
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetOfflinePlayer(name), networkConnection)
+            .thenApply(result -> result.getResult().getObject("player", OfflinePlayer.TYPE));
+    }
+
     /**
      * Queries the master for a server group based on the given name.
      *
@@ -707,6 +875,18 @@ public final class CloudAPI {
         return result.getResult().getObject("serverGroup", ServerGroup.TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getServerGroup(String)}.
+     *
+     * @param name the name of the server group.
+     *
+     * @return a future completing with the server group object or null, if it doesn't exist.
+     */
+    public CompletableFuture<ServerGroup> getServerGroupAsync(String name) {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetServerGroup(name), networkConnection)
+            .thenApply(result -> result.getResult().getObject("serverGroup", ServerGroup.TYPE));
+    }
+
     /**
      * Queries the unique id of the player with the given name.
      *
@@ -720,6 +900,19 @@ public final class CloudAPI {
         return result.getResult().getObject("uniqueId", UUID.class);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getPlayerUniqueId(String)}.
+     *
+     * @param name the name of the player; case-insensitive.
+     *
+     * @return a future completing with the unique id of the player with the given name or {@code null},
+     * if the player is not registered on the network.
+     */
+    public CompletableFuture<UUID> getPlayerUniqueIdAsync(String name) {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutNameUUID(name), networkConnection)
+            .thenApply(result -> result.getResult().getObject("uniqueId", UUID.class));
+    }
+
     /**
      * Queries the name of the player with the given unique id.
      *
@@ -733,6 +926,19 @@ public final class CloudAPI {
         return result.getResult().getString("name");
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getPlayerName(UUID)}.
+     *
+     * @param uniqueId the unique id of the player.
+     *
+     * @return a future completing with the name of the player with the given unique id or {@code null},
+     * if the player is not registered on the network.
+     */
+    public CompletableFuture<String> getPlayerNameAsync(UUID uniqueId) {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutNameUUID(uniqueId), networkConnection)
+            .thenApply(result -> result.getResult().getString("name"));
+    }
+
     /**
      * Queries the master for the server information about a specific server.
      *
@@ -745,6 +951,18 @@ public final class CloudAPI {
         return result.getResult().getObject("serverInfo", ServerInfo.TYPE);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getServerInfo(String)}.
+     *
+     * @param serverId the server id to query for.
+     *
+     * @return a future completing with the server information of the server with the given sever id.
+     */
+    public CompletableFuture<ServerInfo> getServerInfoAsync(String serverId) {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetServer(serverId), networkConnection)
+            .thenApply(result -> result.getResult().getObject("serverInfo", ServerInfo.TYPE));
+    }
+
     /**
      * Returns a document with all collected statistics.
      * This method queries the master.
@@ -756,6 +974,16 @@ public final class CloudAPI {
         return result.getResult();
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getStatistics()}.
+     *
+     * @return a future completing with a document with collected statistics.
+     */
+    public CompletableFuture<Document> getStatisticsAsync() {
+        return networkConnection.getPacketManager().sendQueryAsync(new PacketAPIOutGetStatistic(), networkConnection)
+            .thenApply(Result::getResult);
+    }
+
     /**
      * Copies the given directory from the currently running server to its template.
      * This is done by requesting the master to handle the instructions for the wrapper.
@@ -776,13 +1004,19 @@ public final class CloudAPI {
      */
     @Deprecated
     private Map<UUID, OfflinePlayer> getRegisteredPlayers() {
-        Result result = networkConnection.getPacketManager().sendQuery(new PacketAPIOutGetRegisteredPlayers(), networkConnection);
-
-        if (result.getResult() != null) {
-            return result.getResult().getObject("players", MAP_UUID_OFFLINEPLAYER_TYPE);
-        }
+        Map<UUID, OfflinePlayer> players = new HashMap<>();
+        String continuation = null;
+        do {
+            Result result = networkConnection.getPacketManager().sendQuery(new PacketAPIOutGetRegisteredPlayers(continuation),
+                                                                           networkConnection);
+            if (result.getResult() == null) {
+                break;
+            }
+            players.putAll(result.getResult().getObject("players", MAP_UUID_OFFLINEPLAYER_TYPE));
+            continuation = result.getResult().getString("continuation");
+        } while (continuation != null);
 
-        return new HashMap<>();
+        return players;
     }
 
     /**
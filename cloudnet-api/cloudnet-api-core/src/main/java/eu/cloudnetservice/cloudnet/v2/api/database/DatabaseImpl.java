@@ -17,21 +17,19 @@
 
 package eu.cloudnetservice.cloudnet.v2.api.database;
 
-import com.google.gson.reflect.TypeToken;
 import eu.cloudnetservice.cloudnet.v2.api.CloudAPI;
 import eu.cloudnetservice.cloudnet.v2.api.database.packet.out.*;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabasePage;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseQuery;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.result.Result;
-import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 
-import java.lang.reflect.Type;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseImpl implements Database {
 
-    private static final Type MAP_STRING_DOCUMENT_TYPE = TypeToken.getParameterized(Map.class, String.class, Document.class).getType();
     private Map<String, DatabaseDocument> documents = new ConcurrentHashMap<>();
     private final String name;
 
@@ -44,11 +42,23 @@ public class DatabaseImpl implements Database {
         return documents;
     }
 
+    /**
+     * Loads all documents of the database page by page.
+     * Prefer {@link #query(DatabaseQuery)} for large databases, as this still holds every document in memory.
+     */
     @Override
     public Database loadDocuments() {
-        Result result = CloudAPI.getInstance().getNetworkConnection().getPacketManager()
-                                .sendQuery(new PacketDBOutGetDocument(name), CloudAPI.getInstance().getNetworkConnection());
-        this.documents = result.getResult().getObject("docs", MAP_STRING_DOCUMENT_TYPE);
+        Map<String, DatabaseDocument> documents = new ConcurrentHashMap<>();
+        DatabasePage page;
+        String continuation = null;
+        do {
+            page = query(new DatabaseQuery().pageSize(DatabaseQuery.MAX_PAGE_SIZE).after(continuation));
+            for (DatabaseDocument document : page.getDocuments()) {
+                documents.put(document.getString(Database.UNIQUE_NAME_KEY), document);
+            }
+            continuation = page.getContinuation();
+        } while (page.hasMore());
+        this.documents = documents;
         return this;
     }
 
@@ -105,6 +115,13 @@ public class DatabaseImpl implements Database {
         return result.getResult().getInt("size");
     }
 
+    @Override
+    public DatabasePage query(DatabaseQuery query) {
+        Result result = CloudAPI.getInstance().getNetworkConnection().getPacketManager()
+                                .sendQuery(new PacketDBOutQueryDocuments(name, query), CloudAPI.getInstance().getNetworkConnection());
+        return DatabasePage.fromDocument(result.getResult());
+    }
+
     @Override
     public Database insertAsync(DatabaseDocument... documents) {
         return insert(documents);
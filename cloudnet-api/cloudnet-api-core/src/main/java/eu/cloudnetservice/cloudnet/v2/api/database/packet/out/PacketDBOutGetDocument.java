@@ -27,6 +27,10 @@ public class PacketDBOutGetDocument extends Packet {
         super(PacketRC.DB + 1, new Document("name", name).append("db", db));
     }
 
+    /**
+     * @deprecated the master answers with one page of documents only, use {@link PacketDBOutQueryDocuments} to page through them
+     */
+    @Deprecated
     public PacketDBOutGetDocument(String db) {
         super(PacketRC.DB + 1, new Document("all", true).append("db", db));
     }
@@ -30,4 +30,11 @@ public final class PacketAPIOutGetRegisteredPlayers extends Packet {
     public PacketAPIOutGetRegisteredPlayers() {
         super(PacketRC.API + 11, new Document());
     }
+
+    /**
+     * @param continuation the continuation of the previous page of players
+     */
+    public PacketAPIOutGetRegisteredPlayers(String continuation) {
+        super(PacketRC.API + 11, new Document("after", continuation));
+    }
 }
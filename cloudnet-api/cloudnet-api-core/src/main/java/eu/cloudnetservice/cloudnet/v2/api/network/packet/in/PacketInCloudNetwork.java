@@ -33,7 +33,16 @@ public class PacketInCloudNetwork implements PacketInHandlerDefault {
     public void handleInput(Packet packet, PacketSender packetSender) {
         if (CloudAPI.getInstance() != null) {
             CloudNetwork cloudNetwork = packet.getData().getObject("cloudnetwork", CLOUDNET_TYPE);
-            CloudAPI.getInstance().setCloudNetwork(cloudNetwork);
+            if (packet.getData().contains("version")) {
+                long epoch = packet.getData().getLong("epoch");
+                long version = packet.getData().getLong("version");
+                if (epoch == CloudAPI.getInstance().getCloudNetworkEpoch() && version < CloudAPI.getInstance().getCloudNetworkVersion()) {
+                    return;
+                }
+                CloudAPI.getInstance().setCloudNetwork(cloudNetwork, epoch, version);
+            } else {
+                CloudAPI.getInstance().setCloudNetwork(cloudNetwork);
+            }
             CloudAPI.getInstance().getNetworkHandlerProvider().iterator(
                 obj -> obj.onCloudNetworkUpdate(cloudNetwork));
         }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.api.network.packet.in;
+
+import eu.cloudnetservice.cloudnet.v2.api.CloudAPI;
+import eu.cloudnetservice.cloudnet.v2.api.network.packet.PacketInHandlerDefault;
+import eu.cloudnetservice.cloudnet.v2.lib.CloudNetwork;
+import eu.cloudnetservice.cloudnet.v2.lib.CloudNetworkPatch;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
+
+/**
+ * Applies the changes of the cloud network since the last version.
+ * If a version was missed, the full cloud network is requested from the master instead.
+ */
+public class PacketInCloudNetworkPatch implements PacketInHandlerDefault {
+
+    public void handleInput(Packet packet, PacketSender packetSender) {
+        CloudAPI cloudAPI = CloudAPI.getInstance();
+        if (cloudAPI == null || cloudAPI.getCloudNetworkVersion() < 0) {
+            return;
+        }
+
+        long epoch = packet.getData().getLong("epoch");
+        long fromVersion = packet.getData().getLong("from");
+        long toVersion = packet.getData().getLong("to");
+
+        if (epoch == cloudAPI.getCloudNetworkEpoch() && toVersion <= cloudAPI.getCloudNetworkVersion()) {
+            return;
+        }
+
+        if (epoch != cloudAPI.getCloudNetworkEpoch() || fromVersion != cloudAPI.getCloudNetworkVersion()) {
+            cloudAPI.requestCloudNetwork();
+            return;
+        }
+
+        CloudNetwork cloudNetwork = CloudNetworkPatch.apply(cloudAPI.getCloudNetwork(), packet.getData().getArray("changes"));
+        cloudAPI.setCloudNetwork(cloudNetwork, epoch, toVersion);
+        cloudAPI.getNetworkHandlerProvider().iterator(
+            obj -> obj.onCloudNetworkUpdate(cloudNetwork));
+    }
+}
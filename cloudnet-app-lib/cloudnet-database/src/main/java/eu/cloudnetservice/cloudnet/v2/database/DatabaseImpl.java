@@ -17,9 +17,10 @@
 
 package eu.cloudnetservice.cloudnet.v2.database;
 
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 
 import java.io.File;
@@ -174,13 +175,13 @@ public class DatabaseImpl implements Database {
 
     @Override
     public Database insertAsync(DatabaseDocument... documents) {
-        NetworkUtils.getExecutor().submit(() -> insert(documents));
+        TaskScheduler.getExecutor(TaskPool.IO).submit(() -> insert(documents));
         return this;
     }
 
     @Override
     public Database deleteAsync(String name) {
-        NetworkUtils.getExecutor().submit(() -> delete(name));
+        TaskScheduler.getExecutor(TaskPool.IO).submit(() -> delete(name));
         return this;
     }
 
@@ -20,7 +20,10 @@ package eu.cloudnetservice.cloudnet.v2.database;
 import eu.cloudnetservice.cloudnet.v2.database.nitrite.NitriteDatabase;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.objects.ObjectRepository;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -28,6 +31,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 
@@ -55,9 +59,27 @@ public class DatabaseManager {
     private final Map<String, Database> databaseCollection = new ConcurrentHashMap<>();
 
     /**
-     * Constructs a new database manager.
+     * The number of pending writes of a database that triggers a flush, or 0 if writes are committed directly.
+     */
+    private final int writeBehindBatchSize;
+
+    /**
+     * Constructs a new database manager that commits every write directly.
      */
     public DatabaseManager() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a new database manager.
+     * If both arguments are positive, the databases use write-behind: writes are kept in memory and committed
+     * in batches every {@code flushIntervalMillis} or once a database has {@code writeBehindBatchSize} pending writes.
+     *
+     * @param writeBehindBatchSize the number of pending writes that triggers a flush, or 0 to disable write-behind
+     * @param flushIntervalMillis  the interval of the periodic flush in milliseconds, or 0 to disable write-behind
+     */
+    public DatabaseManager(int writeBehindBatchSize, long flushIntervalMillis) {
+        this.writeBehindBatchSize = flushIntervalMillis > 0 ? Math.max(0, writeBehindBatchSize) : 0;
         final Path dir = Paths.get("database");
         try {
             if (!Files.exists(dir) || !Files.isDirectory(dir)) {
@@ -75,6 +97,12 @@ public class DatabaseManager {
             System.out.println("Database upgrade necessary.");
             upgradeDatabases(dir);
         }
+
+        if (this.writeBehindBatchSize > 0) {
+            // flushes write to disk, so they share the I/O thread with the flushes requested by full batches
+            TaskScheduler.scheduleWithFixedDelay("DatabaseFlush", TaskPool.IO, this::flush,
+                                                 flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
@@ -168,6 +196,22 @@ public class DatabaseManager {
         return this;
     }
 
+    /**
+     * Commits the pending writes of the loaded databases.
+     *
+     * @return this manager for chaining
+     *
+     * @see NitriteDatabase#flush()
+     */
+    public DatabaseManager flush() {
+        for (Database database : databaseCollection.values()) {
+            if (database instanceof NitriteDatabase) {
+                ((NitriteDatabase) database).flush();
+            }
+        }
+        return this;
+    }
+
     /**
      * Clears the currently opened documents of the loaded databases.
      *
@@ -191,14 +235,22 @@ public class DatabaseManager {
      * @return the database for the given {@code name}
      */
     public Database getDatabase(String name) {
-        if (databaseCollection.containsKey(name)) {
-            return databaseCollection.get(name);
-        }
-
-        Database database = new NitriteDatabase(name, nitrite);
-        this.databaseCollection.put(name, database);
+        return databaseCollection.computeIfAbsent(name, key -> new NitriteDatabase(key, nitrite, writeBehindBatchSize));
+    }
 
-        return database;
+    /**
+     * Returns a typed repository for the given {@code name}, for data that needs its own fields and indexes
+     * instead of generic documents.
+     * Changes to the repository are committed together with the databases.
+     *
+     * @param name the name of the repository
+     * @param type the type of the stored objects
+     * @param <T>  the type of the stored objects
+     *
+     * @return the repository for the given {@code name}
+     */
+    public <T> ObjectRepository<T> getRepository(String name, Class<T> type) {
+        return nitrite.getRepository(name, type);
     }
 
 }
@@ -17,25 +17,47 @@
 
 package eu.cloudnetservice.cloudnet.v2.database.nitrite;
 
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabasePage;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseQuery;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import org.dizitart.no2.FindOptions;
 import org.dizitart.no2.IndexOptions;
 import org.dizitart.no2.IndexType;
 import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.SortOrder;
 import org.dizitart.no2.objects.Cursor;
+import org.dizitart.no2.objects.ObjectFilter;
 import org.dizitart.no2.objects.ObjectRepository;
 import org.dizitart.no2.objects.filters.ObjectFilters;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implementation of the {@link Database} interface using the Nitrite database.
  * This class uses the {@link ObjectRepository} to allow access to {@link DatabaseDocument} instances.
+ * <p>
+ * In write-behind mode, inserts and deletes are only recorded in memory, coalesced per unique name,
+ * and written to the repository in one commit by {@link #flush()}.
+ * Reads always see the pending writes, but only as copies of them.
  */
 public class NitriteDatabase implements Database {
 
+    /**
+     * Marker for a pending delete in {@link #pendingWrites}.
+     */
+    private static final DatabaseDocument DELETED = new DatabaseDocument();
+
     /**
      * THe object repository that is used to store and retrieve database documents from.
      */
@@ -49,6 +71,21 @@ public class NitriteDatabase implements Database {
      */
     private final Nitrite database;
 
+    /**
+     * The number of pending writes that triggers a flush, or 0 if every write is committed directly.
+     */
+    private final int writeBehindBatchSize;
+
+    /**
+     * The latest pending write for every unique name, {@link #DELETED} for deletes.
+     */
+    private final Map<String, DatabaseDocument> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a flush has been submitted because the batch size has been reached.
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
     /**
      * Constructs a new database with the given name and Nitrite database.
      * Adds an index to the key {@link #UNIQUE_NAME_KEY}, if one is not already present.
@@ -57,7 +94,21 @@ public class NitriteDatabase implements Database {
      * @param database the Nitrite database where this database is stored in.
      */
     public NitriteDatabase(final String name, final Nitrite database) {
+        this(name, database, 0);
+    }
+
+    /**
+     * Constructs a new database with the given name and Nitrite database.
+     * Adds an index to the key {@link #UNIQUE_NAME_KEY}, if one is not already present.
+     *
+     * @param name                 the name of this database.
+     * @param database             the Nitrite database where this database is stored in.
+     * @param writeBehindBatchSize the number of pending writes that triggers a flush,
+     *                             or 0 to commit every write directly.
+     */
+    public NitriteDatabase(final String name, final Nitrite database, final int writeBehindBatchSize) {
         this.database = database;
+        this.writeBehindBatchSize = writeBehindBatchSize;
         this.repository = database.getRepository(name, DatabaseDocument.class);
         if (!this.repository.hasIndex(UNIQUE_NAME_KEY)) {
             this.repository.createIndex(UNIQUE_NAME_KEY, IndexOptions.indexOptions(IndexType.Unique));
@@ -71,9 +122,29 @@ public class NitriteDatabase implements Database {
         for (final DatabaseDocument document : documentCursor) {
             map.put(document.getString(UNIQUE_NAME_KEY), document);
         }
+        pendingWrites.forEach((name, document) -> {
+            if (document == DELETED) {
+                map.remove(name);
+            } else {
+                map.put(name, copy(document));
+            }
+        });
         return map;
     }
 
+    /**
+     * Creates a deep copy of the given document.
+     * Pending writes are only stored and handed out as copies, so a caller mutating its instance
+     * cannot change a document while it is being flushed.
+     *
+     * @param document the document to copy.
+     *
+     * @return the copy of the document.
+     */
+    private static DatabaseDocument copy(final DatabaseDocument document) {
+        return new DatabaseDocument(new Document(document.toDocument().obj().deepCopy()));
+    }
+
     @Override
     public Database loadDocuments() {
         // No implementation as it is not needed
@@ -82,28 +153,76 @@ public class NitriteDatabase implements Database {
 
     @Override
     public DatabaseDocument getDocument(final String name) {
+        DatabaseDocument pending = pendingWrites.get(name);
+        if (pending != null) {
+            return pending == DELETED ? null : copy(pending);
+        }
         return repository.find(ObjectFilters.eq(UNIQUE_NAME_KEY, name)).firstOrDefault();
     }
 
     @Override
     public Database insert(final DatabaseDocument... documents) {
         for (final DatabaseDocument document : documents) {
-            if (document.contains(Database.UNIQUE_NAME_KEY)) {
-                repository.update(document, true);
-            } else {
+            if (!document.contains(Database.UNIQUE_NAME_KEY)) {
                 throw new IllegalArgumentException("Missing unique key in document.");
             }
         }
-        this.save();
+
+        if (writeBehindBatchSize > 0) {
+            for (final DatabaseDocument document : documents) {
+                pendingWrites.put(document.getString(UNIQUE_NAME_KEY), copy(document));
+            }
+            requestFlushIfFull();
+        } else {
+            for (final DatabaseDocument document : documents) {
+                repository.update(document, true);
+            }
+            this.save();
+        }
         return this;
     }
 
     @Override
     public Database delete(final String name) {
-        repository.remove(ObjectFilters.eq(UNIQUE_NAME_KEY, name));
+        if (writeBehindBatchSize > 0) {
+            pendingWrites.put(name, DELETED);
+            requestFlushIfFull();
+        } else {
+            repository.remove(ObjectFilters.eq(UNIQUE_NAME_KEY, name));
+        }
         return this;
     }
 
+    private void requestFlushIfFull() {
+        if (pendingWrites.size() >= writeBehindBatchSize && flushRequested.compareAndSet(false, true)) {
+            TaskScheduler.getExecutor(TaskPool.IO).submit(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Writes all pending writes to the repository and commits them at once.
+     * Does nothing if there are no pending writes.
+     */
+    public synchronized void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<String, DatabaseDocument> entry : new HashMap<>(pendingWrites).entrySet()) {
+            if (entry.getValue() == DELETED) {
+                repository.remove(ObjectFilters.eq(UNIQUE_NAME_KEY, entry.getKey()));
+            } else {
+                repository.update(entry.getValue(), true);
+            }
+            // a newer write of the same name stays pending for the next flush
+            pendingWrites.remove(entry.getKey(), entry.getValue());
+        }
+        this.database.commit();
+    }
+
     @Override
     public Database delete(final DatabaseDocument document) {
         if (document.contains(UNIQUE_NAME_KEY)) {
@@ -126,28 +245,70 @@ public class NitriteDatabase implements Database {
 
     @Override
     public boolean contains(final String name) {
-        return repository.find(ObjectFilters.eq(UNIQUE_NAME_KEY, name)).firstOrDefault() != null;
+        return getDocument(name) != null;
     }
 
+    /**
+     * Returns the number of documents in this database.
+     * Pending writes are counted without flushing them:
+     * inserts of new names add one document, deletes of stored names remove one.
+     *
+     * @return the number of documents in this database.
+     */
     @Override
-    public int size() {
-        return (int) repository.size();
+    public synchronized int size() {
+        long size = repository.size();
+        for (Map.Entry<String, DatabaseDocument> entry : pendingWrites.entrySet()) {
+            boolean stored = repository.find(ObjectFilters.eq(UNIQUE_NAME_KEY, entry.getKey())).firstOrDefault() != null;
+            if (entry.getValue() == DELETED) {
+                if (stored) {
+                    size--;
+                }
+            } else if (!stored) {
+                size++;
+            }
+        }
+        return (int) size;
+    }
+
+    /**
+     * Returns one page of the documents selected by the given query.
+     * The documents are read through a cursor over the unique name index, starting after the continuation token,
+     * so only the documents up to the end of the page are deserialized.
+     * Pending writes are merged into the cursor in name order without flushing them.
+     *
+     * @param query the query selecting the documents and the page.
+     *
+     * @return the requested page.
+     */
+    @Override
+    public synchronized DatabasePage query(final DatabaseQuery query) {
+        ObjectFilter filter = query.getContinuation() == null ?
+            ObjectFilters.ALL : ObjectFilters.gt(UNIQUE_NAME_KEY, query.getContinuation());
+        Cursor<DatabaseDocument> cursor = repository.find(filter, FindOptions.sort(UNIQUE_NAME_KEY, SortOrder.Ascending));
+
+        NavigableMap<String, DatabaseDocument> pending = new TreeMap<>(pendingWrites);
+        if (query.getContinuation() != null) {
+            pending = pending.tailMap(query.getContinuation(), false);
+        }
+        return query.collect(new PendingWritesIterator(cursor.iterator(), pending));
     }
 
     @Override
     public Database insertAsync(final DatabaseDocument... documents) {
-        NetworkUtils.getExecutor().submit(() -> insert(documents));
+        TaskScheduler.getExecutor(TaskPool.IO).submit(() -> insert(documents));
         return this;
     }
 
     @Override
     public Database deleteAsync(final String name) {
-        NetworkUtils.getExecutor().submit(() -> delete(name));
+        TaskScheduler.getExecutor(TaskPool.IO).submit(() -> delete(name));
         return this;
     }
 
     @Override
     public void save() {
+        flush();
         this.database.commit();
     }
 
@@ -160,4 +321,61 @@ public class NitriteDatabase implements Database {
         // Not implemented as it's not needed.
     }
 
+    /**
+     * Iterates the stored documents in name order, replacing or skipping those with a pending write
+     * and adding pending inserts of new names at their position.
+     */
+    private static final class PendingWritesIterator implements Iterator<DatabaseDocument> {
+
+        private final Iterator<DatabaseDocument> stored;
+        private final Iterator<Map.Entry<String, DatabaseDocument>> pending;
+        private DatabaseDocument nextStored;
+        private Map.Entry<String, DatabaseDocument> nextPending;
+        private DatabaseDocument next;
+
+        private PendingWritesIterator(final Iterator<DatabaseDocument> stored,
+                                      final NavigableMap<String, DatabaseDocument> pending) {
+            this.stored = stored;
+            this.pending = pending.entrySet().iterator();
+            this.nextStored = stored.hasNext() ? stored.next() : null;
+            this.nextPending = this.pending.hasNext() ? this.pending.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && (nextStored != null || nextPending != null)) {
+                int order;
+                if (nextStored == null) {
+                    order = 1;
+                } else if (nextPending == null) {
+                    order = -1;
+                } else {
+                    order = nextStored.getString(UNIQUE_NAME_KEY).compareTo(nextPending.getKey());
+                }
+
+                if (order < 0) {
+                    next = nextStored;
+                } else if (nextPending.getValue() != DELETED) {
+                    next = copy(nextPending.getValue());
+                }
+                if (order <= 0) {
+                    nextStored = stored.hasNext() ? stored.next() : null;
+                }
+                if (order >= 0) {
+                    nextPending = pending.hasNext() ? pending.next() : null;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public DatabaseDocument next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DatabaseDocument document = next;
+            next = null;
+            return document;
+        }
+    }
 }
@@ -19,7 +19,8 @@ package eu.cloudnetservice.cloudnet.v2.event;
 
 import eu.cloudnetservice.cloudnet.v2.event.async.AsyncEvent;
 import eu.cloudnetservice.cloudnet.v2.event.interfaces.IEventManager;
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import net.jodah.typetools.TypeResolver;
 
 import java.util.ArrayList;
@@ -100,7 +101,7 @@ public final class EventManager implements IEventManager {
         }
 
         if (event instanceof AsyncEvent) {
-            NetworkUtils.getExecutor().submit(() -> {
+            TaskScheduler.getExecutor(TaskPool.EVENT).submit(() -> {
                 AsyncEvent asyncEvent = ((AsyncEvent) event);
                 asyncEvent.getPoster().onPreCall(asyncEvent);
                 for (EventEntity eventEntity : registeredListeners.get(event.getClass())) {
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.web.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedNioFile;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A response whose body is not held in memory, but streamed to the client by the {@link WebServerHandler}.
+ * Files are sent as a {@link DefaultFileRegion}, so the kernel can copy them to the socket directly,
+ * other bodies are written chunk by chunk using chunked transfer encoding.
+ */
+public final class StreamingHttpResponse extends DefaultFullHttpResponse {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Path file;
+    private final long offset;
+    private final long length;
+    private final ChunkedInput<ByteBuf> chunkedInput;
+
+    private StreamingHttpResponse(HttpVersion version,
+                                  HttpResponseStatus status,
+                                  Path file,
+                                  long offset,
+                                  long length,
+                                  ChunkedInput<ByteBuf> chunkedInput) {
+        super(version, status, Unpooled.EMPTY_BUFFER);
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.chunkedInput = chunkedInput;
+    }
+
+    /**
+     * Creates a response that streams the given file.
+     * Conditional requests using {@code If-None-Match} and single byte ranges using {@code Range} are supported.
+     *
+     * @param request the request to answer
+     * @param file    the file to send
+     *
+     * @return the response sending the file, the requested part of it or no content at all, if the client is up-to-date
+     *
+     * @throws IOException if the file could not be read
+     */
+    public static StreamingHttpResponse ofFile(HttpRequest request, Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        String eTag = '"' + Long.toHexString(size) + '-' + Long.toHexString(attributes.lastModifiedTime().toMillis()) + '"';
+        if (isNotModified(request, eTag)) {
+            return notModified(request, eTag);
+        }
+
+        long offset = 0;
+        long length = size;
+        HttpResponseStatus status = HttpResponseStatus.OK;
+        String range = request.headers().get(HttpHeaderNames.RANGE);
+        if (range != null && range.startsWith("bytes=") && range.indexOf(',') == -1) {
+            long[] bounds = parseRange(range.substring(6).trim(), size);
+            if (bounds == null) {
+                StreamingHttpResponse response = new StreamingHttpResponse(request.protocolVersion(),
+                                                                           HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE,
+                                                                           null, 0, 0, null);
+                response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + size);
+                response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+                return response;
+            }
+            offset = bounds[0];
+            length = bounds[1] - bounds[0] + 1;
+            status = HttpResponseStatus.PARTIAL_CONTENT;
+        }
+
+        StreamingHttpResponse response = new StreamingHttpResponse(request.protocolVersion(), status, file, offset, length, null);
+        response.headers().set(HttpHeaderNames.ETAG, eTag);
+        response.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, length);
+        if (status == HttpResponseStatus.PARTIAL_CONTENT) {
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes " + offset + '-' + (offset + length - 1) + '/' + size);
+        }
+        return response;
+    }
+
+    /**
+     * Creates a response that streams the chunks of the given input.
+     * The size of such a body is not known in advance, so ranges are not supported.
+     *
+     * @param request      the request to answer
+     * @param chunkedInput the input providing the body
+     * @param eTag         the entity tag of the body or {@code null}, if there is none
+     *
+     * @return the response sending the chunks
+     */
+    public static StreamingHttpResponse ofChunks(HttpRequest request, ChunkedInput<ByteBuf> chunkedInput, String eTag) {
+        StreamingHttpResponse response = new StreamingHttpResponse(request.protocolVersion(),
+                                                                   HttpResponseStatus.OK,
+                                                                   null, 0, 0, chunkedInput);
+        if (eTag != null) {
+            response.headers().set(HttpHeaderNames.ETAG, eTag);
+        }
+        response.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.NONE);
+        response.headers().set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+        return response;
+    }
+
+    /**
+     * @param request the request to check
+     * @param eTag    the current entity tag of the requested resource
+     *
+     * @return whether the client already has the current version of the resource
+     */
+    public static boolean isNotModified(HttpRequest request, String eTag) {
+        String ifNoneMatch = request.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param request the request to answer
+     * @param eTag    the current entity tag of the requested resource
+     *
+     * @return a response telling the client that its version of the resource is still up-to-date
+     */
+    public static StreamingHttpResponse notModified(HttpRequest request, String eTag) {
+        StreamingHttpResponse response = new StreamingHttpResponse(request.protocolVersion(),
+                                                                   HttpResponseStatus.NOT_MODIFIED,
+                                                                   null, 0, 0, null);
+        response.headers().set(HttpHeaderNames.ETAG, eTag);
+        return response;
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static long[] parseRange(String range, long size) {
+        int separator = range.indexOf('-');
+        if (separator == -1) {
+            return null;
+        }
+        try {
+            String first = range.substring(0, separator).trim();
+            String last = range.substring(separator + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            return start <= end && start < size ? new long[] {start, end} : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the head and the body of this response to the given channel.
+     *
+     * @param ctx the context of the channel to write to
+     *
+     * @return the future of the last write
+     *
+     * @throws IOException if the file of this response could not be opened
+     */
+    ChannelFuture write(ChannelHandlerContext ctx) throws IOException {
+        FileChannel fileChannel = file == null ? null : FileChannel.open(file, StandardOpenOption.READ);
+        ctx.write(new DefaultHttpResponse(protocolVersion(), status(), headers()));
+        if (fileChannel != null) {
+            if (ctx.pipeline().get(SslHandler.class) != null) {
+                // Zero-copy is not possible if the content has to be encrypted first
+                return ctx.writeAndFlush(new HttpChunkedInput(new ChunkedNioFile(fileChannel, offset, length, CHUNK_SIZE)));
+            }
+            ctx.write(new DefaultFileRegion(fileChannel, offset, length));
+            return ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        }
+        if (chunkedInput != null) {
+            return ctx.writeAndFlush(new HttpChunkedInput(chunkedInput));
+        }
+        return ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+    }
+}
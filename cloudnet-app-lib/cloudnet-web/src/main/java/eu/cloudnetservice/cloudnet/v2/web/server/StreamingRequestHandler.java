@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.web.server;
+
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.RequestBodyHandler;
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.StreamingWebHandler;
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.WebHandler;
+import eu.cloudnetservice.cloudnet.v2.web.server.util.QueryDecoder;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class that passes requests to {@link StreamingWebHandler}s before they are aggregated.
+ * All other requests are passed on to the next handler in the pipeline.
+ */
+final class StreamingRequestHandler extends ChannelInboundHandlerAdapter {
+
+    /**
+     * The web server that is handled by this handler instance.
+     */
+    private final WebServer webServer;
+
+    /**
+     * The request whose body is currently received.
+     */
+    private HttpRequest httpRequest;
+
+    /**
+     * The handler receiving the body of the current request.
+     */
+    private RequestBodyHandler requestBodyHandler;
+
+    /**
+     * Constructs a new streaming request handler for a given web server.
+     *
+     * @param webServer the web server to handle the inbound channel for.
+     */
+    StreamingRequestHandler(WebServer webServer) {
+        this.webServer = webServer;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest httpRequest = (HttpRequest) msg;
+            URI uri = new URI(httpRequest.uri());
+            String path = WebServerHandler.normalizePath(uri);
+
+            StreamingWebHandler streamingWebHandler = null;
+            for (WebHandler webHandler : webServer.getWebServerProvider().getHandlers(path)) {
+                if (webHandler instanceof StreamingWebHandler) {
+                    streamingWebHandler = (StreamingWebHandler) webHandler;
+                    break;
+                }
+            }
+            if (streamingWebHandler == null) {
+                ctx.fireChannelRead(msg);
+                return;
+            }
+
+            if (HttpUtil.is100ContinueExpected(httpRequest)) {
+                ctx.writeAndFlush(new DefaultFullHttpResponse(httpRequest.protocolVersion(), HttpResponseStatus.CONTINUE));
+            }
+            this.httpRequest = httpRequest;
+            this.requestBodyHandler = streamingWebHandler.handleRequestBody(ctx,
+                                                                            new QueryDecoder(uri.getQuery()),
+                                                                            WebServerHandler.pathProvider(path, streamingWebHandler),
+                                                                            httpRequest);
+            if (!(msg instanceof HttpContent)) {
+                return;
+            }
+        }
+
+        if (!(msg instanceof HttpContent) || requestBodyHandler == null) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        HttpContent httpContent = (HttpContent) msg;
+        try {
+            requestBodyHandler.handleContent(httpContent.content());
+        } finally {
+            httpContent.release();
+        }
+
+        if (msg instanceof LastHttpContent) {
+            CompletableFuture<FullHttpResponse> response = requestBodyHandler.handleEnd();
+            requestBodyHandler = null;
+            HttpRequest httpRequest = this.httpRequest;
+            response.whenComplete((fullHttpResponse, cause) -> ctx.channel().eventLoop().execute(() -> {
+                try {
+                    if (cause == null) {
+                        WebServerHandler.writeResponse(ctx, httpRequest, fullHttpResponse);
+                        return;
+                    }
+                    cause.printStackTrace();
+                    WebServerHandler.writeResponse(ctx, httpRequest, new DefaultFullHttpResponse(
+                        httpRequest.protocolVersion(), HttpResponseStatus.INTERNAL_SERVER_ERROR));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    ctx.close();
+                }
+            }));
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        if (requestBodyHandler == null) {
+            ctx.fireExceptionCaught(cause);
+            return;
+        }
+        abort();
+        cause.printStackTrace();
+        ctx.writeAndFlush(new DefaultFullHttpResponse(httpRequest.protocolVersion(), HttpResponseStatus.INTERNAL_SERVER_ERROR))
+           .addListener(ChannelFutureListener.CLOSE);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        abort();
+        ctx.fireChannelInactive();
+    }
+
+    private void abort() {
+        if (requestBodyHandler != null) {
+            requestBodyHandler.handleAbort();
+            requestBodyHandler = null;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 import java.util.concurrent.TimeUnit;
 
@@ -89,7 +90,9 @@ public class WebServer {
                 @Override
                 protected void initChannel(Channel channel) {
                     channel.pipeline().addLast(new HttpServerCodec(),
+                                               new StreamingRequestHandler(WebServer.this),
                                                new HttpObjectAggregator(Integer.MAX_VALUE),
+                                               new ChunkedWriteHandler(),
                                                new WebServerHandler(WebServer.this));
                 }
             });
@@ -31,6 +31,7 @@ import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 
@@ -61,6 +62,33 @@ final class WebServerHandler extends ChannelInboundHandlerAdapter {
         HttpRequest httpRequest = ((HttpRequest) msg);
 
         URI uri = new URI(httpRequest.uri());
+        String path = normalizePath(uri);
+
+        List<WebHandler> webHandlers = webServer.getWebServerProvider().getHandlers(path);
+        if (webHandlers.size() != 0) {
+            FullHttpResponse fullHttpResponse = null;
+            for (WebHandler webHandler : webHandlers) {
+                fullHttpResponse = webHandler.handleRequest(ctx,
+                                                            new QueryDecoder(uri.getQuery()),
+                                                            pathProvider(path, webHandler),
+                                                            httpRequest);
+            }
+            writeResponse(ctx, httpRequest, fullHttpResponse);
+        } else {
+            FullHttpResponse fullHttpResponse = new DefaultFullHttpResponse(httpRequest.protocolVersion(), HttpResponseStatus.NOT_FOUND);
+            fullHttpResponse.headers().set("Access-Control-Allow-Origin", "*");
+            ctx.writeAndFlush(fullHttpResponse).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Returns the path of the given URI without a trailing slash.
+     *
+     * @param uri the URI of a request
+     *
+     * @return the path to look up the web handlers with
+     */
+    static String normalizePath(URI uri) {
         String path = uri.getRawPath();
         if (path == null) {
             path = NetworkUtils.SLASH_STRING;
@@ -69,44 +97,54 @@ final class WebServerHandler extends ChannelInboundHandlerAdapter {
         if (path.endsWith(NetworkUtils.SLASH_STRING)) {
             path = path.substring(0, path.length() - 1);
         }
+        return path;
+    }
 
-        List<WebHandler> webHandlers = webServer.getWebServerProvider().getHandlers(path);
-        if (webHandlers.size() != 0) {
-            FullHttpResponse fullHttpResponse = null;
-            for (WebHandler webHandler : webHandlers) {
-                if (path.isEmpty() || path.equals(NetworkUtils.SLASH_STRING)) {
-                    fullHttpResponse = webHandler.handleRequest(ctx,
-                                                                new QueryDecoder(uri.getQuery()),
-                                                                new PathProvider(path, new WrappedMap()),
-                                                                httpRequest);
-                } else {
-                    String[] array = path.replaceFirst(NetworkUtils.SLASH_STRING, NetworkUtils.EMPTY_STRING)
-                                         .split(NetworkUtils.SLASH_STRING);
-                    String[] pathArray = webHandler.getPath().replaceFirst(NetworkUtils.SLASH_STRING, NetworkUtils.EMPTY_STRING).split(
-                        NetworkUtils.SLASH_STRING);
-                    WrappedMap wrappedMap = new WrappedMap();
-                    for (short i = 0; i < array.length; i++) {
-                        if (pathArray[i].startsWith("{") && pathArray[i].endsWith("}")) {
-                            wrappedMap.append(pathArray[i].replace("{", NetworkUtils.EMPTY_STRING).replace("}", NetworkUtils.EMPTY_STRING),
-                                              array[i]);
-                        }
-                    }
-                    fullHttpResponse = webHandler.handleRequest(ctx,
-                                                                new QueryDecoder(uri.getQuery()),
-                                                                new PathProvider(path, wrappedMap),
-                                                                httpRequest);
-                }
-            }
-            if (fullHttpResponse == null) {
-                fullHttpResponse = new DefaultFullHttpResponse(httpRequest.protocolVersion(),
-                                                               HttpResponseStatus.NOT_FOUND,
-                                                               Unpooled.wrappedBuffer("Error 404 page not found!".getBytes()));
+    /**
+     * Creates a path provider containing the parameters of the path of a web handler.
+     *
+     * @param path       the requested path
+     * @param webHandler the web handler handling the request
+     *
+     * @return the path provider for the request
+     */
+    static PathProvider pathProvider(String path, WebHandler webHandler) {
+        if (path.isEmpty() || path.equals(NetworkUtils.SLASH_STRING)) {
+            return new PathProvider(path, new WrappedMap());
+        }
+        String[] array = path.replaceFirst(NetworkUtils.SLASH_STRING, NetworkUtils.EMPTY_STRING)
+                             .split(NetworkUtils.SLASH_STRING);
+        String[] pathArray = webHandler.getPath().replaceFirst(NetworkUtils.SLASH_STRING, NetworkUtils.EMPTY_STRING).split(
+            NetworkUtils.SLASH_STRING);
+        WrappedMap wrappedMap = new WrappedMap();
+        for (short i = 0; i < array.length; i++) {
+            if (pathArray[i].startsWith("{") && pathArray[i].endsWith("}")) {
+                wrappedMap.append(pathArray[i].replace("{", NetworkUtils.EMPTY_STRING).replace("}", NetworkUtils.EMPTY_STRING),
+                                  array[i]);
             }
-            fullHttpResponse.headers().set("Access-Control-Allow-Origin", "*");
-            ctx.writeAndFlush(fullHttpResponse).addListener(ChannelFutureListener.CLOSE);
+        }
+        return new PathProvider(path, wrappedMap);
+    }
+
+    /**
+     * Writes the response of a web handler and closes the connection afterwards.
+     *
+     * @param ctx              the context of the channel to write to
+     * @param httpRequest      the request that is answered
+     * @param fullHttpResponse the response of the web handler or {@code null}, if no handler answered the request
+     *
+     * @throws IOException if the body of a streaming response could not be opened
+     */
+    static void writeResponse(ChannelHandlerContext ctx, HttpRequest httpRequest, FullHttpResponse fullHttpResponse) throws IOException {
+        if (fullHttpResponse == null) {
+            fullHttpResponse = new DefaultFullHttpResponse(httpRequest.protocolVersion(),
+                                                           HttpResponseStatus.NOT_FOUND,
+                                                           Unpooled.wrappedBuffer("Error 404 page not found!".getBytes()));
+        }
+        fullHttpResponse.headers().set("Access-Control-Allow-Origin", "*");
+        if (fullHttpResponse instanceof StreamingHttpResponse) {
+            ((StreamingHttpResponse) fullHttpResponse).write(ctx).addListener(ChannelFutureListener.CLOSE);
         } else {
-            FullHttpResponse fullHttpResponse = new DefaultFullHttpResponse(httpRequest.protocolVersion(), HttpResponseStatus.NOT_FOUND);
-            fullHttpResponse.headers().set("Access-Control-Allow-Origin", "*");
             ctx.writeAndFlush(fullHttpResponse).addListener(ChannelFutureListener.CLOSE);
         }
     }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.web.server.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.FullHttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Receives the body of a single request to a {@link StreamingWebHandler} chunk by chunk.
+ * All methods are called from the event loop of the request's channel.
+ */
+public interface RequestBodyHandler {
+
+    /**
+     * Creates a body handler that discards the request body and answers with the given response.
+     *
+     * @param response the response to send once the request was received completely
+     *
+     * @return a body handler discarding the request body
+     */
+    static RequestBodyHandler respond(FullHttpResponse response) {
+        return new RequestBodyHandler() {
+            @Override
+            public void handleContent(ByteBuf content) {
+            }
+
+            @Override
+            public CompletableFuture<FullHttpResponse> handleEnd() {
+                return CompletableFuture.completedFuture(response);
+            }
+
+            @Override
+            public void handleAbort() {
+                response.release();
+            }
+        };
+    }
+
+    /**
+     * Handles the next chunk of the request body.
+     * The buffer is released after this method returns, so it has to be retained if it is used later.
+     *
+     * @param content the next chunk of the request body
+     *
+     * @throws Exception when any error occurred during the handling of the chunk
+     */
+    void handleContent(ByteBuf content) throws Exception;
+
+    /**
+     * Called after the last chunk of the request body was handled.
+     * Work that takes long should complete the returned future from another thread, so the event loop is not blocked.
+     *
+     * @return the future of the full response to the HTTP client, which may complete with {@code null}
+     * for a {@code HTTP 404 - Not found} response
+     *
+     * @throws Exception when any error occurred during the handling of the request
+     */
+    CompletableFuture<FullHttpResponse> handleEnd() throws Exception;
+
+    /**
+     * Called instead of {@link #handleEnd()}, if the request could not be received completely.
+     * Resources held for the request should be released here.
+     */
+    void handleAbort();
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.web.server.handler;
+
+import eu.cloudnetservice.cloudnet.v2.web.server.util.PathProvider;
+import eu.cloudnetservice.cloudnet.v2.web.server.util.QueryDecoder;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpRequest;
+
+/**
+ * Web handler that receives request bodies chunk by chunk instead of as a whole.
+ * Requests to such a handler are never aggregated, so the size of their bodies is not limited by the available memory.
+ */
+public abstract class StreamingWebHandler extends WebHandler {
+
+    /**
+     * Constructs a new streaming web handler for a given path.
+     *
+     * @param path the path where this handler is available.
+     */
+    protected StreamingWebHandler(String path) {
+        super(path);
+    }
+
+    /**
+     * Handle the head of a request to the configured {@code path}.
+     *
+     * @param channelHandlerContext the Netty context this request originates from
+     * @param queryDecoder          a decoder for possible query parameters
+     * @param pathProvider          a path provider with the provided parameters
+     * @param httpRequest           the head of the HTTP request that was received and should be handled
+     *
+     * @return the handler receiving the body of the request
+     *
+     * @throws Exception when any error occurred during the handling of the request
+     */
+    public abstract RequestBodyHandler handleRequestBody(ChannelHandlerContext channelHandlerContext,
+                                                         QueryDecoder queryDecoder,
+                                                         PathProvider pathProvider,
+                                                         HttpRequest httpRequest) throws Exception;
+
+    /**
+     * Streaming handlers receive their requests through {@link #handleRequestBody}, so this method is never called.
+     *
+     * @return {@code null}
+     */
+    @Override
+    public FullHttpResponse handleRequest(ChannelHandlerContext channelHandlerContext,
+                                          QueryDecoder queryDecoder,
+                                          PathProvider pathProvider,
+                                          HttpRequest httpRequest) {
+        return null;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import io.netty.util.AttributeKey;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental changes between two versions of the {@link CloudNetwork}.
+ * Both versions are compared in their json form, objects are compared key by key down to
+ * {@link #MAX_DEPTH} levels, so a changed group only transfers its changed properties and a changed
+ * message only transfers its key. Anything below that, and any array, is replaced as a whole.
+ * <p>
+ * Each change is an object containing the {@code path} of keys to the changed element and either its new
+ * {@code value} or {@code remove: true}.
+ */
+public final class CloudNetworkPatch {
+
+    /**
+     * Name of the capability in the auth packet of a client that applies patches.
+     */
+    public static final String CAPABILITY = "cloudNetworkPatches";
+
+    public static final AttributeKey<Boolean> PATCHES = AttributeKey.valueOf("cloudnet_network_patches");
+
+    static final int MAX_DEPTH = 3;
+
+    private CloudNetworkPatch() {
+    }
+
+    /**
+     * Computes the changes from one version of the cloud network to another.
+     *
+     * @param previous the json form of the previous version
+     * @param current  the json form of the current version
+     *
+     * @return the changes, empty if both versions are equal
+     */
+    public static JsonArray diff(JsonObject previous, JsonObject current) {
+        JsonArray changes = new JsonArray();
+        diff(previous, current, new JsonArray(), 0, changes);
+        return changes;
+    }
+
+    private static void diff(JsonObject previous, JsonObject current, JsonArray path, int depth, JsonArray changes) {
+        Set<String> keys = new HashSet<>();
+        for (Map.Entry<String, JsonElement> entry : previous.entrySet()) {
+            keys.add(entry.getKey());
+        }
+        for (Map.Entry<String, JsonElement> entry : current.entrySet()) {
+            keys.add(entry.getKey());
+        }
+
+        for (String key : keys) {
+            JsonArray childPath = new JsonArray();
+            childPath.addAll(path);
+            childPath.add(key);
+
+            JsonElement previousValue = previous.get(key);
+            JsonElement currentValue = current.get(key);
+            if (currentValue == null) {
+                JsonObject change = new JsonObject();
+                change.add("path", childPath);
+                change.addProperty("remove", true);
+                changes.add(change);
+            } else if (previousValue == null || !previousValue.equals(currentValue)) {
+                if (previousValue != null && previousValue.isJsonObject() && currentValue.isJsonObject() && depth + 1 < MAX_DEPTH) {
+                    diff(previousValue.getAsJsonObject(), currentValue.getAsJsonObject(), childPath, depth + 1, changes);
+                } else {
+                    JsonObject change = new JsonObject();
+                    change.add("path", childPath);
+                    change.add("value", currentValue);
+                    changes.add(change);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the given changes to the json form of a cloud network.
+     *
+     * @param network the json form of the cloud network, it is modified in place
+     * @param changes the changes to apply
+     */
+    public static void apply(JsonObject network, JsonArray changes) {
+        for (JsonElement element : changes) {
+            JsonObject change = element.getAsJsonObject();
+            JsonArray path = change.getAsJsonArray("path");
+
+            JsonObject parent = network;
+            for (int i = 0; i < path.size() - 1; i++) {
+                String key = path.get(i).getAsString();
+                JsonElement child = parent.get(key);
+                if (child == null || !child.isJsonObject()) {
+                    child = new JsonObject();
+                    parent.add(key, child);
+                }
+                parent = child.getAsJsonObject();
+            }
+
+            String key = path.get(path.size() - 1).getAsString();
+            if (change.has("remove")) {
+                parent.remove(key);
+            } else {
+                parent.add(key, change.get("value"));
+            }
+        }
+    }
+
+    /**
+     * Applies the given changes to a cloud network.
+     *
+     * @param cloudNetwork the cloud network to apply the changes to
+     * @param changes      the changes to apply
+     *
+     * @return a new cloud network with the changes applied
+     */
+    public static CloudNetwork apply(CloudNetwork cloudNetwork, JsonArray changes) {
+        JsonObject network = Document.GSON.toJsonTree(cloudNetwork).getAsJsonObject();
+        apply(network, changes);
+        return Document.GSON.fromJson(network, CloudNetwork.class);
+    }
+}
@@ -19,6 +19,9 @@ package eu.cloudnetservice.cloudnet.v2.lib;
 
 import com.google.gson.Gson;
 import com.sun.management.OperatingSystemMXBean;
+import eu.cloudnetservice.cloudnet.v2.lib.network.FlushBatchingHandler;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompressionDecoder;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompressionEncoder;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolInDecoder;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolLengthDeserializer;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolLengthSerializer;
@@ -130,9 +133,12 @@ public final class NetworkUtils {
     }
 
     public static Channel initChannel(Channel channel) {
-        channel.pipeline().addLast(new ProtocolLengthDeserializer(),
+        channel.pipeline().addLast(new FlushBatchingHandler(),
+                                   new ProtocolLengthDeserializer(),
+                                   new ProtocolCompressionDecoder(),
                                    new ProtocolInDecoder(),
                                    new ProtocolLengthSerializer(),
+                                   new ProtocolCompressionEncoder(),
                                    new ProtocolOutEncoder());
         return channel;
     }
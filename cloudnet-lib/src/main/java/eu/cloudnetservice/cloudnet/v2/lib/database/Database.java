@@ -18,6 +18,8 @@
 package eu.cloudnetservice.cloudnet.v2.lib.database;
 
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public interface Database {
 
@@ -121,6 +123,24 @@ public interface Database {
      */
     int size();
 
+    /**
+     * Returns one page of the documents selected by the given query.
+     * Unlike {@link #getDocuments()}, this does not need to hold all documents in memory at once,
+     * so large databases should be read page by page with this method.
+     * The default implementation pages through {@link #getDocuments()}.
+     *
+     * @param query the query selecting the documents and the page.
+     *
+     * @return the requested page.
+     */
+    default DatabasePage query(DatabaseQuery query) {
+        NavigableMap<String, DatabaseDocument> documents = new TreeMap<>(loadDocuments().getDocuments());
+        if (query.getContinuation() != null) {
+            documents = documents.tailMap(query.getContinuation(), false);
+        }
+        return query.collect(documents.values().iterator());
+    }
+
     /**
      * Asynchronously inserts the documents to this database.
      * This method makes no guarantees about the actual asynchronicity of this method.
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.database;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of the result of a {@link DatabaseQuery}.
+ */
+public final class DatabasePage {
+
+    private final List<DatabaseDocument> documents;
+    private final String continuation;
+
+    /**
+     * @param documents    the documents of this page
+     * @param continuation the token to request the next page with, or null if this is the last page
+     */
+    public DatabasePage(List<DatabaseDocument> documents, String continuation) {
+        this.documents = documents;
+        this.continuation = continuation;
+    }
+
+    /**
+     * Reads a page written by {@link #toDocument()}.
+     *
+     * @param document the written page
+     *
+     * @return the page
+     */
+    public static DatabasePage fromDocument(Document document) {
+        List<DatabaseDocument> documents = new ArrayList<>();
+        for (JsonElement element : document.getArray("documents")) {
+            documents.add(new DatabaseDocument(new Document(element.getAsJsonObject())));
+        }
+        return new DatabasePage(documents, document.getString("continuation"));
+    }
+
+    /**
+     * @return this page as a document, to send it over the network
+     */
+    public Document toDocument() {
+        JsonArray array = new JsonArray();
+        for (DatabaseDocument document : documents) {
+            array.add(document.toDocument().obj());
+        }
+        return new Document("documents", array).append("continuation", continuation);
+    }
+
+    public List<DatabaseDocument> getDocuments() {
+        return Collections.unmodifiableList(documents);
+    }
+
+    /**
+     * @return the token to pass to {@link DatabaseQuery#after(String)} for the next page, or null if this is the last page
+     */
+    public String getContinuation() {
+        return continuation;
+    }
+
+    public boolean hasMore() {
+        return continuation != null;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.database;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query for one page of the documents of a {@link Database}.
+ * <p>
+ * Documents are returned in the order of their unique names. A query selects the documents whose fields equal
+ * all filter values, optionally reduces them to some of their fields and returns at most one page of them.
+ * The next page is requested by passing the continuation token of the previous page to {@link #after(String)}.
+ * Queries are serializable, so they can be sent to the master unchanged.
+ */
+public final class DatabaseQuery {
+
+    /**
+     * The page size used if none is set.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The largest page size, larger page sizes are reduced to this.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final Map<String, JsonElement> filters = new LinkedHashMap<>();
+    private final List<String> fields = new ArrayList<>();
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private String continuation;
+
+    /**
+     * Only select documents whose field at the given path equals the value.
+     *
+     * @param path  the name of the field, nested fields are separated by dots
+     * @param value the value the field has to be equal to
+     *
+     * @return this query for chaining
+     */
+    public DatabaseQuery where(String path, Object value) {
+        this.filters.put(path, value == null ? JsonNull.INSTANCE : Document.GSON.toJsonTree(value));
+        return this;
+    }
+
+    /**
+     * Only return the given top level fields of the selected documents.
+     * The unique name is always returned.
+     *
+     * @param fields the names of the fields to return
+     *
+     * @return this query for chaining
+     */
+    public DatabaseQuery select(String... fields) {
+        this.fields.addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    /**
+     * @param pageSize the maximum number of documents of the page, between 1 and {@link #MAX_PAGE_SIZE}
+     *
+     * @return this query for chaining
+     */
+    public DatabaseQuery pageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+        }
+
+        this.pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        return this;
+    }
+
+    /**
+     * @param continuation the continuation token of the previous page, or null for the first page
+     *
+     * @return this query for chaining
+     */
+    public DatabaseQuery after(String continuation) {
+        this.continuation = continuation;
+        return this;
+    }
+
+    public Map<String, JsonElement> getFilters() {
+        return Collections.unmodifiableMap(filters);
+    }
+
+    public List<String> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    public int getPageSize() {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @return the unique name after which the page starts, or null for the first page
+     */
+    public String getContinuation() {
+        return continuation;
+    }
+
+    /**
+     * @param document the document to check
+     *
+     * @return whether all fields of the document equal the filter values
+     */
+    public boolean matches(DatabaseDocument document) {
+        for (Map.Entry<String, JsonElement> filter : filters.entrySet()) {
+            JsonElement value = document.toDocument().obj();
+            for (String key : filter.getKey().split("\\.")) {
+                value = value.isJsonObject() ? value.getAsJsonObject().get(key) : null;
+                if (value == null) {
+                    value = JsonNull.INSTANCE;
+                    break;
+                }
+            }
+            if (!value.equals(filter.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param document the document to project
+     *
+     * @return the document itself, or a copy with only the selected fields and the unique name
+     */
+    public DatabaseDocument project(DatabaseDocument document) {
+        if (fields.isEmpty()) {
+            return document;
+        }
+
+        JsonObject source = document.toDocument().obj();
+        JsonObject projection = new JsonObject();
+        projection.add(Database.UNIQUE_NAME_KEY, source.get(Database.UNIQUE_NAME_KEY));
+        for (String field : fields) {
+            if (source.has(field)) {
+                projection.add(field, source.get(field));
+            }
+        }
+        return new DatabaseDocument(new Document(projection));
+    }
+
+    /**
+     * Collects the page of this query.
+     *
+     * @param documents the documents after the continuation token, in the order of their unique names
+     *
+     * @return the page of this query
+     */
+    public DatabasePage collect(Iterator<DatabaseDocument> documents) {
+        List<DatabaseDocument> page = new ArrayList<>();
+        String last = null;
+        while (documents.hasNext()) {
+            DatabaseDocument document = documents.next();
+            if (!matches(document)) {
+                continue;
+            }
+
+            if (page.size() == getPageSize()) {
+                return new DatabasePage(page, last);
+            }
+            page.add(project(document));
+            last = document.getString(Database.UNIQUE_NAME_KEY);
+        }
+        return new DatabasePage(page, null);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.map;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded cache that evicts the least recently used entry once it is full,
+ * and entries that have not been accessed for longer than the idle time.
+ * All methods are thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class LruCache<K, V> {
+
+    private final int maxSize;
+    private final long idleNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize  the maximum number of entries
+     * @param idleTime the time after which an entry that has not been accessed expires
+     * @param unit     the unit of the idle time
+     */
+    public LruCache(int maxSize, long idleTime, TimeUnit unit) {
+        this(maxSize, idleTime, unit, System::nanoTime);
+    }
+
+    /**
+     * @param maxSize  the maximum number of entries
+     * @param idleTime the time after which an entry that has not been accessed expires
+     * @param unit     the unit of the idle time
+     * @param ticker   the source of the current time in nanoseconds
+     */
+    public LruCache(int maxSize, long idleTime, TimeUnit unit, LongSupplier ticker) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, was " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.idleNanos = unit.toNanos(idleTime);
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key the key of the entry
+     *
+     * @return the cached value, or null if the key is not cached or has expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        long now = ticker.getAsLong();
+        if (entry != null && now - entry.lastAccess > idleNanos) {
+            entries.remove(key);
+            evictions.increment();
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    /**
+     * Caches the value, replacing the previous value of the key.
+     *
+     * @param key   the key of the entry
+     * @param value the value to cache
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, ticker.getAsLong()));
+    }
+
+    /**
+     * @param key the key of the entry to remove
+     */
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Removes all entries that have not been accessed for longer than the idle time.
+     * Expired entries are also removed when they are accessed, this only releases their memory earlier.
+     */
+    public synchronized void evictExpired() {
+        long now = ticker.getAsLong();
+        // the least recently accessed entries come first
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().lastAccess > idleNanos) {
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private long lastAccess;
+
+        private Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
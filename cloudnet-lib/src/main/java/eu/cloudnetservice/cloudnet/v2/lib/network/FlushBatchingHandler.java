@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batches the flushes of a channel, so bursts of small packets end up in as few socket writes as possible.
+ * Flushes requested while a read is in progress are delayed until the read is complete, all other flushes
+ * are delayed until the end of the current event loop tick. Once the pending writes exceed the flush
+ * threshold they are flushed right away.
+ * <p>
+ * Callers that have to wait for their write use {@link #writeAndFlushNow(Channel, Object)}.
+ */
+public final class FlushBatchingHandler extends ChannelDuplexHandler {
+
+    public static final int DEFAULT_FLUSH_THRESHOLD = 64 * 1024;
+
+    private final int flushThreshold;
+    private final Runnable flushTask = this::flushScheduled;
+    private final LongAdder requestedFlushes = new LongAdder();
+    private final LongAdder performedFlushes = new LongAdder();
+
+    private ChannelHandlerContext ctx;
+    private boolean readInProgress;
+    private boolean flushScheduled;
+    private boolean flushPending;
+    private long pendingBytes;
+
+    public FlushBatchingHandler() {
+        this(DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    public FlushBatchingHandler(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Writes the given message and flushes the channel without waiting for the end of the current batch.
+     *
+     * @param channel the channel to write to
+     * @param msg     the message to write
+     *
+     * @return the future of the write
+     */
+    public static ChannelFuture writeAndFlushNow(Channel channel, Object msg) {
+        FlushBatchingHandler handler = channel.pipeline().get(FlushBatchingHandler.class);
+        if (handler == null) {
+            return channel.writeAndFlush(msg);
+        }
+
+        ChannelFuture future = channel.write(msg);
+        if (channel.eventLoop().inEventLoop()) {
+            handler.flushNow();
+        } else {
+            channel.eventLoop().execute(handler::flushNow);
+        }
+        return future;
+    }
+
+    public static FlushBatchingHandler get(Channel channel) {
+        return channel.pipeline().get(FlushBatchingHandler.class);
+    }
+
+    /**
+     * @return the amount of flushes requested on the channel
+     */
+    public long getRequestedFlushes() {
+        return requestedFlushes.sum();
+    }
+
+    /**
+     * @return the amount of flushes actually passed to the channel
+     */
+    public long getPerformedFlushes() {
+        return performedFlushes.sum();
+    }
+
+    /**
+     * @return the amount of flushes saved by batching them
+     */
+    public long getSavedFlushes() {
+        return getRequestedFlushes() - getPerformedFlushes();
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        flushIfPending();
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof ByteBuf) {
+            pendingBytes += ((ByteBuf) msg).readableBytes();
+        } else if (msg instanceof ByteBufHolder) {
+            pendingBytes += ((ByteBufHolder) msg).content().readableBytes();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        requestedFlushes.increment();
+        flushPending = true;
+
+        if (pendingBytes >= flushThreshold) {
+            flush0();
+        } else if (!readInProgress && !flushScheduled) {
+            flushScheduled = true;
+            ctx.channel().eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        readInProgress = false;
+        flushIfPending();
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) {
+            flushIfPending();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        flushIfPending();
+        ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushIfPending();
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushIfPending();
+        ctx.close(promise);
+    }
+
+    private void flushNow() {
+        requestedFlushes.increment();
+        flush0();
+    }
+
+    private void flushScheduled() {
+        flushScheduled = false;
+        flushIfPending();
+    }
+
+    private void flushIfPending() {
+        if (flushPending) {
+            flush0();
+        }
+    }
+
+    private void flush0() {
+        flushPending = false;
+        pendingBytes = 0;
+        performedFlushes.increment();
+        ctx.flush();
+    }
+}
@@ -26,6 +26,8 @@ import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolRequest;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketManager;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
 
@@ -88,13 +90,15 @@ public final class NetworkConnection implements PacketSender {
 
         if (channel.eventLoop().inEventLoop()) {
             for (Packet packet : packets) {
-                channel.writeAndFlush(packet);
+                channel.write(packet);
             }
+            channel.flush();
         } else {
             channel.eventLoop().execute(() -> {
                 for (Packet packet : packets) {
-                    channel.writeAndFlush(packet);
+                    channel.write(packet);
                 }
+                channel.flush();
             });
         }
     }
@@ -135,10 +139,10 @@ public final class NetworkConnection implements PacketSender {
         }
 
         if (channel.eventLoop().inEventLoop()) {
-            channel.writeAndFlush(packet).syncUninterruptibly();
+            FlushBatchingHandler.writeAndFlushNow(channel, packet).syncUninterruptibly();
         } else {
             try {
-                channel.eventLoop().invokeAll(Collections.singletonList(() -> channel.writeAndFlush(packet).syncUninterruptibly()));
+                channel.eventLoop().invokeAll(Collections.singletonList(() -> FlushBatchingHandler.writeAndFlushNow(channel, packet).syncUninterruptibly()));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 e.printStackTrace();
@@ -211,13 +215,13 @@ public final class NetworkConnection implements PacketSender {
 
     @Override
     public void sendSynchronized(Object object) {
-        channel.writeAndFlush(object).syncUninterruptibly();
+        FlushBatchingHandler.writeAndFlushNow(channel, object).syncUninterruptibly();
     }
 
 
     @Override
     public void sendAsynchronous(Object object) {
-        NetworkUtils.getExecutor().submit(() -> {
+        TaskScheduler.getExecutor(TaskPool.BROADCAST).submit(() -> {
             channel.writeAndFlush(object);
         });
     }
@@ -17,7 +17,10 @@
 
 package eu.cloudnetservice.cloudnet.v2.lib.network.auth.packetio;
 
+import eu.cloudnetservice.cloudnet.v2.lib.CloudNetworkPatch;
 import eu.cloudnetservice.cloudnet.v2.lib.network.auth.Auth;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompression;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.BinaryPacketProtocol;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketRC;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
@@ -25,6 +28,10 @@ import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 public class PacketOutAuth extends Packet {
 
     public PacketOutAuth(Auth auth) {
-        super(PacketRC.INTERNAL - 1, new Document().append("auth", auth));
+        super(PacketRC.INTERNAL - 1, new Document().append("auth", auth)
+                                                   .append("protocols", new int[] {BinaryPacketProtocol.ID})
+                                                   .append("compression", ProtocolCompression.isEnabled() ?
+                                                       new String[] {ProtocolCompression.ALGORITHM} : new String[0])
+                                                   .append(CloudNetworkPatch.CAPABILITY, true));
     }
 }
@@ -17,6 +17,12 @@
 
 package eu.cloudnetservice.cloudnet.v2.lib.network.protocol;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
@@ -32,10 +38,23 @@ import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 
 public final class ProtocolBuffer extends ByteBuf implements Cloneable {
 
+    private static final byte JSON_NULL = 0;
+    private static final byte JSON_TRUE = 1;
+    private static final byte JSON_FALSE = 2;
+    private static final byte JSON_LONG = 3;
+    private static final byte JSON_DOUBLE = 4;
+    private static final byte JSON_NUMBER = 5;
+    private static final byte JSON_STRING = 6;
+    private static final byte JSON_ARRAY = 7;
+    private static final byte JSON_OBJECT = 8;
+
     private final ByteBuf byteBuf;
 
     public ProtocolBuffer(ByteBuf byteBuf) {
@@ -120,7 +139,7 @@ public final class ProtocolBuffer extends ByteBuf implements Cloneable {
         byte read;
         do {
             read = readByte();
-            int value = (read & 0b01111111);
+            long value = (read & 0b01111111);
             result |= (value << (7 * numRead));
 
             numRead++;
@@ -132,6 +151,112 @@ public final class ProtocolBuffer extends ByteBuf implements Cloneable {
         return result;
     }
 
+    public ProtocolBuffer writeUUID(UUID uuid) {
+        writeLong(uuid.getMostSignificantBits());
+        writeLong(uuid.getLeastSignificantBits());
+        return this;
+    }
+
+    public UUID readUUID() {
+        return new UUID(readLong(), readLong());
+    }
+
+    /**
+     * Writes the given json tree in a compact binary form, each element is prefixed with one of the
+     * {@code JSON_*} type tags and numbers are stored as zig-zag encoded VarLongs or raw doubles.
+     *
+     * @param element the element to write, {@code null} is written as a json null
+     *
+     * @return this buffer
+     */
+    public ProtocolBuffer writeJsonElement(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            writeByte(JSON_NULL);
+        } else if (element.isJsonObject()) {
+            Set<Map.Entry<String, JsonElement>> entries = element.getAsJsonObject().entrySet();
+            writeByte(JSON_OBJECT);
+            writeVarInt(entries.size());
+            for (Map.Entry<String, JsonElement> entry : entries) {
+                writeString(entry.getKey());
+                writeJsonElement(entry.getValue());
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            writeByte(JSON_ARRAY);
+            writeVarInt(array.size());
+            for (JsonElement child : array) {
+                writeJsonElement(child);
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                writeByte(primitive.getAsBoolean() ? JSON_TRUE : JSON_FALSE);
+            } else if (primitive.isString()) {
+                writeByte(JSON_STRING);
+                writeString(primitive.getAsString());
+            } else {
+                writeJsonNumber(primitive.getAsNumber());
+            }
+        }
+        return this;
+    }
+
+    private void writeJsonNumber(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            long value = number.longValue();
+            writeByte(JSON_LONG);
+            writeVarLong((value << 1) ^ (value >> 63));
+        } else if (number instanceof Double || number instanceof Float) {
+            writeByte(JSON_DOUBLE);
+            writeDouble(number.doubleValue());
+        } else {
+            // Lazily parsed numbers and big numbers keep their exact textual representation
+            writeByte(JSON_NUMBER);
+            writeString(number.toString());
+        }
+    }
+
+    public JsonElement readJsonElement() {
+        byte type = readByte();
+        switch (type) {
+            case JSON_NULL:
+                return JsonNull.INSTANCE;
+            case JSON_TRUE:
+                return new JsonPrimitive(true);
+            case JSON_FALSE:
+                return new JsonPrimitive(false);
+            case JSON_LONG: {
+                long value = readVarLong();
+                return new JsonPrimitive((value >>> 1) ^ -(value & 1));
+            }
+            case JSON_DOUBLE:
+                return new JsonPrimitive(readDouble());
+            case JSON_NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(readString()));
+            case JSON_STRING:
+                return new JsonPrimitive(readString());
+            case JSON_ARRAY: {
+                int size = readVarInt();
+                JsonArray array = new JsonArray();
+                for (int i = 0; i < size; i++) {
+                    array.add(readJsonElement());
+                }
+                return array;
+            }
+            case JSON_OBJECT: {
+                int size = readVarInt();
+                JsonObject object = new JsonObject();
+                for (int i = 0; i < size; i++) {
+                    String key = readString();
+                    object.add(key, readJsonElement());
+                }
+                return object;
+            }
+            default:
+                throw new IllegalStateException("Unknown json element type " + type);
+        }
+    }
+
     @Override
     public int capacity() {
         return byteBuf.capacity();
@@ -17,8 +17,11 @@
 
 package eu.cloudnetservice.cloudnet.v2.lib.network.protocol;
 
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.BinaryPacketProtocol;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketProtocol;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 
 import java.util.Collection;
 import java.util.Map;
@@ -27,11 +30,17 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public final class ProtocolProvider {
 
+    /**
+     * The protocol that is used to write packets on a channel, json packets are written if it is not set.
+     */
+    public static final AttributeKey<IProtocol> PACKET_PROTOCOL = AttributeKey.valueOf("cloudnet_packet_protocol");
+
     private static final Map<Integer, IProtocol> protocols;
 
     static {
         protocols = new ConcurrentHashMap<>();
         registerProtocol(new PacketProtocol());
+        registerProtocol(new BinaryPacketProtocol());
     }
 
     private ProtocolProvider() {
@@ -42,6 +51,9 @@ public final class ProtocolProvider {
     }
 
     public static void registerProtocol(IProtocol iProtocol) {
+        if (iProtocol.getId() <= 0) {
+            throw new IllegalArgumentException("Protocol ids have to be positive, 0 is reserved for chunked frames");
+        }
         protocols.put(iProtocol.getId(), iProtocol);
     }
 
@@ -52,4 +64,20 @@ public final class ProtocolProvider {
     public static Collection<IProtocol> protocols() {
         return protocols.values();
     }
+
+    public static IProtocol getPacketProtocol(Channel channel) {
+        return channel.attr(PACKET_PROTOCOL).get();
+    }
+
+    /**
+     * Sets the protocol used to write packets on the given channel, if none was negotiated before.
+     *
+     * @param channel  the channel to set the protocol for
+     * @param protocol the protocol both sides of the channel understand
+     *
+     * @return whether the protocol has been set
+     */
+    public static boolean negotiatePacketProtocol(Channel channel, IProtocol protocol) {
+        return channel.attr(PACKET_PROTOCOL).compareAndSet(null, protocol);
+    }
 }
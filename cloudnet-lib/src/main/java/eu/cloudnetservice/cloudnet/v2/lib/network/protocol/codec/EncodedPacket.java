@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.IProtocol;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A complete frame, including its length prefix, that is written to a channel as it is.
+ * The {@link ProtocolOutEncoder} and {@link ProtocolLengthSerializer} pass it through untouched,
+ * so one frame can be encoded once and be written to many channels using {@link #retainedDuplicate()}.
+ */
+public final class EncodedPacket extends DefaultByteBufHolder {
+
+    public EncodedPacket(ByteBuf frame) {
+        super(frame);
+    }
+
+    /**
+     * Encodes the given element into a new frame.
+     *
+     * @param allocator the allocator to allocate the frame with
+     * @param iProtocol the protocol to encode the element with
+     * @param element   the element to encode
+     *
+     * @return the encoded frame, it has to be released by the caller
+     *
+     * @throws Exception if the element cannot be written
+     */
+    public static EncodedPacket encode(ByteBufAllocator allocator, IProtocol iProtocol, Object element) throws Exception {
+        return encode(allocator, iProtocol, element, false);
+    }
+
+    /**
+     * Encodes the given element into a new frame.
+     *
+     * @param allocator the allocator to allocate the frame with
+     * @param iProtocol the protocol to encode the element with
+     * @param element   the element to encode
+     * @param compress  whether the payload should be compressed, see {@link ProtocolCompression}
+     *
+     * @return the encoded frame, it has to be released by the caller
+     *
+     * @throws Exception if the element cannot be written
+     */
+    public static EncodedPacket encode(ByteBufAllocator allocator, IProtocol iProtocol, Object element, boolean compress) throws Exception {
+        ByteBuf payload = allocator.buffer();
+        try {
+            ProtocolOutEncoder.writeElement(iProtocol, iProtocol.createElement(element), new ProtocolBuffer(payload));
+            if (compress) {
+                ByteBuf compressed = ProtocolCompression.compress(allocator, payload);
+                if (compressed != null) {
+                    payload.release();
+                    payload = compressed;
+                }
+            }
+            ByteBuf frame = allocator.buffer(ProtocolLengthSerializer.frameSize(payload.readableBytes()));
+            ProtocolLengthSerializer.writeFrame(payload, frame);
+            return new EncodedPacket(frame);
+        } finally {
+            payload.release();
+        }
+    }
+
+    @Override
+    public EncodedPacket retainedDuplicate() {
+        return (EncodedPacket) super.retainedDuplicate();
+    }
+
+    @Override
+    public EncodedPacket replace(ByteBuf content) {
+        return new EncodedPacket(content);
+    }
+}
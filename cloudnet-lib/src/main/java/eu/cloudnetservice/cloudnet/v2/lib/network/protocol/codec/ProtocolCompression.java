@@ -0,0 +1,244 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.DecoderException;
+import io.netty.util.AttributeKey;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Zlib compression of frame payloads.
+ * A compressed payload starts with {@link ProtocolOutEncoder#PROTOCOL_HEADER}, the reserved protocol id
+ * {@link #COMPRESSED_PROTOCOL_ID} and the uncompressed length of the payload, followed by the deflated payload.
+ * <p>
+ * Payloads are only compressed for channels that negotiated compression and only if they are at least
+ * {@link #getThreshold()} bytes large and actually shrink.
+ */
+public final class ProtocolCompression {
+
+    public static final String ALGORITHM = "zlib";
+
+    public static final AttributeKey<Boolean> COMPRESSION = AttributeKey.valueOf("cloudnet_compression");
+
+    /**
+     * Protocol id reserved for compressed payloads, registered protocols always have a positive id.
+     */
+    static final int COMPRESSED_PROTOCOL_ID = -1;
+
+    private static final int COMPRESSED_ID_SIZE = 5;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private static final LongAdder compressedFrames = new LongAdder();
+    private static final LongAdder savedBytes = new LongAdder();
+
+    private static volatile boolean enabled = true;
+    private static volatile int level = Deflater.DEFAULT_COMPRESSION;
+    private static volatile int threshold = 1024;
+
+    private ProtocolCompression() {
+    }
+
+    /**
+     * Configures the compression of outgoing payloads. Incoming compressed payloads are always accepted.
+     *
+     * @param enabled   whether compression is offered to and used for peers
+     * @param level     the zlib compression level from 0 to 9, -1 for the default level
+     * @param threshold the minimum size in bytes of a payload to be compressed
+     */
+    public static void configure(boolean enabled, int level, int threshold) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level has to be between -1 and 9: " + level);
+        }
+        ProtocolCompression.enabled = enabled;
+        ProtocolCompression.level = level;
+        ProtocolCompression.threshold = threshold;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static int getLevel() {
+        return level;
+    }
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return the amount of payloads compressed since startup
+     */
+    public static long getCompressedFrames() {
+        return compressedFrames.sum();
+    }
+
+    /**
+     * @return the amount of bytes saved by compressing payloads since startup
+     */
+    public static long getSavedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * Enables the compression of outgoing payloads for the given channel.
+     *
+     * @param channel the channel whose peer supports compressed payloads
+     */
+    public static void negotiate(Channel channel) {
+        channel.attr(COMPRESSION).set(Boolean.TRUE);
+    }
+
+    /**
+     * @param channel the channel to check
+     *
+     * @return whether outgoing payloads of the given channel are compressed
+     */
+    public static boolean isEnabled(Channel channel) {
+        return enabled && Boolean.TRUE.equals(channel.attr(COMPRESSION).get());
+    }
+
+    /**
+     * Compresses the given payload, if it is large enough and actually shrinks.
+     *
+     * @param allocator the allocator to allocate the compressed payload with
+     * @param payload   the payload to compress, its reader index is not modified
+     *
+     * @return the compressed payload or {@code null}, if the payload is not compressed
+     */
+    static ByteBuf compress(ByteBufAllocator allocator, ByteBuf payload) {
+        int length = payload.readableBytes();
+        if (length < threshold) {
+            return null;
+        }
+
+        byte[] input;
+        int offset;
+        if (payload.hasArray()) {
+            input = payload.array();
+            offset = payload.arrayOffset() + payload.readerIndex();
+        } else {
+            input = ByteBufUtil.getBytes(payload);
+            offset = 0;
+        }
+
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setLevel(level);
+        deflater.setInput(input, offset, length);
+        deflater.finish();
+
+        ByteBuf out = allocator.heapBuffer(length, length);
+        out.writeByte(ProtocolOutEncoder.PROTOCOL_HEADER);
+        new ProtocolBuffer(out).writeVarInt(COMPRESSED_PROTOCOL_ID).writeVarInt(length);
+
+        while (!deflater.finished()) {
+            if (!out.isWritable()) {
+                // not smaller than the uncompressed payload
+                out.release();
+                return null;
+            }
+            int written = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes());
+            out.writerIndex(out.writerIndex() + written);
+        }
+
+        compressedFrames.increment();
+        savedBytes.add(length - out.readableBytes());
+        return out;
+    }
+
+    /**
+     * @param payload the payload to check
+     *
+     * @return whether the given payload is compressed
+     */
+    static boolean isCompressed(ByteBuf payload) {
+        int index = payload.readerIndex();
+        return payload.readableBytes() > 1 + COMPRESSED_ID_SIZE &&
+            payload.getByte(index) == ProtocolOutEncoder.PROTOCOL_HEADER &&
+            payload.getInt(index + 1) == 0xFFFFFFFF &&
+            payload.getByte(index + 5) == 0x0F;
+    }
+
+    /**
+     * Decompresses the given compressed payload.
+     *
+     * @param allocator the allocator to allocate the payload with
+     * @param payload   the compressed payload
+     *
+     * @return the decompressed payload
+     *
+     * @throws DecoderException if the payload is malformed or exceeds the maximum frame size
+     */
+    static ByteBuf decompress(ByteBufAllocator allocator, ByteBuf payload) {
+        payload.skipBytes(1 + COMPRESSED_ID_SIZE);
+        int length = new ProtocolBuffer(payload).readVarInt();
+        if (length < 0 || length > ProtocolLengthDeserializer.getMaxFrameSize()) {
+            throw new DecoderException(String.format("Compressed payload exceeds %d bytes (%d)",
+                                                     ProtocolLengthDeserializer.getMaxFrameSize(), length));
+        }
+
+        byte[] input;
+        int offset;
+        int compressedLength = payload.readableBytes();
+        if (payload.hasArray()) {
+            input = payload.array();
+            offset = payload.arrayOffset() + payload.readerIndex();
+        } else {
+            input = ByteBufUtil.getBytes(payload);
+            offset = 0;
+        }
+        payload.skipBytes(compressedLength);
+
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(input, offset, compressedLength);
+
+        ByteBuf out = allocator.heapBuffer(length, length);
+        try {
+            while (out.isWritable() && !inflater.finished()) {
+                int read = inflater.inflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes());
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.writerIndex(out.writerIndex() + read);
+            }
+            if (!inflater.finished() || out.readableBytes() != length) {
+                throw new DecoderException("Compressed payload does not match its length " + length);
+            }
+            return out;
+        } catch (DataFormatException ex) {
+            out.release();
+            throw new DecoderException(ex);
+        } catch (DecoderException ex) {
+            out.release();
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+
+/**
+ * Decompresses incoming compressed payloads. Receiving a compressed payload enables the compression
+ * of outgoing payloads as well, as the peer evidently supports it.
+ */
+public final class ProtocolCompressionDecoder extends MessageToMessageDecoder<ByteBuf> {
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        if (!ProtocolCompression.isCompressed(msg)) {
+            out.add(msg.retain());
+            return;
+        }
+
+        out.add(ProtocolCompression.decompress(ctx.alloc(), msg));
+        if (!Boolean.TRUE.equals(ctx.channel().attr(ProtocolCompression.COMPRESSION).get())) {
+            ProtocolCompression.negotiate(ctx.channel());
+        }
+    }
+}
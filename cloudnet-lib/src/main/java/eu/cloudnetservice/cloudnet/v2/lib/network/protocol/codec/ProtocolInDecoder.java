@@ -21,27 +21,60 @@ import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.IProtocol;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolProvider;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolStream;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.BinaryPacket;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketProtocol;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class ProtocolInDecoder extends ByteToMessageDecoder {
 
+    private static final LongAdder malformedFrames = new LongAdder();
+
+    private final Logger logger = Logger.getLogger("CloudLogger");
+
+    /**
+     * @return the amount of frames that could not be decoded since startup
+     */
+    public static long getMalformedFrames() {
+        return malformedFrames.sum();
+    }
+
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, ByteBuf byteBuf, List<Object> list) throws Exception {
         ProtocolBuffer protocolBuffer = ProtocolProvider.protocolBuffer(byteBuf);
 
-        for (IProtocol iProtocol : ProtocolProvider.protocols()) {
-            try {
-                ProtocolStream protocolStream = iProtocol.createEmptyElement();
-                protocolStream.read(protocolBuffer.clone());
-                list.add(protocolStream);
-                break;
-            } catch (Exception ex) {
+        try {
+            int protocolId = PacketProtocol.ID;
+            if (byteBuf.isReadable() && byteBuf.getByte(byteBuf.readerIndex()) == ProtocolOutEncoder.PROTOCOL_HEADER) {
+                byteBuf.skipBytes(1);
+                protocolId = protocolBuffer.readVarInt();
+            }
+
+            IProtocol iProtocol = ProtocolProvider.getProtocol(protocolId);
+            if (iProtocol == null) {
+                throw new IllegalStateException("Unknown protocol " + protocolId);
+            }
 
+            ProtocolStream protocolStream = iProtocol.createEmptyElement();
+            protocolStream.read(protocolBuffer);
+            list.add(protocolStream);
+            // A peer sending binary packets is able to read them as well
+            if (protocolStream instanceof BinaryPacket) {
+                ProtocolProvider.negotiatePacketProtocol(channelHandlerContext.channel(), iProtocol);
             }
+        } catch (Exception ex) {
+            malformedFrames.increment();
+            logger.log(Level.WARNING,
+                       String.format("Dropping malformed frame from %s", channelHandlerContext.channel().remoteAddress()),
+                       ex);
+        } finally {
+            byteBuf.skipBytes(byteBuf.readableBytes());
         }
     }
 }
@@ -19,14 +19,37 @@ package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
 
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
 
 import java.util.List;
 
 public final class ProtocolLengthDeserializer extends ByteToMessageDecoder {
 
+    private static volatile int maxFrameSize = 64 * 1024 * 1024;
+
+    private CompositeByteBuf chunks;
+    private boolean discardChunks;
+
+    /**
+     * @return the maximum size of a payload reassembled from chunk frames
+     */
+    public static int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * Sets the maximum size of a payload reassembled from chunk frames, larger payloads are discarded.
+     *
+     * @param maxFrameSize the maximum size in bytes
+     */
+    public static void setMaxFrameSize(int maxFrameSize) {
+        ProtocolLengthDeserializer.maxFrameSize = maxFrameSize;
+    }
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
 
@@ -52,7 +75,11 @@ public final class ProtocolLengthDeserializer extends ByteToMessageDecoder {
                         return;
                     }
 
-                    out.add(in.readBytes(packetLength));
+                    if (isChunk(in, packetLength)) {
+                        readChunk(ctx, in, packetLength, out);
+                    } else {
+                        out.add(in.readBytes(packetLength));
+                    }
                 } finally {
                     buffer.release();
                 }
@@ -62,4 +89,52 @@ public final class ProtocolLengthDeserializer extends ByteToMessageDecoder {
         }
     }
 
+    private static boolean isChunk(ByteBuf in, int packetLength) {
+        return packetLength >= ProtocolLengthSerializer.CHUNK_HEADER_SIZE &&
+            in.getByte(in.readerIndex()) == ProtocolOutEncoder.PROTOCOL_HEADER &&
+            in.getByte(in.readerIndex() + 1) == ProtocolLengthSerializer.CHUNK_PROTOCOL_ID;
+    }
+
+    private void readChunk(ChannelHandlerContext ctx, ByteBuf in, int packetLength, List<Object> out) throws TooLongFrameException {
+        in.skipBytes(2);
+        boolean last = in.readBoolean();
+        int chunkSize = packetLength - ProtocolLengthSerializer.CHUNK_HEADER_SIZE;
+
+        if (discardChunks) {
+            in.skipBytes(chunkSize);
+            discardChunks = !last;
+            return;
+        }
+
+        if (chunks == null) {
+            chunks = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+        }
+
+        if ((long) chunks.readableBytes() + chunkSize > maxFrameSize) {
+            in.skipBytes(chunkSize);
+            int size = chunks.readableBytes() + chunkSize;
+            releaseChunks();
+            discardChunks = !last;
+            throw new TooLongFrameException(String.format("Chunked frame exceeds %d bytes (%d)", maxFrameSize, size));
+        }
+
+        chunks.addComponent(true, in.readRetainedSlice(chunkSize));
+        if (last) {
+            out.add(chunks);
+            chunks = null;
+        }
+    }
+
+    private void releaseChunks() {
+        if (chunks != null) {
+            chunks.release();
+            chunks = null;
+        }
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        releaseChunks();
+    }
+
 }
@@ -20,26 +20,78 @@ package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 public final class ProtocolLengthSerializer extends MessageToByteEncoder<ByteBuf> {
 
+    /**
+     * The largest frame length that fits into the three length bytes read by the {@link ProtocolLengthDeserializer}.
+     */
+    static final int MAX_FRAME_SIZE = (1 << 21) - 1;
+
+    /**
+     * Protocol id reserved for the chunks of a payload exceeding {@link #MAX_FRAME_SIZE}.
+     */
+    static final byte CHUNK_PROTOCOL_ID = 0;
+
+    static final int CHUNK_HEADER_SIZE = 3;
+
+    private static final int MAX_CHUNK_SIZE = MAX_FRAME_SIZE - CHUNK_HEADER_SIZE;
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof EncodedPacket) {
+            ctx.write(((EncodedPacket) msg).content(), promise);
+        } else {
+            super.write(ctx, msg, promise);
+        }
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
-        ProtocolBuffer in = new ProtocolBuffer(msg);
+        writeFrame(msg, out);
+    }
+
+    /**
+     * Writes the given payload as one frame, or as a sequence of chunk frames if it does not fit into a single frame.
+     * Every chunk frame starts with {@link ProtocolOutEncoder#PROTOCOL_HEADER}, the reserved protocol id
+     * {@link #CHUNK_PROTOCOL_ID} and whether it is the last chunk of the payload.
+     *
+     * @param in  the payload to write
+     * @param out the buffer to write the frames to
+     */
+    static void writeFrame(ByteBuf in, ByteBuf out) {
         ProtocolBuffer outBuffer = new ProtocolBuffer(out);
-        int readableBytes = in.readableBytes(), lengthByteSpace = getVarIntSize(readableBytes);
+        int readableBytes = in.readableBytes();
+        out.ensureWritable(frameSize(readableBytes));
 
-        if (lengthByteSpace > 3) {
-            throw new IllegalArgumentException();
+        if (readableBytes <= MAX_FRAME_SIZE) {
+            outBuffer.writeVarInt(readableBytes);
+            out.writeBytes(in, in.readerIndex(), readableBytes);
+            return;
         }
 
-        out.ensureWritable(lengthByteSpace + readableBytes);
-        outBuffer.writeVarInt(readableBytes);
-        out.writeBytes(in, in.readerIndex(), readableBytes);
+        for (int index = in.readerIndex(), end = index + readableBytes; index < end; ) {
+            int chunkSize = Math.min(MAX_CHUNK_SIZE, end - index);
+            outBuffer.writeVarInt(chunkSize + CHUNK_HEADER_SIZE);
+            out.writeByte(ProtocolOutEncoder.PROTOCOL_HEADER);
+            out.writeByte(CHUNK_PROTOCOL_ID);
+            out.writeBoolean(index + chunkSize == end);
+            out.writeBytes(in, index, chunkSize);
+            index += chunkSize;
+        }
+    }
+
+    static int frameSize(int payloadSize) {
+        if (payloadSize <= MAX_FRAME_SIZE) {
+            return getVarIntSize(payloadSize) + payloadSize;
+        }
+        int chunks = (payloadSize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE;
+        return payloadSize + chunks * (3 + CHUNK_HEADER_SIZE);
     }
 
-    private static int getVarIntSize(int value) {
+    static int getVarIntSize(int value) {
         if ((value & -128) == 0) {
             return 1;
         } else if ((value & -16384) == 0) {
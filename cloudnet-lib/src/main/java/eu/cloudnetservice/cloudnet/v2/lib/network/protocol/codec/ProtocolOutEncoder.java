@@ -18,12 +18,26 @@
 package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
 
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.*;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketProtocol;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 public final class ProtocolOutEncoder extends MessageToByteEncoder {
 
+    /**
+     * Leading byte of a frame that is followed by the id of its protocol as a VarInt.
+     * Frames of the json packet protocol are written without this header to stay readable for older peers,
+     * they always start with the non-zero length of the json string instead.
+     */
+    static final byte PROTOCOL_HEADER = 0;
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) throws Exception {
+        return !(msg instanceof EncodedPacket) && super.acceptOutboundMessage(msg);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext channelHandlerContext, Object o, ByteBuf byteBuf) throws Exception {
         ProtocolBuffer protocolBuffer = ProtocolProvider.protocolBuffer(byteBuf);
@@ -31,16 +45,26 @@ public final class ProtocolOutEncoder extends MessageToByteEncoder {
         if (o instanceof ProtocolRequest) {
             ProtocolRequest protocolRequest = ((ProtocolRequest) o);
             IProtocol iProtocol = ProtocolProvider.getProtocol(protocolRequest.getId());
-            ProtocolStream protocolStream = iProtocol.createElement(protocolRequest.getElement());
-            protocolStream.write(protocolBuffer);
+            writeElement(iProtocol, iProtocol.createElement(protocolRequest.getElement()), protocolBuffer);
+        } else if (o instanceof Packet && ProtocolProvider.getPacketProtocol(channelHandlerContext.channel()) != null) {
+            IProtocol iProtocol = ProtocolProvider.getPacketProtocol(channelHandlerContext.channel());
+            writeElement(iProtocol, iProtocol.createElement(o), protocolBuffer);
         } else {
             for (IProtocol iProtocol : ProtocolProvider.protocols()) {
                 ProtocolStream protocolStream = iProtocol.createElement(o);
                 if (protocolStream != null) {
-                    protocolStream.write(protocolBuffer);
+                    writeElement(iProtocol, protocolStream, protocolBuffer);
                     break;
                 }
             }
         }
     }
+
+    static void writeElement(IProtocol iProtocol, ProtocolStream protocolStream, ProtocolBuffer protocolBuffer) throws Exception {
+        if (iProtocol.getId() != PacketProtocol.ID) {
+            protocolBuffer.writeByte(PROTOCOL_HEADER);
+            protocolBuffer.writeVarInt(iProtocol.getId());
+        }
+        protocolStream.write(protocolBuffer);
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+
+/**
+ * Packet that is written in a binary form instead of a json string.
+ * The id is written as a VarInt, the query id as two longs and the
+ * document payload as a binary json tree.
+ *
+ * @see BinaryPacketProtocol
+ */
+public class BinaryPacket extends Packet {
+
+    public BinaryPacket() {
+    }
+
+    public BinaryPacket(Packet packet) {
+        super(packet.uniqueId, packet.id, packet.data);
+    }
+
+    @Override
+    public void write(ProtocolBuffer outPut) throws Exception {
+        outPut.writeVarInt(id);
+        outPut.writeBoolean(uniqueId != null);
+        if (uniqueId != null) {
+            outPut.writeUUID(uniqueId);
+        }
+        outPut.writeBoolean(data != null);
+        if (data != null) {
+            outPut.writeBoolean(data.getName() != null);
+            if (data.getName() != null) {
+                outPut.writeString(data.getName());
+            }
+            outPut.writeJsonElement(data.obj());
+        }
+    }
+
+    @Override
+    public void read(ProtocolBuffer in) throws Exception {
+        this.id = in.readVarInt();
+        this.uniqueId = in.readBoolean() ? in.readUUID() : null;
+        if (in.readBoolean()) {
+            String name = in.readBoolean() ? in.readString() : null;
+            this.data = new Document(name, in.readJsonElement().getAsJsonObject());
+        } else {
+            this.data = null;
+        }
+    }
+}
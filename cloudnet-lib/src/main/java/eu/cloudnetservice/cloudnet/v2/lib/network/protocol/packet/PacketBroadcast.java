@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.ChannelUser;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.IProtocol;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolProvider;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.EncodedPacket;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompression;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends one packet to many channels while encoding it only once per packet protocol and compression in use.
+ * Every channel receives a retained duplicate of the same frame, the frames are released
+ * once the broadcast is closed.
+ */
+public final class PacketBroadcast implements AutoCloseable {
+
+    private final Packet packet;
+    private final Map<Integer, EncodedPacket> frames = new HashMap<>(2);
+    private boolean failed;
+
+    public PacketBroadcast(Packet packet) {
+        this.packet = packet;
+    }
+
+    public Packet getPacket() {
+        return packet;
+    }
+
+    /**
+     * Writes the encoded packet to the channel of the given user.
+     *
+     * @param channelUser the user to send the packet to
+     *
+     * @return whether the packet has been written
+     */
+    public boolean sendTo(ChannelUser channelUser) {
+        Channel channel = channelUser.getChannel();
+        if (channel == null) {
+            return false;
+        }
+
+        EncodedPacket frame = frame(channel);
+        if (frame == null) {
+            return false;
+        }
+
+        channel.writeAndFlush(frame.retainedDuplicate()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        return true;
+    }
+
+    private EncodedPacket frame(Channel channel) {
+        if (failed) {
+            return null;
+        }
+
+        IProtocol protocol = ProtocolProvider.getPacketProtocol(channel);
+        if (protocol == null) {
+            protocol = ProtocolProvider.getProtocol(PacketProtocol.ID);
+        }
+
+        boolean compress = ProtocolCompression.isEnabled(channel);
+        int key = protocol.getId() << 1 | (compress ? 1 : 0);
+        EncodedPacket frame = frames.get(key);
+        if (frame == null) {
+            try {
+                frame = EncodedPacket.encode(ByteBufAllocator.DEFAULT, protocol, packet, compress);
+            } catch (Exception ex) {
+                failed = true;
+                ex.printStackTrace();
+                return null;
+            }
+            frames.put(key, frame);
+        }
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        frames.values().forEach(EncodedPacket::release);
+        frames.clear();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copy-on-write table of the packet handlers, indexed by packet id.
+ * The table is split into ranges of {@link #RANGE_SIZE} ids, matching the ranges in {@link PacketRC},
+ * so only the ranges that actually have handlers are allocated.
+ * Ids outside of [{@link #MIN_PACKET_ID}, {@link #MAX_PACKET_ID}] are kept in a map instead.
+ * <p>
+ * Lookups are lock-free and do not allocate, registrations copy the affected parts of the table.
+ */
+final class PacketHandlerTable {
+
+    static final int RANGE_SIZE = 100;
+    static final int MIN_PACKET_ID = PacketRC.INTERNAL - RANGE_SIZE;
+    static final int MAX_PACKET_ID = (1 << 20) - 1;
+
+    static final PacketInHandler[] NO_HANDLERS = new PacketInHandler[0];
+    private static final PacketInHandler[][] EMPTY_TABLE = new PacketInHandler[0][];
+
+    private volatile PacketInHandler[][][] ranges = new PacketInHandler[0][][];
+    private volatile Map<Integer, PacketInHandler[]> outOfRange = Collections.emptyMap();
+
+    private static int rangeIndex(int id) {
+        return Math.floorDiv(id, RANGE_SIZE) + 1;
+    }
+
+    PacketInHandler[] get(int id) {
+        if (id < MIN_PACKET_ID || id > MAX_PACKET_ID) {
+            return outOfRange.getOrDefault(id, NO_HANDLERS);
+        }
+        PacketInHandler[][][] ranges = this.ranges;
+        int rangeIndex = rangeIndex(id);
+        if (rangeIndex < 0 || rangeIndex >= ranges.length) {
+            return NO_HANDLERS;
+        }
+        PacketInHandler[][] range = ranges[rangeIndex];
+        if (range.length == 0) {
+            return NO_HANDLERS;
+        }
+        PacketInHandler[] handlers = range[Math.floorMod(id, RANGE_SIZE)];
+        return handlers == null ? NO_HANDLERS : handlers;
+    }
+
+    synchronized void add(int id, PacketInHandler handler) {
+        if (id < MIN_PACKET_ID || id > MAX_PACKET_ID) {
+            // Modules may use any id, allocating the table up to them would waste memory
+            Map<Integer, PacketInHandler[]> outOfRange = new HashMap<>(this.outOfRange);
+            PacketInHandler[] handlers = outOfRange.getOrDefault(id, NO_HANDLERS);
+            handlers = Arrays.copyOf(handlers, handlers.length + 1);
+            handlers[handlers.length - 1] = handler;
+            outOfRange.put(id, handlers);
+            this.outOfRange = outOfRange;
+            return;
+        }
+
+        int rangeIndex = rangeIndex(id);
+        PacketInHandler[][][] ranges = Arrays.copyOf(this.ranges, Math.max(this.ranges.length, rangeIndex + 1));
+        for (int i = this.ranges.length; i < ranges.length; i++) {
+            ranges[i] = EMPTY_TABLE;
+        }
+
+        PacketInHandler[][] range = ranges[rangeIndex].length == 0 ?
+            new PacketInHandler[RANGE_SIZE][] : ranges[rangeIndex].clone();
+        int index = Math.floorMod(id, RANGE_SIZE);
+        PacketInHandler[] handlers = range[index] == null ? NO_HANDLERS : range[index];
+        handlers = Arrays.copyOf(handlers, handlers.length + 1);
+        handlers[handlers.length - 1] = handler;
+
+        range[index] = handlers;
+        ranges[rangeIndex] = range;
+        this.ranges = ranges;
+    }
+
+    synchronized void clear() {
+        this.ranges = new PacketInHandler[0][][];
+        this.outOfRange = Collections.emptyMap();
+    }
+}
@@ -17,9 +17,13 @@
 
 package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
 
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.result.Result;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
@@ -27,7 +31,15 @@ import java.util.concurrent.*;
 
 public final class PacketManager {
 
-    private final Map<Integer, List<PacketInHandler>> packetHandlers = new ConcurrentHashMap<>();
+    public static final long QUERY_TIMEOUT_MILLIS = 2000;
+
+    private static final Timer QUERY_TIMER = new HashedWheelTimer(runnable -> {
+        Thread thread = new Thread(runnable, "PacketManager-QueryTimeout");
+        thread.setDaemon(true);
+        return thread;
+    }, 10, TimeUnit.MILLISECONDS);
+
+    private final PacketHandlerTable packetHandlers = new PacketHandlerTable();
     private final Map<UUID, CompletableFuture<Result>> synchronizedHandlers = new ConcurrentHashMap<>();
     private final Queue<Packet> packetQueue = new ConcurrentLinkedQueue<>();
 
@@ -39,11 +51,15 @@ public final class PacketManager {
         }
     }
 
+    /**
+     * Registers a handler for the packets with the given id.
+     * Handlers may be registered at any time, including while packets are dispatched.
+     *
+     * @param id            the id of the packets to handle
+     * @param packetHandler the handler
+     */
     public void registerHandler(int id, PacketInHandler packetHandler) {
-        if (!packetHandlers.containsKey(id)) {
-            packetHandlers.put(id, new ArrayList<>());
-        }
-        packetHandlers.get(id).add(packetHandler);
+        packetHandlers.add(id, packetHandler);
     }
 
     public void clearHandlers() {
@@ -63,40 +79,99 @@ public final class PacketManager {
         return this;
     }
 
+    /**
+     * Sends the given packet as a query and waits for its result.
+     *
+     * @param packet       the query packet
+     * @param packetSender the sender to send the query with
+     *
+     * @return the result of the query or an empty result, if the query did not complete in time
+     */
     public Result sendQuery(Packet packet, PacketSender packetSender) {
+        try {
+            return sendQueryAsync(packet, packetSender).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            e.printStackTrace();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return new Result(packet.uniqueId, new Document());
+    }
+
+    /**
+     * Sends the given packet as a query without blocking the calling thread.
+     * The query times out after {@link #QUERY_TIMEOUT_MILLIS} milliseconds.
+     *
+     * @param packet       the query packet
+     * @param packetSender the sender to send the query with
+     *
+     * @return a future that completes with the result of the query or exceptionally with a
+     * {@link TimeoutException}, if no result has been received in time
+     *
+     * @see #sendQueryAsync(Packet, PacketSender, long, TimeUnit)
+     */
+    public CompletableFuture<Result> sendQueryAsync(Packet packet, PacketSender packetSender) {
+        return sendQueryAsync(packet, packetSender, QUERY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the given packet as a query without blocking the calling thread.
+     * The future is completed on the thread dispatching the incoming packets, dependent stages
+     * must not block.
+     *
+     * @param packet       the query packet
+     * @param packetSender the sender to send the query with
+     * @param timeout      the time to wait for the result
+     * @param unit         the unit of the timeout
+     *
+     * @return a future that completes with the result of the query or exceptionally with a
+     * {@link TimeoutException}, if no result has been received in time
+     */
+    public CompletableFuture<Result> sendQueryAsync(Packet packet, PacketSender packetSender, long timeout, TimeUnit unit) {
         UUID uniqueId = UUID.randomUUID();
         packet.uniqueId = uniqueId;
         CompletableFuture<Result> future = new CompletableFuture<>();
         synchronizedHandlers.put(uniqueId, future);
-        NetworkUtils.getExecutor().submit(() -> packetSender.sendPacket(packet));
 
-        try {
-            final Result result = future.get(2, TimeUnit.SECONDS);
+        Timeout queryTimeout = QUERY_TIMER.newTimeout(
+            ignored -> future.completeExceptionally(new TimeoutException(
+                String.format("Query %s (packet %d) timed out after %d ms", uniqueId, packet.id, unit.toMillis(timeout)))),
+            timeout, unit);
+        future.whenComplete((result, throwable) -> {
             synchronizedHandlers.remove(uniqueId);
-            return result;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            e.printStackTrace();
-            return new Result(uniqueId, new Document());
-        }
+            queryTimeout.cancel();
+        });
+
+        TaskScheduler.getExecutor(TaskPool.BROADCAST).submit(() -> packetSender.sendPacket(packet));
+        return future;
+    }
+
+    /**
+     * @return the amount of queries currently waiting for their result
+     */
+    public int getPendingQueries() {
+        return synchronizedHandlers.size();
     }
 
     public boolean dispatchPacket(Packet incoming, PacketSender packetSender) {
         // Query future present, resolve it and skip any other handlers
-        if (incoming.uniqueId != null && synchronizedHandlers.containsKey(incoming.uniqueId)) {
-            Result result = new Result(incoming.uniqueId, incoming.data);
-            synchronizedHandlers.get(incoming.uniqueId).complete(result);
-            return false;
+        if (incoming.uniqueId != null) {
+            CompletableFuture<Result> future = synchronizedHandlers.remove(incoming.uniqueId);
+            if (future != null) {
+                future.complete(new Result(incoming.uniqueId, incoming.data));
+                return false;
+            }
         }
 
-        packetHandlers.getOrDefault(incoming.id, Collections.emptyList())
-                      .forEach(handler -> {
-                          handler.handleInput(incoming, packetSender);
-                      });
+        for (PacketInHandler handler : packetHandlers.get(incoming.id)) {
+            handler.handleInput(incoming, packetSender);
+        }
         return true;
     }
 
     public Collection<PacketInHandler> buildHandlers(int id) {
-        return packetHandlers.getOrDefault(id, Collections.emptyList());
+        return Collections.unmodifiableList(Arrays.asList(packetHandlers.get(id)));
     }
 
 }
@@ -25,9 +25,11 @@ import java.util.Collections;
 
 public class PacketProtocol implements IProtocol {
 
+    public static final int ID = 1;
+
     @Override
     public int getId() {
-        return 1;
+        return ID;
     }
 
     @Override
@@ -37,6 +39,10 @@ public class PacketProtocol implements IProtocol {
 
     @Override
     public ProtocolStream createElement(Object element) {
+        if (element instanceof BinaryPacket) {
+            Packet packet = (Packet) element;
+            return new Packet(packet.uniqueId, packet.id, packet.data);
+        }
         if (element instanceof Packet) {
             return (Packet) element;
         }
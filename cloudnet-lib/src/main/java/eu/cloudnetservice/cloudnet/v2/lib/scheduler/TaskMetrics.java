@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Run time and lateness of a periodic task of the {@link TaskScheduler}.
+ * A run that takes longer than the period of the task is an overrun and is reported at most once per minute.
+ */
+public final class TaskMetrics implements Runnable {
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger logger = Logger.getLogger("CloudLogger");
+    private final String name;
+    private final Runnable task;
+    private final long periodNanos;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder totalLatenessNanos = new LongAdder();
+    private final AtomicLong maxLatenessNanos = new AtomicLong();
+
+    private volatile long expectedStart;
+    private volatile long lastReport;
+
+    TaskMetrics(String name, Runnable task, long initialDelayNanos, long periodNanos) {
+        this.name = name;
+        this.task = task;
+        this.periodNanos = periodNanos;
+        this.expectedStart = System.nanoTime() + initialDelayNanos;
+        this.lastReport = System.nanoTime() - REPORT_INTERVAL_NANOS;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long lateness = Math.max(0, start - expectedStart);
+        try {
+            task.run();
+        } catch (Throwable throwable) {
+            throwable.printStackTrace();
+        } finally {
+            long end = System.nanoTime();
+            long duration = end - start;
+            expectedStart = end + periodNanos;
+
+            runs.increment();
+            totalNanos.add(duration);
+            maxNanos.accumulateAndGet(duration, Math::max);
+            totalLatenessNanos.add(lateness);
+            maxLatenessNanos.accumulateAndGet(lateness, Math::max);
+
+            if (duration > periodNanos) {
+                overruns.increment();
+                if (end - lastReport >= REPORT_INTERVAL_NANOS) {
+                    lastReport = end;
+                    logger.warning(String.format("Task %s took %d ms, longer than its period of %d ms (%d overruns in total)",
+                                                 name,
+                                                 TimeUnit.NANOSECONDS.toMillis(duration),
+                                                 TimeUnit.NANOSECONDS.toMillis(periodNanos),
+                                                 overruns.sum()));
+                }
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    public long getOverruns() {
+        return overruns.sum();
+    }
+
+    public long getAverageNanos() {
+        long runs = this.runs.sum();
+        return runs == 0 ? 0 : totalNanos.sum() / runs;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getAverageLatenessNanos() {
+        long runs = this.runs.sum();
+        return runs == 0 ? 0 : totalLatenessNanos.sum() / runs;
+    }
+
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos.get();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.scheduler;
+
+/**
+ * The named thread pools of the {@link TaskScheduler}.
+ * Pools that have to keep the submission order of their tasks use a single thread.
+ */
+public enum TaskPool {
+
+    /**
+     * Periodic housekeeping and delayed tasks, executed one at a time.
+     * The cloud handlers were written for a single timer thread and are not safe to run in parallel.
+     */
+    TIMER(1),
+
+    /**
+     * Database and file operations, executed in submission order.
+     */
+    IO(1),
+
+    /**
+     * Packets sent to many or to single components, executed in submission order.
+     */
+    BROADCAST(1),
+
+    /**
+     * Asynchronous events, executed in submission order.
+     */
+    EVENT(1),
+
+    /**
+     * File transfers that may wait for the network for a long time, like uploads extracted while they are received.
+     */
+    TRANSFER(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final int threads;
+
+    TaskPool(int threads) {
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public String getThreadName() {
+        return "cloudnet-" + name().toLowerCase();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.scheduler;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named thread pools for the background work of a CloudNet instance, see {@link TaskPool}.
+ * Separating the pools keeps a slow database commit or a large broadcast from delaying
+ * periodic tasks such as the auto scaling.
+ * <p>
+ * Periodic tasks scheduled with {@link #scheduleWithFixedDelay(String, Runnable, long, long, TimeUnit)}
+ * record their run time and lateness in {@link TaskMetrics}.
+ */
+public final class TaskScheduler {
+
+    private static final Map<TaskPool, ScheduledThreadPoolExecutor> POOLS = new EnumMap<>(TaskPool.class);
+    private static final Map<String, TaskMetrics> METRICS = new ConcurrentHashMap<>();
+
+    static {
+        for (TaskPool pool : TaskPool.values()) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                pool.getThreads(), new DefaultThreadFactory(pool.getThreadName(), true));
+            executor.setRemoveOnCancelPolicy(true);
+            POOLS.put(pool, executor);
+        }
+    }
+
+    private TaskScheduler() {
+    }
+
+    /**
+     * @param pool the pool to return
+     *
+     * @return the executor of the given pool
+     */
+    public static ScheduledExecutorService getExecutor(TaskPool pool) {
+        return POOLS.get(pool);
+    }
+
+    /**
+     * Schedules a periodic task on the {@link TaskPool#TIMER} pool and records its metrics under the given name.
+     * Exceptions of the task are printed and do not cancel later runs.
+     *
+     * @param name         the name of the task in the metrics and overrun reports
+     * @param task         the task to run
+     * @param initialDelay the delay before the first run
+     * @param delay        the delay between the end of one run and the start of the next one
+     * @param unit         the unit of both delays
+     *
+     * @return the future of the scheduled task
+     */
+    public static ScheduledFuture<?> scheduleWithFixedDelay(String name, Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        return scheduleWithFixedDelay(name, TaskPool.TIMER, task, initialDelay, delay, unit);
+    }
+
+    /**
+     * Schedules a periodic task on the given pool and records its metrics under the given name.
+     * Tasks that block on I/O belong to {@link TaskPool#IO}, so they do not delay the timers.
+     *
+     * @param name         the name of the task in the metrics and overrun reports
+     * @param pool         the pool to run the task on
+     * @param task         the task to run
+     * @param initialDelay the delay before the first run
+     * @param delay        the delay between the end of one run and the start of the next one
+     * @param unit         the unit of both delays
+     *
+     * @return the future of the scheduled task
+     */
+    public static ScheduledFuture<?> scheduleWithFixedDelay(String name, TaskPool pool, Runnable task,
+                                                            long initialDelay, long delay, TimeUnit unit) {
+        TaskMetrics metrics = new TaskMetrics(name, task, unit.toNanos(initialDelay), unit.toNanos(delay));
+        METRICS.put(name, metrics);
+        return POOLS.get(pool).scheduleWithFixedDelay(metrics, initialDelay, delay, unit);
+    }
+
+    /**
+     * @return the metrics of all periodic tasks
+     */
+    public static Collection<TaskMetrics> getTaskMetrics() {
+        return Collections.unmodifiableCollection(METRICS.values());
+    }
+
+    /**
+     * @param pool the pool
+     *
+     * @return the amount of tasks waiting in the queue of the pool
+     */
+    public static int getQueuedTasks(TaskPool pool) {
+        return POOLS.get(pool).getQueue().size();
+    }
+
+    /**
+     * @param pool the pool
+     *
+     * @return the amount of tasks the pool has completed
+     */
+    public static long getCompletedTasks(TaskPool pool) {
+        return POOLS.get(pool).getCompletedTaskCount();
+    }
+
+    /**
+     * Stops all periodic tasks and lets the other pools finish their queued tasks.
+     */
+    public static void shutdown() {
+        for (Map.Entry<TaskPool, ScheduledThreadPoolExecutor> entry : POOLS.entrySet()) {
+            if (entry.getKey() == TaskPool.TIMER) {
+                entry.getValue().shutdownNow();
+            } else {
+                entry.getValue().shutdown();
+            }
+        }
+    }
+
+    /**
+     * Waits for all pools to terminate after {@link #shutdown()}.
+     *
+     * @param timeout the maximum time to wait for each pool
+     * @param unit    the unit of the timeout
+     *
+     * @return whether all pools have terminated
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean terminated = true;
+        for (ThreadPoolExecutor executor : POOLS.values()) {
+            terminated &= executor.awaitTermination(timeout, unit);
+        }
+        return terminated;
+    }
+}
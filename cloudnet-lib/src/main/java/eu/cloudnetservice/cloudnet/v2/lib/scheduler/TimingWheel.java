@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel of keyed timers.
+ * <p>
+ * Each key has at most one timer. Setting or cancelling a timer is constant time, and every {@link #tick()} only visits
+ * the timers in the current bucket of the wheel, instead of every timer.
+ * Timers that are longer than one revolution of the wheel stay in their bucket for the remaining revolutions.
+ * The wheel has no thread of its own, {@link #tick()} has to be called once per tick, for example by a scheduled task.
+ *
+ * @param <K> the type of the timer keys
+ */
+public final class TimingWheel<K> {
+
+    private final Set<K>[] buckets;
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private final Consumer<K> expiryHandler;
+    private long currentTick;
+
+    /**
+     * @param wheelSize     the number of buckets of the wheel, rounded up to the next power of two
+     * @param expiryHandler the handler called with the key of every expired timer, on the ticking thread
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(int wheelSize, Consumer<K> expiryHandler) {
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30, was " + wheelSize);
+        }
+
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.buckets = new Set[Math.max(1, size)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LinkedHashSet<>();
+        }
+        this.expiryHandler = expiryHandler;
+    }
+
+    /**
+     * Sets the timer of the key, replacing its previous timer.
+     *
+     * @param key   the key of the timer
+     * @param ticks the number of ticks until the timer expires, at least 1
+     */
+    public synchronized void schedule(K key, long ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("Ticks must be positive, was " + ticks);
+        }
+
+        cancel(key);
+        long deadline = currentTick + ticks;
+        deadlines.put(key, deadline);
+        bucket(deadline).add(key);
+    }
+
+    /**
+     * Cancels the timer of the key.
+     *
+     * @param key the key of the timer
+     *
+     * @return true if the key had a timer
+     */
+    public synchronized boolean cancel(K key) {
+        Long deadline = deadlines.remove(key);
+        if (deadline == null) {
+            return false;
+        }
+
+        bucket(deadline).remove(key);
+        return true;
+    }
+
+    /**
+     * @param key the key of the timer
+     *
+     * @return whether the key has a timer that has not expired yet
+     */
+    public synchronized boolean isScheduled(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    /**
+     * @return the number of timers that have not expired yet
+     */
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Advances the wheel by one tick and calls the expiry handler for every timer that has expired.
+     */
+    public void tick() {
+        List<K> expired = new ArrayList<>();
+        synchronized (this) {
+            currentTick++;
+            bucket(currentTick).removeIf(key -> {
+                if (deadlines.get(key) <= currentTick) {
+                    deadlines.remove(key);
+                    expired.add(key);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        // the handler may set new timers, so it is called without holding the lock
+        for (K key : expired) {
+            try {
+                expiryHandler.accept(key);
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    private Set<K> bucket(long tick) {
+        return buckets[(int) (tick & (buckets.length - 1))];
+    }
+}
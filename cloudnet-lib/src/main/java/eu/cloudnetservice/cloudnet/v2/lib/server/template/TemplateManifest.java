@@ -0,0 +1,285 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.server.template;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Lists every file of a template with its size and SHA-256 checksum, as well as its empty directories.
+ * The version of a manifest is a checksum over all entries, so it changes whenever any file of the template changes.
+ */
+public class TemplateManifest {
+
+    public static final Type TYPE = TypeToken.get(TemplateManifest.class).getType();
+
+    private final String version;
+    private final List<Entry> files;
+    private final List<String> directories;
+    private transient volatile Map<String, Entry> checksums;
+
+    public TemplateManifest(Collection<Entry> files) {
+        this(files, Collections.emptyList());
+    }
+
+    public TemplateManifest(Collection<Entry> files, Collection<String> directories) {
+        List<Entry> sorted = new ArrayList<>(files);
+        sorted.sort(Comparator.comparing(Entry::getPath));
+        List<String> sortedDirectories = new ArrayList<>(directories);
+        Collections.sort(sortedDirectories);
+        this.files = sorted;
+        this.directories = sortedDirectories;
+        this.version = computeVersion(sorted, sortedDirectories);
+    }
+
+    /**
+     * Creates the manifest of the given directory, hashing every file.
+     *
+     * @param directory the template directory
+     *
+     * @return the manifest of the directory
+     *
+     * @throws IOException if the directory could not be walked or a file could not be read
+     */
+    public static TemplateManifest create(Path directory) throws IOException {
+        return create(directory, (file, attributes) -> sha256(file));
+    }
+
+    /**
+     * Creates the manifest of the given directory.
+     *
+     * @param directory the template directory
+     * @param hasher    the function providing the SHA-256 checksum of a file, which may be cached
+     *
+     * @return the manifest of the directory
+     *
+     * @throws IOException if the directory could not be walked or a file could not be hashed
+     */
+    public static TemplateManifest create(Path directory, FileHasher hasher) throws IOException {
+        Collection<Entry> entries = new ArrayList<>();
+        Collection<String> directories = new ArrayList<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                if (!dir.equals(directory)) {
+                    try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+                        if (!children.iterator().hasNext()) {
+                            directories.add(relativize(directory, dir));
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isRegularFile()) {
+                    entries.add(new Entry(relativize(directory, file), attributes.size(), hasher.hash(file, attributes)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new TemplateManifest(entries, directories);
+    }
+
+    private static String relativize(Path directory, Path path) {
+        return directory.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * @param file the file to hash
+     *
+     * @return the hex encoded SHA-256 checksum of the file
+     *
+     * @throws IOException if the file could not be read
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest messageDigest = newDigest();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    private static String computeVersion(List<Entry> entries, List<String> directories) {
+        MessageDigest messageDigest = newDigest();
+        for (Entry entry : entries) {
+            messageDigest.update((entry.path + '\0' + entry.size + '\0' + entry.sha256 + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        for (String directory : directories) {
+            messageDigest.update((directory + "/\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return stringBuilder.toString();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public List<Entry> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * @return the empty directories of the template relative to the template directory, separated by slashes
+     */
+    public List<String> getDirectories() {
+        // Manifests stored before directories were tracked do not contain this field
+        return directories == null ? Collections.emptyList() : Collections.unmodifiableList(directories);
+    }
+
+    /**
+     * @param sha256 the checksum to look for
+     *
+     * @return the first entry with the given checksum or {@code null}, if there is none
+     */
+    public Entry findByChecksum(String sha256) {
+        Map<String, Entry> checksums = this.checksums;
+        if (checksums == null) {
+            checksums = new HashMap<>();
+            for (Entry entry : files) {
+                checksums.putIfAbsent(entry.sha256, entry);
+            }
+            this.checksums = checksums;
+        }
+        return checksums.get(sha256);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TemplateManifest)) {
+            return false;
+        }
+        TemplateManifest that = (TemplateManifest) o;
+        return Objects.equals(version, that.version) && Objects.equals(files, that.files) &&
+            Objects.equals(getDirectories(), that.getDirectories());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, files, getDirectories());
+    }
+
+    @Override
+    public String toString() {
+        return "TemplateManifest{" +
+            "version='" + version + '\'' +
+            ", files=" + files.size() +
+            ", directories=" + getDirectories().size() +
+            '}';
+    }
+
+    /**
+     * Provides the SHA-256 checksum of a file.
+     */
+    @FunctionalInterface
+    public interface FileHasher {
+
+        String hash(Path file, BasicFileAttributes attributes) throws IOException;
+    }
+
+    public static final class Entry {
+
+        private final String path;
+        private final long size;
+        private final String sha256;
+
+        public Entry(String path, long size, String sha256) {
+            this.path = path;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        /**
+         * @return the path of the file relative to the template directory, separated by slashes
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return size == entry.size && Objects.equals(path, entry.path) && Objects.equals(sha256, entry.sha256);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, sha256);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                "path='" + path + '\'' +
+                ", size=" + size +
+                ", sha256='" + sha256 + '\'' +
+                '}';
+        }
+    }
+}
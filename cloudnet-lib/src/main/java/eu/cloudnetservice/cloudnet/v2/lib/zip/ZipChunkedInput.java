@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.zip;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zips directories on the fly, chunk by chunk, instead of building the whole archive in memory.
+ * The archive has the same layout as the one created by {@link ZipConverter#convert(Path...)}.
+ */
+public final class ZipChunkedInput implements ChunkedInput<ByteBuf> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Path> files = new ArrayList<>();
+    private final int chunkSize;
+    private final byte[] readBuffer;
+    private final ChunkSink sink = new ChunkSink();
+    private final ZipOutputStream zipOutputStream = new ZipOutputStream(sink, StandardCharsets.UTF_8);
+    private int index;
+    private InputStream current;
+    private long progress;
+    private boolean endOfInput;
+
+    public ZipChunkedInput(Path... directories) throws IOException {
+        this(DEFAULT_CHUNK_SIZE, directories);
+    }
+
+    public ZipChunkedInput(int chunkSize, Path... directories) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.readBuffer = new byte[chunkSize];
+        for (Path directory : directories) {
+            if (!Files.exists(directory)) {
+                continue;
+            }
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    names.add(directory.relativize(file).toString());
+                    files.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    @Override
+    public void close() throws Exception {
+        sink.buffer = null;
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        zipOutputStream.close();
+    }
+
+    @Deprecated
+    @Override
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (endOfInput) {
+            return null;
+        }
+
+        ByteBuf buffer = allocator.buffer(chunkSize);
+        sink.buffer = buffer;
+        try {
+            while (buffer.readableBytes() < chunkSize && !endOfInput) {
+                if (current == null && !nextEntry()) {
+                    zipOutputStream.finish();
+                    endOfInput = true;
+                } else {
+                    int read = current.read(readBuffer);
+                    if (read == -1) {
+                        current.close();
+                        current = null;
+                        zipOutputStream.closeEntry();
+                    } else {
+                        zipOutputStream.write(readBuffer, 0, read);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            buffer.release();
+            throw e;
+        } finally {
+            sink.buffer = null;
+        }
+
+        progress += buffer.readableBytes();
+        return buffer;
+    }
+
+    private boolean nextEntry() throws IOException {
+        while (index < files.size()) {
+            Path file = files.get(index);
+            String name = names.get(index++);
+            try {
+                current = Files.newInputStream(file);
+            } catch (IOException e) {
+                // Files may vanish while zipping, just like ZipConverter those are skipped
+                continue;
+            }
+            ZipEntry zipEntry = new ZipEntry(name);
+            zipEntry.setTime(Files.getLastModifiedTime(file).toMillis());
+            zipOutputStream.putNextEntry(zipEntry);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    /**
+     * Writes the output of the zip stream into the buffer of the chunk that is currently read.
+     */
+    private static final class ChunkSink extends OutputStream {
+
+        private ByteBuf buffer;
+
+        @Override
+        public void write(int b) {
+            if (buffer != null) {
+                buffer.writeByte(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (buffer != null) {
+                buffer.writeBytes(b, off, len);
+            }
+        }
+    }
+}
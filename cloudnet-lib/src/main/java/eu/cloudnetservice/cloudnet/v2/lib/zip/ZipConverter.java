@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.EnumSet;
+import java.util.function.Predicate;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -54,9 +55,31 @@ public final class ZipConverter {
         return zipPath;
     }
 
+    /**
+     * Writes the files of a directory into the given zip stream, without buffering the archive.
+     *
+     * @param zipOutputStream the stream to write the entries to
+     * @param directory       the directory to zip
+     * @param filter          decides which files are zipped, given their path relative to the directory
+     *
+     * @throws IOException if the directory could not be read
+     */
+    public static void convert(ZipOutputStream zipOutputStream, Path directory, Predicate<Path> filter) throws IOException {
+        if (Files.exists(directory)) {
+            convert0(zipOutputStream, directory, filter);
+        }
+    }
+
     private static void convert0(ZipOutputStream zipOutputStream, Path directory) throws IOException {
+        convert0(zipOutputStream, directory, file -> true);
+    }
+
+    private static void convert0(ZipOutputStream zipOutputStream, Path directory, Predicate<Path> filter) throws IOException {
         Files.walkFileTree(directory, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!filter.test(directory.relativize(file))) {
+                    return FileVisitResult.CONTINUE;
+                }
                 try {
                     zipOutputStream.putNextEntry(new ZipEntry(directory.relativize(file).toString()));
                     Files.copy(file, zipOutputStream);
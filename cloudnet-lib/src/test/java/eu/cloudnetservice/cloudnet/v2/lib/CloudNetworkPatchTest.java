@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CloudNetworkPatchTest {
+
+    private static JsonObject parse(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    @Test
+    public void applyRestoresCurrentState() {
+        JsonObject previous = parse("{\"onlineCount\":1,\"webPort\":1420," +
+                                        "\"serverGroups\":{\"Lobby\":{\"name\":\"Lobby\",\"memory\":512},\"Bedwars\":{\"name\":\"Bedwars\"}}," +
+                                        "\"wrappers\":[{\"serverId\":\"Wrapper-1\"}]}");
+        JsonObject current = parse("{\"onlineCount\":5,\"webPort\":1420," +
+                                       "\"serverGroups\":{\"Lobby\":{\"name\":\"Lobby\",\"memory\":1024},\"SkyWars\":{\"name\":\"SkyWars\"}}," +
+                                       "\"wrappers\":[{\"serverId\":\"Wrapper-1\"},{\"serverId\":\"Wrapper-2\"}]}");
+
+        JsonArray changes = CloudNetworkPatch.diff(previous, current);
+        Assert.assertEquals("Unexpected amount of changes", 5, changes.size());
+
+        JsonObject patched = previous.deepCopy();
+        CloudNetworkPatch.apply(patched, changes);
+        Assert.assertEquals("Patched state does not match", current, patched);
+    }
+
+    @Test
+    public void equalStatesHaveNoChanges() {
+        JsonObject state = parse("{\"onlineCount\":3,\"modules\":{\"dataCatcher\":{\"key\":\"value\"}}}");
+        Assert.assertEquals("Equal states produced changes", 0, CloudNetworkPatch.diff(state, state.deepCopy()).size());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.database;
+
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DatabaseQueryTest {
+
+    private static List<DatabaseDocument> documents() {
+        List<DatabaseDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            documents.add(new DatabaseDocument("doc" + i).append("even", i % 2 == 0)
+                                                         .append("player", new Document("id", i))
+                                                         .append("payload", "large"));
+        }
+        return documents;
+    }
+
+    @Test
+    public void pagesWithContinuation() {
+        DatabaseQuery query = new DatabaseQuery().pageSize(2);
+        DatabasePage first = query.collect(documents().iterator());
+        Assert.assertEquals(2, first.getDocuments().size());
+        Assert.assertEquals("doc1", first.getContinuation());
+
+        DatabasePage last = query.after("doc3").collect(documents().subList(4, 5).iterator());
+        Assert.assertEquals(1, last.getDocuments().size());
+        Assert.assertFalse(last.hasMore());
+    }
+
+    @Test
+    public void filterAndProjection() {
+        DatabaseQuery query = new DatabaseQuery().where("even", true).where("player.id", 2).select("even");
+        DatabasePage page = query.collect(documents().iterator());
+        Assert.assertEquals(1, page.getDocuments().size());
+
+        DatabaseDocument document = page.getDocuments().get(0);
+        Assert.assertEquals("doc2", document.getString(Database.UNIQUE_NAME_KEY));
+        Assert.assertTrue(document.contains("even"));
+        Assert.assertFalse(document.contains("payload"));
+    }
+
+    @Test
+    public void pageSurvivesSerialization() {
+        DatabasePage page = new DatabaseQuery().pageSize(3).collect(documents().iterator());
+        DatabasePage read = DatabasePage.fromDocument(Document.load(page.toDocument().convertToJson()));
+        Assert.assertEquals(page.getContinuation(), read.getContinuation());
+        Assert.assertEquals("doc2", read.getDocuments().get(2).getString(Database.UNIQUE_NAME_KEY));
+
+        DatabaseQuery query = Document.GSON.fromJson(Document.GSON.toJson(new DatabaseQuery().where("even", true).after("doc1")),
+                                                     DatabaseQuery.class);
+        Assert.assertEquals("doc1", query.getContinuation());
+        Assert.assertEquals(2, query.collect(documents().subList(2, 5).iterator()).getDocuments().size());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FlushBatchingHandlerTest {
+
+    @Test
+    public void batchFlushesDuringRead() {
+        FlushBatchingHandler handler = new FlushBatchingHandler();
+        EmbeddedChannel channel = new EmbeddedChannel(handler, new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                ReferenceCountUtil.release(msg);
+                for (int i = 0; i < 3; i++) {
+                    ctx.writeAndFlush(Unpooled.wrappedBuffer(new byte[] {(byte) i}));
+                }
+                Assert.assertTrue("Writes have been flushed during the read", ((EmbeddedChannel) ctx.channel()).outboundMessages().isEmpty());
+            }
+        });
+
+        channel.writeInbound(Unpooled.wrappedBuffer(new byte[1]));
+        Assert.assertEquals("Writes have not been flushed", 3, channel.outboundMessages().size());
+        Assert.assertEquals(3, handler.getRequestedFlushes());
+        Assert.assertEquals(1, handler.getPerformedFlushes());
+        Assert.assertEquals(2, handler.getSavedFlushes());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void flushOnThreshold() {
+        FlushBatchingHandler handler = new FlushBatchingHandler(4);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+        channel.pipeline().writeAndFlush(Unpooled.wrappedBuffer(new byte[2]));
+        Assert.assertTrue(channel.outboundMessages().isEmpty());
+        channel.pipeline().writeAndFlush(Unpooled.wrappedBuffer(new byte[2]));
+        Assert.assertEquals("Writes above the threshold have not been flushed", 2, channel.outboundMessages().size());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void writeAndFlushNow() {
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushBatchingHandler());
+
+        FlushBatchingHandler.writeAndFlushNow(channel, Unpooled.wrappedBuffer(new byte[1]));
+        ByteBuf written = channel.readOutbound();
+        Assert.assertNotNull("Write has not been flushed immediately", written);
+        written.release();
+        channel.finishAndReleaseAll();
+    }
+}
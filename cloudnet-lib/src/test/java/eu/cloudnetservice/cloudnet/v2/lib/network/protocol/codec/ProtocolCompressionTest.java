@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProtocolCompressionTest {
+
+    @Test
+    public void compressLargePayload() {
+        EmbeddedChannel sender = new EmbeddedChannel(new ProtocolCompressionEncoder());
+        EmbeddedChannel receiver = new EmbeddedChannel(new ProtocolCompressionDecoder());
+        ProtocolCompression.negotiate(sender);
+        ByteBuf payload = payload(64 * 1024);
+
+        sender.writeOutbound(payload.retainedDuplicate());
+        ByteBuf compressed = sender.readOutbound();
+        Assert.assertTrue("Payload has not been compressed", ProtocolCompression.isCompressed(compressed));
+        Assert.assertTrue("Payload has not shrunk", compressed.readableBytes() < payload.readableBytes() / 4);
+
+        receiver.writeInbound(compressed);
+        ByteBuf decompressed = receiver.readInbound();
+        Assert.assertEquals("Payload does not match", payload, decompressed);
+        Assert.assertTrue("Receiver has not enabled compression", ProtocolCompression.isEnabled(receiver));
+
+        payload.release();
+        decompressed.release();
+    }
+
+    @Test
+    public void skipSmallPayload() {
+        EmbeddedChannel sender = new EmbeddedChannel(new ProtocolCompressionEncoder());
+        ProtocolCompression.negotiate(sender);
+        ByteBuf payload = payload(16);
+
+        sender.writeOutbound(payload.retainedDuplicate());
+        ByteBuf written = sender.readOutbound();
+        Assert.assertEquals("Small payload has been modified", payload, written);
+
+        payload.release();
+        written.release();
+    }
+
+    @Test
+    public void skipWithoutNegotiation() {
+        EmbeddedChannel sender = new EmbeddedChannel(new ProtocolCompressionEncoder());
+        ByteBuf payload = payload(64 * 1024);
+
+        sender.writeOutbound(payload.retainedDuplicate());
+        ByteBuf written = sender.readOutbound();
+        Assert.assertFalse("Payload has been compressed without negotiation", ProtocolCompression.isCompressed(written));
+
+        payload.release();
+        written.release();
+    }
+
+    private static ByteBuf payload(int size) {
+        ProtocolBuffer buffer = new ProtocolBuffer(Unpooled.buffer(size));
+        buffer.writeVarInt(5);
+        while (buffer.getByteBuf().readableBytes() < size) {
+            buffer.writeString("{\"name\":\"Lobby-1\",\"online\":true}");
+        }
+        return buffer.getByteBuf();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolProvider;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.BinaryPacket;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.BinaryPacketProtocol;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketRC;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProtocolInDecoderTest {
+
+    @Test
+    public void decodeWithProtocolHeader() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new ProtocolInDecoder());
+        ProtocolBuffer frame = new ProtocolBuffer(Unpooled.buffer());
+        ProtocolOutEncoder.writeElement(ProtocolProvider.getProtocol(BinaryPacketProtocol.ID),
+                                        new BinaryPacket(new Packet(PacketRC.API, new Document("key", "value"))),
+                                        frame);
+
+        channel.writeInbound(frame.getByteBuf());
+        Packet packet = channel.readInbound();
+
+        Assert.assertNotNull("Frame has not been decoded", packet);
+        Assert.assertEquals("Packet id does not match", PacketRC.API, packet.getId());
+        Assert.assertEquals("Peer sending binary packets has not been switched to them",
+                            BinaryPacketProtocol.ID,
+                            ProtocolProvider.getPacketProtocol(channel).getId());
+    }
+
+    @Test
+    public void dropUnknownProtocol() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ProtocolInDecoder());
+        ProtocolBuffer frame = new ProtocolBuffer(Unpooled.buffer());
+        frame.writeByte(ProtocolOutEncoder.PROTOCOL_HEADER);
+        frame.writeVarInt(Short.MAX_VALUE);
+        frame.writeInt(0);
+        long malformedFrames = ProtocolInDecoder.getMalformedFrames();
+
+        channel.writeInbound(frame.getByteBuf());
+
+        Assert.assertNull("Malformed frame has been decoded", channel.readInbound());
+        Assert.assertEquals("Malformed frame has not been counted", malformedFrames + 1, ProtocolInDecoder.getMalformedFrames());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ProtocolLengthDeserializerTest {
+
+    @Test
+    public void singleFrame() {
+        ByteBuf payload = payload(1024);
+        ByteBuf received = transfer(payload.retainedDuplicate());
+
+        Assert.assertEquals("Payload does not match", payload, received);
+        received.release();
+        payload.release();
+    }
+
+    @Test
+    public void chunkedFrame() {
+        ByteBuf payload = payload(ProtocolLengthSerializer.MAX_FRAME_SIZE * 2 + 42);
+        ByteBuf received = transfer(payload.retainedDuplicate());
+
+        Assert.assertEquals("Reassembled payload does not match", payload, received);
+        received.release();
+        payload.release();
+    }
+
+    @Test
+    public void chunkedFrameExceedsLimit() {
+        int maxFrameSize = ProtocolLengthDeserializer.getMaxFrameSize();
+        ProtocolLengthDeserializer.setMaxFrameSize(ProtocolLengthSerializer.MAX_FRAME_SIZE);
+        try {
+            EmbeddedChannel sender = new EmbeddedChannel(new ProtocolLengthSerializer());
+            EmbeddedChannel receiver = new EmbeddedChannel(new ProtocolLengthDeserializer());
+            sender.writeOutbound(payload(ProtocolLengthSerializer.MAX_FRAME_SIZE * 2));
+            sender.writeOutbound(payload(16));
+
+            try {
+                receiver.writeInbound((Object) sender.readOutbound());
+                Assert.fail("Oversized chunked frame has been accepted");
+            } catch (DecoderException ex) {
+                Assert.assertTrue("Unexpected exception", ex instanceof TooLongFrameException);
+            }
+
+            receiver.writeInbound((Object) sender.readOutbound());
+            ByteBuf received = receiver.readInbound();
+            Assert.assertEquals("Frame following the discarded chunks has not been read", 16, received.readableBytes());
+            received.release();
+        } finally {
+            ProtocolLengthDeserializer.setMaxFrameSize(maxFrameSize);
+        }
+    }
+
+    private static ByteBuf transfer(ByteBuf payload) {
+        EmbeddedChannel sender = new EmbeddedChannel(new ProtocolLengthSerializer());
+        EmbeddedChannel receiver = new EmbeddedChannel(new ProtocolLengthDeserializer());
+        sender.writeOutbound(payload);
+        receiver.writeInbound((Object) sender.readOutbound());
+        ByteBuf received = receiver.readInbound();
+        Assert.assertNull("More than one payload has been read", receiver.readInbound());
+        return received;
+    }
+
+    private static ByteBuf payload(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return Unpooled.wrappedBuffer(bytes);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolBuffer;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+public class BinaryPacketTest {
+
+    @Test
+    public void readWrite() throws Exception {
+        Document data = new Document("name", "value")
+            .append("int", 42)
+            .append("negative", -1337L)
+            .append("double", 0.5D)
+            .append("bool", true)
+            .append("list", Arrays.asList("a", "b"))
+            .append("nested", new Document("key", "value").obj());
+        Packet packet = new Packet(UUID.randomUUID(), PacketRC.CN_CORE + 1, data);
+
+        ProtocolBuffer buffer = new ProtocolBuffer(Unpooled.buffer());
+        new BinaryPacket(packet).write(buffer);
+        BinaryPacket read = new BinaryPacket();
+        read.read(buffer);
+
+        Assert.assertEquals("Packet id does not match", packet.getId(), read.getId());
+        Assert.assertEquals("Unique id does not match", packet.getUniqueId(), read.getUniqueId());
+        Assert.assertEquals("Payload does not match", data.obj(), read.getData().obj());
+        Assert.assertEquals("Numbers are not read as numbers", 42, read.getData().getInt("int"));
+        Assert.assertEquals("Buffer has not been fully read", 0, buffer.readableBytes());
+    }
+
+    @Test
+    public void readWriteWithoutUniqueId() throws Exception {
+        Packet packet = new Packet(PacketRC.INTERNAL - 1, new Document());
+
+        ProtocolBuffer buffer = new ProtocolBuffer(Unpooled.buffer());
+        new BinaryPacket(packet).write(buffer);
+        BinaryPacket read = new BinaryPacket();
+        read.read(buffer);
+
+        Assert.assertEquals("Negative packet id does not match", packet.getId(), read.getId());
+        Assert.assertNull("Unique id should not be present", read.getUniqueId());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
+import eu.cloudnetservice.cloudnet.v2.lib.network.ChannelUser;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolProvider;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketBroadcastTest {
+
+    @Test
+    public void sendTo() {
+        Packet packet = new Packet(PacketRC.SERVER_HANDLE, new Document("key", "value"));
+        EmbeddedChannel first = binaryChannel();
+        EmbeddedChannel second = binaryChannel();
+
+        try (PacketBroadcast broadcast = new PacketBroadcast(packet)) {
+            Assert.assertTrue("Packet has not been sent", broadcast.sendTo(user(first)));
+            Assert.assertTrue("Packet has not been sent", broadcast.sendTo(user(second)));
+            Assert.assertFalse("Packet has been sent without a channel", broadcast.sendTo(user(null)));
+        }
+        first.runPendingTasks();
+        second.runPendingTasks();
+
+        ByteBuf firstFrame = first.readOutbound();
+        ByteBuf secondFrame = second.readOutbound();
+        Assert.assertEquals("Channels received different frames", firstFrame, secondFrame);
+
+        EmbeddedChannel receiver = binaryChannel();
+        receiver.writeInbound(firstFrame);
+        Packet received = receiver.readInbound();
+        Assert.assertEquals("Packet id does not match", packet.getId(), received.getId());
+        Assert.assertEquals("Payload does not match", "value", received.getData().getString("key"));
+
+        secondFrame.release();
+        Assert.assertEquals("Frame has not been released", 0, secondFrame.refCnt());
+    }
+
+    private static EmbeddedChannel binaryChannel() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        NetworkUtils.initChannel(channel);
+        ProtocolProvider.negotiatePacketProtocol(channel, ProtocolProvider.getProtocol(BinaryPacketProtocol.ID));
+        return channel;
+    }
+
+    private static ChannelUser user(Channel channel) {
+        return new ChannelUser() {
+            @Override
+            public Channel getChannel() {
+                return channel;
+            }
+
+            @Override
+            public void setChannel(Channel channel) {
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the map based packet dispatch with the handler table used by {@link PacketManager},
+ * with 8 threads dispatching concurrently like 8 event loops would.
+ * <p>
+ * Not part of the test suite, run {@link #main(String[])} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class PacketDispatchBenchmark {
+
+    private static final int[] PACKET_IDS = {
+        PacketRC.INTERNAL - 1, PacketRC.CN_CORE + 1, PacketRC.PLAYER_HANDLE + 2, PacketRC.SERVER_HANDLE + 1,
+        PacketRC.API + 3, PacketRC.MODULE + 1
+    };
+
+    private final Map<Integer, List<PacketInHandler>> mapHandlers = new ConcurrentHashMap<>();
+    private final PacketManager packetManager = new PacketManager();
+    private Packet[] packets;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PacketDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        PacketInHandler handler = (packet, packetSender) -> {
+        };
+        packets = new Packet[PACKET_IDS.length];
+        for (int i = 0; i < PACKET_IDS.length; i++) {
+            int id = PACKET_IDS[i];
+            mapHandlers.computeIfAbsent(id, key -> new ArrayList<>()).add(handler);
+            packetManager.registerHandler(id, handler);
+            packets[i] = new Packet(id);
+        }
+    }
+
+    @Benchmark
+    public void mapDispatch(Blackhole blackhole) {
+        for (Packet packet : packets) {
+            List<PacketInHandler> handlers = mapHandlers.getOrDefault(packet.getId(), Collections.emptyList());
+            handlers.forEach(handler -> handler.handleInput(packet, null));
+            blackhole.consume(handlers);
+        }
+    }
+
+    @Benchmark
+    public void tableDispatch(Blackhole blackhole) {
+        for (Packet packet : packets) {
+            blackhole.consume(packetManager.dispatchPacket(packet, null));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketHandlerTableTest {
+
+    @Test
+    public void outOfRangeIds() {
+        PacketHandlerTable table = new PacketHandlerTable();
+        PacketInHandler handler = (packet, packetSender) -> {
+        };
+        table.add(PacketHandlerTable.MAX_PACKET_ID + 1, handler);
+        table.add(Integer.MIN_VALUE, handler);
+        table.add(PacketRC.SERVER_HANDLE, handler);
+
+        Assert.assertArrayEquals("Handler above the range has not been registered",
+                                 new PacketInHandler[] {handler}, table.get(PacketHandlerTable.MAX_PACKET_ID + 1));
+        Assert.assertArrayEquals("Handler below the range has not been registered",
+                                 new PacketInHandler[] {handler}, table.get(Integer.MIN_VALUE));
+        Assert.assertArrayEquals("Handler in the range has not been registered",
+                                 new PacketInHandler[] {handler}, table.get(PacketRC.SERVER_HANDLE));
+        Assert.assertEquals("Unregistered id has handlers", 0, table.get(Integer.MAX_VALUE).length);
+    }
+}
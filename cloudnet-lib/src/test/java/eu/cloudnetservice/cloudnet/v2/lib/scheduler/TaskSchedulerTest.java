@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TaskSchedulerTest {
+
+    @Test
+    public void failingTaskKeepsRunning() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(3);
+        ScheduledFuture<?> future = TaskScheduler.scheduleWithFixedDelay("FailingTask", () -> {
+            runs.countDown();
+            throw new IllegalStateException("Expected failure");
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Task has been cancelled after its first failure", runs.await(5, TimeUnit.SECONDS));
+        future.cancel(false);
+    }
+
+    @Test
+    public void recordOverruns() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(2);
+        ScheduledFuture<?> future = TaskScheduler.scheduleWithFixedDelay("SlowTask", () -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            runs.countDown();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue("Task has not run twice", runs.await(5, TimeUnit.SECONDS));
+        future.cancel(false);
+
+        TaskMetrics metrics = TaskScheduler.getTaskMetrics().stream()
+                                           .filter(taskMetrics -> taskMetrics.getName().equals("SlowTask"))
+                                           .findFirst()
+                                           .orElseThrow(AssertionError::new);
+        Assert.assertTrue("Overruns have not been recorded", metrics.getOverruns() >= 1);
+        Assert.assertTrue("Run time has not been recorded", metrics.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}
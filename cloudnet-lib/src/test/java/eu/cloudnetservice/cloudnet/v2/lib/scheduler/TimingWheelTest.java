@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TimingWheelTest {
+
+    @Test
+    public void expiresAfterTicks() {
+        List<String> expired = new ArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(4, expired::add);
+        wheel.schedule("a", 2);
+        wheel.schedule("b", 10);
+
+        wheel.tick();
+        Assert.assertTrue(expired.isEmpty());
+        wheel.tick();
+        Assert.assertEquals(Collections.singletonList("a"), expired);
+
+        // "b" shares its bucket with earlier ticks, but has to wait for the remaining revolutions
+        for (int i = 2; i < 9; i++) {
+            wheel.tick();
+        }
+        Assert.assertEquals(Collections.singletonList("a"), expired);
+        wheel.tick();
+        Assert.assertEquals(Arrays.asList("a", "b"), expired);
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void rescheduleAndCancel() {
+        List<String> expired = new ArrayList<>();
+        TimingWheel<String> wheel = new TimingWheel<>(8, expired::add);
+        wheel.schedule("a", 2);
+        wheel.schedule("b", 2);
+        wheel.tick();
+        wheel.schedule("a", 2);
+        Assert.assertTrue(wheel.cancel("b"));
+        Assert.assertFalse(wheel.cancel("b"));
+
+        wheel.tick();
+        Assert.assertTrue(expired.isEmpty());
+        Assert.assertTrue(wheel.isScheduled("a"));
+        wheel.tick();
+        Assert.assertEquals(Collections.singletonList("a"), expired);
+    }
+}
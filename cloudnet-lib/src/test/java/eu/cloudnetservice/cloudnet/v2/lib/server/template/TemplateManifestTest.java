@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.server.template;
+
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class TemplateManifestTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void listsFilesWithChecksums() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        write(directory.resolve("server.properties"), "max-players=20");
+        write(directory.resolve("plugins/a.jar"), "a");
+
+        TemplateManifest manifest = TemplateManifest.create(directory);
+
+        Assert.assertEquals(2, manifest.getFiles().size());
+        TemplateManifest.Entry entry = manifest.getFiles().get(0);
+        Assert.assertEquals("plugins/a.jar", entry.getPath());
+        Assert.assertEquals(1, entry.getSize());
+        Assert.assertEquals("ca978112ca1bbdcafac231b39a23dc4da786eff8147c4e72b9807785afee48bb", entry.getSha256());
+        Assert.assertSame(entry, manifest.findByChecksum(entry.getSha256()));
+    }
+
+    @Test
+    public void versionChangesWithContent() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        write(directory.resolve("server.properties"), "max-players=20");
+        String version = TemplateManifest.create(directory).getVersion();
+
+        Assert.assertEquals(version, TemplateManifest.create(directory).getVersion());
+
+        write(directory.resolve("server.properties"), "max-players=21");
+        Assert.assertNotEquals(version, TemplateManifest.create(directory).getVersion());
+    }
+
+    @Test
+    public void listsEmptyDirectories() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        write(directory.resolve("plugins/a.jar"), "a");
+        String version = TemplateManifest.create(directory).getVersion();
+
+        Files.createDirectories(directory.resolve("world/region"));
+        TemplateManifest manifest = TemplateManifest.create(directory);
+
+        Assert.assertEquals(Collections.singletonList("world/region"), manifest.getDirectories());
+        Assert.assertNotEquals(version, manifest.getVersion());
+    }
+
+    @Test
+    public void survivesSerialization() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        write(directory.resolve("plugins/a.jar"), "a");
+        Files.createDirectories(directory.resolve("logs"));
+        TemplateManifest manifest = TemplateManifest.create(directory);
+
+        Document document = new Document("manifest", manifest);
+        TemplateManifest deserialized = Document.load(document.convertToJsonString()).getObject("manifest", TemplateManifest.TYPE);
+
+        Assert.assertEquals(manifest, deserialized);
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.lib.zip;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class ZipChunkedInputTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void producesExtractableArchive() throws Exception {
+        Path source = folder.newFolder("source").toPath();
+        byte[] world = new byte[100_000];
+        new Random(42).nextBytes(world);
+        Files.createDirectories(source.resolve("world/region"));
+        Files.write(source.resolve("world/region/r.0.0.mca"), world);
+        Files.write(source.resolve("server.properties"), "max-players=20".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        int chunks = 0;
+        ZipChunkedInput input = new ZipChunkedInput(1024, source);
+        try {
+            while (!input.isEndOfInput()) {
+                ByteBuf chunk = input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+                chunk.readBytes(archive, chunk.readableBytes());
+                chunk.release();
+                chunks++;
+            }
+        } finally {
+            input.close();
+        }
+
+        Assert.assertTrue(chunks > 1);
+        Assert.assertEquals(archive.size(), input.progress());
+
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive.toByteArray()), StandardCharsets.UTF_8)) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = zipInputStream.read(buffer)) != -1) {
+                    content.write(buffer, 0, read);
+                }
+                entries.put(zipEntry.getName().replace('\\', '/'), content.toByteArray());
+            }
+        }
+
+        Assert.assertEquals(2, entries.size());
+        Assert.assertArrayEquals(world, entries.get("world/region/r.0.0.mca"));
+        Assert.assertEquals("max-players=20", new String(entries.get("server.properties"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void emptyDirectoryProducesEmptyArchive() throws Exception {
+        ZipChunkedInput input = new ZipChunkedInput(folder.newFolder("empty").toPath());
+        ByteBuf chunk = input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+
+        Assert.assertTrue(input.isEndOfInput());
+        Assert.assertTrue(chunk.readableBytes() > 0);
+        Assert.assertNull(input.readChunk(UnpooledByteBufAllocator.DEFAULT));
+        chunk.release();
+        input.close();
+    }
+}
@@ -96,6 +96,15 @@ public class CloudConfig {
     private String color = "§3";
     private String groupColor = "§8";
     private boolean aliases;
+    private int maxFrameSize;
+    private boolean compression;
+    private int compressionLevel;
+    private int compressionThreshold;
+    private boolean predictiveScaling;
+    private int predictiveScalingWindow;
+    private int predictiveScalingBootTime;
+    private int databaseFlushInterval;
+    private int databaseBatchSize;
 
     public CloudConfig() {
 
@@ -138,6 +147,18 @@ public class CloudConfig {
         configuration.set("server.webservice.hostaddress", hostName);
         configuration.set("server.webservice.port", 1420);
 
+        configuration.set("network.max-frame-size", 64 * 1024 * 1024);
+        configuration.set("network.compression.enabled", true);
+        configuration.set("network.compression.level", 6);
+        configuration.set("network.compression.threshold", 1024);
+
+        configuration.set("autoscaler.predictive.enabled", false);
+        configuration.set("autoscaler.predictive.window", 60);
+        configuration.set("autoscaler.predictive.default-boot-time", 30);
+
+        configuration.set("database.write-behind.interval", 1000);
+        configuration.set("database.write-behind.batch-size", 500);
+
         configuration.set("cloudnet-statistics.enabled", true);
         configuration.set("cloudnet-statistics.uuid", UUID.randomUUID().toString());
 
@@ -233,6 +254,39 @@ public class CloudConfig {
                     CONFIGURATION_PROVIDER.save(configuration, writer);
                 }
             }
+            if (!configuration.contains("network")) {
+                configuration.set("network.max-frame-size", 64 * 1024 * 1024);
+
+                try (Writer writer = Files.newBufferedWriter(configPath, StandardCharsets.UTF_8)) {
+                    CONFIGURATION_PROVIDER.save(configuration, writer);
+                }
+            }
+            if (!configuration.contains("network.compression")) {
+                configuration.set("network.compression.enabled", true);
+                configuration.set("network.compression.level", 6);
+                configuration.set("network.compression.threshold", 1024);
+
+                try (Writer writer = Files.newBufferedWriter(configPath, StandardCharsets.UTF_8)) {
+                    CONFIGURATION_PROVIDER.save(configuration, writer);
+                }
+            }
+            if (!configuration.contains("autoscaler.predictive")) {
+                configuration.set("autoscaler.predictive.enabled", false);
+                configuration.set("autoscaler.predictive.window", 60);
+                configuration.set("autoscaler.predictive.default-boot-time", 30);
+
+                try (Writer writer = Files.newBufferedWriter(configPath, StandardCharsets.UTF_8)) {
+                    CONFIGURATION_PROVIDER.save(configuration, writer);
+                }
+            }
+            if (!configuration.contains("database.write-behind")) {
+                configuration.set("database.write-behind.interval", 1000);
+                configuration.set("database.write-behind.batch-size", 500);
+
+                try (Writer writer = Files.newBufferedWriter(configPath, StandardCharsets.UTF_8)) {
+                    CONFIGURATION_PROVIDER.save(configuration, writer);
+                }
+            }
             this.hasteServer = configuration.getStringList("general.haste.server");
             this.showDescription = configuration.getBoolean("console.showDescription");
             this.showMenu = configuration.getBoolean("console.showMenu");
@@ -244,6 +298,15 @@ public class CloudConfig {
             this.groupColor = configuration.getString("console.groupColor");
 
             this.disabledModules = configuration.getStringList("general.disabled-modules");
+            this.maxFrameSize = configuration.getInt("network.max-frame-size");
+            this.compression = configuration.getBoolean("network.compression.enabled");
+            this.compressionLevel = configuration.getInt("network.compression.level");
+            this.compressionThreshold = configuration.getInt("network.compression.threshold");
+            this.predictiveScaling = configuration.getBoolean("autoscaler.predictive.enabled");
+            this.predictiveScalingWindow = configuration.getInt("autoscaler.predictive.window");
+            this.predictiveScalingBootTime = configuration.getInt("autoscaler.predictive.default-boot-time");
+            this.databaseFlushInterval = configuration.getInt("database.write-behind.interval");
+            this.databaseBatchSize = configuration.getInt("database.write-behind.batch-size");
         } catch (IOException e) {
             CloudNet.getLogger().log(Level.SEVERE, "Error loading master configuration", e);
         }
@@ -262,12 +325,18 @@ public class CloudConfig {
         wrapperMetas.removeIf(meta -> meta.getId().equals(wrapperMeta.getId()));
         wrapperMetas.add(wrapperMeta);
         this.serviceDocument.append("wrapper", wrapperMetas).saveAsConfig(servicePath);
-        CloudNet.getInstance().getWrappers().put(wrapperMeta.getId(), new Wrapper(wrapperMeta));
+        Wrapper previous = CloudNet.getInstance().getWrappers().put(wrapperMeta.getId(), new Wrapper(wrapperMeta));
+        if (previous != null) {
+            previous.clearServices();
+        }
     }
 
     public void deleteWrapper(WrapperMeta wrapperMeta) {
         this.serviceDocument.append("wrapper", this.wrappers = this.deleteWrapper0(wrapperMeta)).saveAsConfig(this.servicePath);
-        CloudNet.getInstance().getWrappers().remove(wrapperMeta.getId());
+        Wrapper wrapper = CloudNet.getInstance().getWrappers().remove(wrapperMeta.getId());
+        if (wrapper != null) {
+            wrapper.clearServices();
+        }
     }
 
     private List<WrapperMeta> deleteWrapper0(WrapperMeta wrapperMeta) {
@@ -428,6 +497,42 @@ public class CloudConfig {
         return this.hasteServer;
     }
 
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public boolean isPredictiveScaling() {
+        return predictiveScaling;
+    }
+
+    public int getPredictiveScalingWindow() {
+        return predictiveScalingWindow;
+    }
+
+    public int getPredictiveScalingBootTime() {
+        return predictiveScalingBootTime;
+    }
+
+    public int getDatabaseFlushInterval() {
+        return databaseFlushInterval;
+    }
+
+    public int getDatabaseBatchSize() {
+        return databaseBatchSize;
+    }
+
     public boolean isShowDescription() {
         return showDescription;
     }
@@ -24,15 +24,17 @@ import eu.cloudnetservice.cloudnet.v2.console.SignalManager;
 import eu.cloudnetservice.cloudnet.v2.database.DatabaseManager;
 import eu.cloudnetservice.cloudnet.v2.event.EventKey;
 import eu.cloudnetservice.cloudnet.v2.event.EventManager;
-import eu.cloudnetservice.cloudnet.v2.lib.CloudNetwork;
 import eu.cloudnetservice.cloudnet.v2.lib.ConnectableAddress;
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.hash.DyHash;
 import eu.cloudnetservice.cloudnet.v2.lib.interfaces.Executable;
 import eu.cloudnetservice.cloudnet.v2.lib.interfaces.Reloadable;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompression;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolLengthDeserializer;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketManager;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketRC;
 import eu.cloudnetservice.cloudnet.v2.lib.player.CloudPlayer;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ProxyGroup;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ProxyProcessMeta;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroup;
@@ -48,15 +50,18 @@ import eu.cloudnetservice.cloudnet.v2.master.handler.*;
 import eu.cloudnetservice.cloudnet.v2.master.module.CloudModuleManager;
 import eu.cloudnetservice.cloudnet.v2.master.network.CloudNetServer;
 import eu.cloudnetservice.cloudnet.v2.master.network.NetworkManager;
+import eu.cloudnetservice.cloudnet.v2.master.network.PacketDispatcher;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.*;
+import eu.cloudnetservice.cloudnet.v2.master.network.components.priority.PriorityStopTimer;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.screen.ScreenProvider;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.api.*;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.api.sync.*;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.dbsync.*;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.in.*;
-import eu.cloudnetservice.cloudnet.v2.master.network.packet.out.PacketOutCloudNetwork;
 import eu.cloudnetservice.cloudnet.v2.master.process.ProcessStartListener;
+import eu.cloudnetservice.cloudnet.v2.master.scaling.AutoScaler;
 import eu.cloudnetservice.cloudnet.v2.master.serverlog.ServerLogManager;
+import eu.cloudnetservice.cloudnet.v2.master.template.TemplateManifestService;
 import eu.cloudnetservice.cloudnet.v2.master.util.FileCopy;
 import eu.cloudnetservice.cloudnet.v2.master.web.api.v1.*;
 import eu.cloudnetservice.cloudnet.v2.web.client.WebClient;
@@ -83,13 +88,18 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
     private static CloudNet instance;
 
     private CommandManager commandManager;
-    private final DatabaseManager databaseManager = new DatabaseManager();
+    private final DatabaseManager databaseManager;
     private final PacketManager packetManager = new PacketManager();
+    private final PacketDispatcher packetDispatcher = new PacketDispatcher();
     private final EventManager eventManager = new EventManager();
     private final ScreenProvider screenProvider = new ScreenProvider();
     private final ServerLogManager serverLogManager = new ServerLogManager();
     private final ProcessStartListener processStartListener = new ProcessStartListener();
     private final NetworkManager networkManager = new NetworkManager();
+    private final ServiceRegistry serviceRegistry = new ServiceRegistry();
+    private final AutoScaler autoScaler = new AutoScaler(this);
+    private final PriorityStopTimer priorityStopTimer = new PriorityStopTimer();
+    private final TemplateManifestService templateManifestService = new TemplateManifestService();
     private final Map<String, Wrapper> wrappers = new ConcurrentHashMap<>();
     private final Map<String, ServerGroup> serverGroups = new ConcurrentHashMap<>();
     private final Map<String, ProxyGroup> proxyGroups = new ConcurrentHashMap<>();
@@ -118,6 +128,7 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
 
         this.config = config;
         this.logger = cloudNetLogging;
+        this.databaseManager = new DatabaseManager(config.getDatabaseBatchSize(), config.getDatabaseFlushInterval());
         this.optionSet = optionSet;
         this.arguments = args;
 
@@ -173,6 +184,7 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         this.initialCommands();
         this.initWebHandlers();
         this.initPacketHandlers();
+        this.applyNetworkSettings();
 
         for (ConnectableAddress connectableAddress : config.getAddresses()) {
             cloudServers.add(new CloudNetServer(connectableAddress));
@@ -184,22 +196,18 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
 
         {
             if (!optionSet.has("onlyConsole")) {
-                CloudStartupHandler cloudStartupHandler = new CloudStartupHandler();
-                CloudPriorityStartupHandler cloudPriorityStartupHandler = new CloudPriorityStartupHandler();
-                CloudPriorityGroupStartupHandler cloudPriorityGroupStartupHandler = new CloudPriorityGroupStartupHandler();
                 CloudPlayerRemoverHandler cloudPlayerRemoverHandler = new CloudPlayerRemoverHandler();
 
-                getExecutor().scheduleWithFixedDelay(cloudStartupHandler, 0, 1, TimeUnit.SECONDS);
-                getExecutor().scheduleWithFixedDelay(cloudPriorityGroupStartupHandler, 0, 1, TimeUnit.SECONDS);
-                getExecutor().scheduleWithFixedDelay(cloudPriorityStartupHandler, 0, 1, TimeUnit.SECONDS);
-                getExecutor().scheduleWithFixedDelay(cloudPlayerRemoverHandler, 0, 200, TimeUnit.MILLISECONDS);
+                autoScaler.start();
+                priorityStopTimer.start();
+                scheduleHandler(cloudPlayerRemoverHandler);
             }
 
             CloudStopCheckHandler cloudStopCheck = new CloudStopCheckHandler();
 
-            getExecutor().scheduleWithFixedDelay(cloudStopCheck, 0, 2, TimeUnit.SECONDS);
-            getExecutor().scheduleWithFixedDelay(serverLogManager, 0, 40, TimeUnit.SECONDS);
-            getExecutor().scheduleWithFixedDelay(() -> {
+            scheduleHandler(cloudStopCheck);
+            TaskScheduler.scheduleWithFixedDelay("ServerLogManager", serverLogManager, 0, 40, TimeUnit.SECONDS);
+            TaskScheduler.scheduleWithFixedDelay("WaitingPlayerRemover", () -> {
                 for (CloudPlayer cloudPlayer : networkManager.getWaitingPlayers().values()) {
                     if ((cloudPlayer.getLoginTimeStamp().getTime() + 10000L) < System.currentTimeMillis()) {
                         networkManager.getWaitingPlayers().remove(cloudPlayer.getUniqueId());
@@ -225,7 +233,8 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         }
 
         dbHandlers.getStatisticManager().cloudOnlineTime(startupTime);
-        getExecutor().shutdownNow();
+        dbHandlers.getStatisticManager().flush();
+        TaskScheduler.shutdown();
 
         for (Wrapper wrapper : wrappers.values()) {
             getLogger().info("Disconnecting wrapper " + wrapper.getServerId());
@@ -242,19 +251,22 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         for (CloudNetServer cloudNetServer : this.cloudServers) {
             cloudNetServer.close();
         }
+        this.packetDispatcher.shutdown();
 
         getLogger().info("\n    _  _     _______   _                       _          \n" + "  _| || |_  |__   __| | |                     | |         \n" + " |_  __  _|    | |    | |__     __ _   _ __   | | __  ___ \n" + "  _| || |_     | |    | '_ \\   / _` | | '_ \\  | |/ / / __|\n" + " |_  __  _|    | |    | | | | | (_| | | | | | |   <  \\__ \\\n" + "   |_||_|      |_|    |_| |_|  \\__,_| |_| |_| |_|\\_\\ |___/\n" + "                                                          \n" + "                                                          ");
 
         RUNNING = false;
         this.logger.shutdownAll();
         try {
-            boolean terminated = getExecutor().awaitTermination(10, TimeUnit.SECONDS);
+            boolean terminated = TaskScheduler.awaitTermination(10, TimeUnit.SECONDS);
             if (!terminated) {
                 getLogger().info("Executor service couldn't be terminated! At least one task seems to still run!");
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        // asynchronous writes may have been queued until the executors terminated
+        this.databaseManager.save();
         System.exit(0);
         return true;
     }
@@ -357,6 +369,7 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         packetManager.registerHandler(PacketRC.SERVER_HANDLE + 7, PacketInStopProxy.class);
         packetManager.registerHandler(PacketRC.SERVER_HANDLE + 8, PacketInCustomSubChannelMessage.class);
         packetManager.registerHandler(PacketRC.SERVER_HANDLE + 10, PacketInCopyDirectory.class);
+        packetManager.registerHandler(PacketRC.SERVER_HANDLE + 11, PacketInRequestCloudNetwork.class);
 
         packetManager.registerHandler(PacketRC.PLAYER_HANDLE + 1, PacketInPlayerLoginRequest.class);
         packetManager.registerHandler(PacketRC.PLAYER_HANDLE + 2, PacketInUpdatePlayer.class);
@@ -382,12 +395,29 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         packetManager.registerHandler(PacketRC.DB + 4, PacketDBInExistsDocument.class);
         packetManager.registerHandler(PacketRC.DB + 5, PacketDBInGetSize.class);
         packetManager.registerHandler(PacketRC.DB + 6, PacketDBInSelectDatabase.class);
+        packetManager.registerHandler(PacketRC.DB + 7, PacketDBInQueryDocuments.class);
 
         packetManager.registerHandler(PacketRC.CN_INTERNAL_CHANNELS + 1, PacketInCreateServerLog.class);
     }
 
+    /**
+     * @return the executor for periodic and delayed tasks of the master
+     */
     public static ScheduledExecutorService getExecutor() {
-        return NetworkUtils.getExecutor();
+        return TaskScheduler.getExecutor(TaskPool.TIMER);
+    }
+
+    /**
+     * Schedules the handler on the timer pool, running every {@link ICloudHandler#getTicks()} ticks.
+     * Runs that take longer than that are reported by the scheduler.
+     *
+     * @param cloudHandler the handler to schedule
+     *
+     * @return the future of the scheduled handler
+     */
+    public static ScheduledFuture<?> scheduleHandler(ICloudHandler cloudHandler) {
+        return TaskScheduler.scheduleWithFixedDelay(cloudHandler.getClass().getSimpleName(), cloudHandler,
+                                                    0, cloudHandler.getTicks() * ICloudHandler.TICK_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     public void setupGroup(ServerGroup serverGroup) {
@@ -433,6 +463,22 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         return networkManager;
     }
 
+    public ServiceRegistry getServiceRegistry() {
+        return serviceRegistry;
+    }
+
+    public AutoScaler getAutoScaler() {
+        return autoScaler;
+    }
+
+    public PriorityStopTimer getPriorityStopTimer() {
+        return priorityStopTimer;
+    }
+
+    public TemplateManifestService getTemplateManifestService() {
+        return templateManifestService;
+    }
+
     public WebClient getWebClient() {
         return webClient;
     }
@@ -465,6 +511,10 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         return packetManager;
     }
 
+    public PacketDispatcher getPacketDispatcher() {
+        return packetDispatcher;
+    }
+
     public ScreenProvider getScreenProvider() {
         return screenProvider;
     }
@@ -502,36 +552,27 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
                                                      .map(ProxyServer::getServiceId)
                                                      .collect(Collectors.toList());
 
-        wrappers.values().stream()
-                .flatMap(wrapper -> wrapper.getWaitingServices().values().stream())
-                .map(WaitingService::getServiceId)
-                .filter(serviceId -> serviceId.getGroup().equals(group))
-                .forEach(serviceIds::add);
+        serviceRegistry.getWaitingServices(group).stream()
+                       .map(WaitingService::getServiceId)
+                       .forEach(serviceIds::add);
 
         return serviceIds;
     }
 
+    /**
+     * @param group the name of the proxy group
+     *
+     * @return an unmodifiable view of all proxy servers of the given group
+     */
     public Collection<ProxyServer> getProxys(String group) {
-        Collection<ProxyServer> minecraftServers = new LinkedList<>();
-
-        for (ProxyServer minecraftServer : getProxys().values()) {
-            if (minecraftServer.getServiceId().getGroup().equalsIgnoreCase(group)) {
-                minecraftServers.add(minecraftServer);
-            }
-        }
-        return minecraftServers;
+        return serviceRegistry.getProxies(group);
     }
 
+    /**
+     * @return an unmodifiable view of all proxy servers by their server id
+     */
     public Map<String, ProxyServer> getProxys() {
-        Map<String, ProxyServer> minecraftServerMap = new HashMap<>();
-
-        for (Wrapper wrapper : wrappers.values()) {
-            for (ProxyServer proxyServer : wrapper.getProxies().values()) {
-                minecraftServerMap.put(proxyServer.getServerId(), proxyServer);
-            }
-        }
-
-        return minecraftServerMap;
+        return serviceRegistry.getProxies();
     }
 
     public long getStartupTime() {
@@ -558,7 +599,7 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
         this.proxyGroups.clear();
 
         this.config.load();
-
+        this.applyNetworkSettings();
 
         this.users = config.getUsers();
 
@@ -583,6 +624,12 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
 
         networkManager.reload();
         networkManager.updateAll();
+        autoScaler.requestEvaluation();
+    }
+
+    private void applyNetworkSettings() {
+        ProtocolLengthDeserializer.setMaxFrameSize(config.getMaxFrameSize());
+        ProtocolCompression.configure(config.isCompression(), config.getCompressionLevel(), config.getCompressionThreshold());
     }
 
     public boolean authorization(String name, String token) {
@@ -625,12 +672,8 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
 
     public int getOnlineCount(String group) {
         int onlineCount = 0;
-        for (Wrapper wrapper : wrappers.values()) {
-            for (MinecraftServer minecraftServer : wrapper.getServers().values()) {
-                if (minecraftServer.getServiceId().getGroup().equalsIgnoreCase(group)) {
-                    onlineCount = onlineCount + minecraftServer.getServerInfo().getOnlineCount();
-                }
-            }
+        for (MinecraftServer minecraftServer : serviceRegistry.getServers(group)) {
+            onlineCount = onlineCount + minecraftServer.getServerInfo().getOnlineCount();
         }
         return onlineCount;
     }
@@ -640,36 +683,27 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
                                                       .map(MinecraftServer::getServiceId)
                                                       .collect(Collectors.toList());
 
-        wrappers.values().stream()
-                .flatMap(wrapper -> wrapper.getWaitingServices().values().stream())
-                .map(WaitingService::getServiceId)
-                .filter(serviceId -> serviceId.getGroup().equals(group))
-                .forEach(serviceIds::add);
+        serviceRegistry.getWaitingServices(group).stream()
+                       .map(WaitingService::getServiceId)
+                       .forEach(serviceIds::add);
 
         return serviceIds;
     }
 
+    /**
+     * @param group the name of the server group
+     *
+     * @return an unmodifiable view of all game servers of the given group
+     */
     public Collection<MinecraftServer> getServers(String group) {
-        Collection<MinecraftServer> minecraftServers = new LinkedList<>();
-
-        for (MinecraftServer minecraftServer : getServers().values()) {
-            if (minecraftServer.getServiceId().getGroup().equalsIgnoreCase(group)) {
-                minecraftServers.add(minecraftServer);
-            }
-        }
-        return minecraftServers;
+        return serviceRegistry.getServers(group);
     }
 
+    /**
+     * @return an unmodifiable view of all game servers by their server id
+     */
     public Map<String, MinecraftServer> getServers() {
-        Map<String, MinecraftServer> minecraftServerMap = new HashMap<>();
-
-        for (Wrapper wrapper : wrappers.values()) {
-            for (MinecraftServer minecraftServer : wrapper.getServers().values()) {
-                minecraftServerMap.put(minecraftServer.getServerId(), minecraftServer);
-            }
-        }
-
-        return minecraftServerMap;
+        return serviceRegistry.getServers();
     }
 
     public long globalMaxMemory() {
@@ -679,71 +713,49 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
     }
 
     public Collection<String> getServersAndWaitings(String group) {
-        List<String> serverIds = getServers(group).stream()
-                                                  .map(MinecraftServer::getServerId)
-                                                  .collect(Collectors.toList());
+        Collection<MinecraftServer> servers = serviceRegistry.getServers(group);
+        Collection<WaitingService> waitingServices = serviceRegistry.getWaitingServices(group);
+        List<String> serverIds = new ArrayList<>(servers.size() + waitingServices.size());
 
-        wrappers.values().stream()
-                .flatMap(wrapper -> wrapper.getWaitingServices().entrySet().stream())
-                .filter(entry -> entry.getValue().getServiceId().getGroup().equals(group))
-                .map(Map.Entry::getKey)
-                .forEach(serverIds::add);
+        servers.forEach(minecraftServer -> serverIds.add(minecraftServer.getServerId()));
+        waitingServices.forEach(waitingService -> serverIds.add(waitingService.getServiceId().getServerId()));
 
         return serverIds;
     }
 
     public Collection<String> getServersAndWaitings() {
-        List<String> serverIds = getServers().values().stream()
-                                             .map(MinecraftServer::getServerId)
-                                             .collect(Collectors.toList());
-
-        wrappers.values().stream()
-                .flatMap(wrapper -> wrapper.getWaitingServices().entrySet().stream())
-                .map(Map.Entry::getKey)
-                .forEach(serverIds::add);
-
+        List<String> serverIds = new ArrayList<>(serviceRegistry.getServers().keySet());
+        serverIds.addAll(serviceRegistry.getWaitingServices().keySet());
         return serverIds;
     }
 
     public Collection<String> getProxysAndWaitings(String group) {
-        List<String> proxyIds = getProxys(group).stream()
-                                                .map(ProxyServer::getServerId)
-                                                .collect(Collectors.toList());
+        Collection<ProxyServer> proxies = serviceRegistry.getProxies(group);
+        Collection<WaitingService> waitingServices = serviceRegistry.getWaitingServices(group);
+        List<String> proxyIds = new ArrayList<>(proxies.size() + waitingServices.size());
 
-        wrappers.values().stream()
-                .flatMap(wrapper -> wrapper.getWaitingServices().entrySet().stream())
-                .filter(entry -> entry.getValue().getServiceId().getGroup().equals(group))
-                .map(Map.Entry::getKey)
-                .forEach(proxyIds::add);
+        proxies.forEach(proxyServer -> proxyIds.add(proxyServer.getServerId()));
+        waitingServices.forEach(waitingService -> proxyIds.add(waitingService.getServiceId().getServerId()));
 
         return proxyIds;
     }
 
+    /**
+     * @return an unmodifiable view of the server ids of all game servers
+     */
     public Collection<String> getServersByName() {
-        Collection<String> x = new LinkedList<>();
-        for (Wrapper wrapper : wrappers.values()) {
-            for (MinecraftServer minecraftServer : wrapper.getServers().values()) {
-                x.add(minecraftServer.getServerId());
-            }
-        }
-
-        return x;
+        return serviceRegistry.getServers().keySet();
     }
 
+    /**
+     * @return an unmodifiable view of the server ids of all proxy servers
+     */
     public Collection<String> getProxysByName() {
-        Collection<String> x = new LinkedList<>();
-        for (Wrapper wrapper : wrappers.values()) {
-            for (ProxyServer minecraftServer : wrapper.getProxies().values()) {
-                x.add(minecraftServer.getServerId());
-            }
-        }
-
-        return x;
+        return serviceRegistry.getProxies().keySet();
     }
 
     public void updateNetwork() {
-        CloudNetwork cloudNetwork = networkManager.newCloudNetwork();
-        networkManager.sendAll(new PacketOutCloudNetwork(cloudNetwork));
+        networkManager.publishCloudNetwork();
     }
 
     public void stopServer(MinecraftServer minecraftServer) {
@@ -762,15 +774,7 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
     }
 
     public MinecraftServer getServer(String serverId) {
-        for (Wrapper wrapper : wrappers.values()) {
-            for (MinecraftServer minecraftServer : wrapper.getServers().values()) {
-                if (minecraftServer.getServerId().equals(serverId)) {
-                    return minecraftServer;
-                }
-            }
-        }
-
-        return null;
+        return serviceRegistry.getServer(serverId);
     }
 
     public void stopProxy(String proxy) {
@@ -781,15 +785,7 @@ public final class CloudNet extends EventKey implements Executable, Reloadable {
     }
 
     public ProxyServer getProxy(String serverId) {
-        for (Wrapper wrapper : wrappers.values()) {
-            for (ProxyServer minecraftServer : wrapper.getProxies().values()) {
-                if (minecraftServer.getServerId().equals(serverId)) {
-                    return minecraftServer;
-                }
-            }
-        }
-
-        return null;
+        return serviceRegistry.getProxy(serverId);
     }
 
     public CompletableFuture<ProxyProcessMeta> startProxy(ProxyProcessMeta proxyProcessMeta, Wrapper wrapper, UUID uuid) {
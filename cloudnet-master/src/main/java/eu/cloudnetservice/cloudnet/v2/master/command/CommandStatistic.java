@@ -3,14 +3,34 @@ package eu.cloudnetservice.cloudnet.v2.master.command;
 import eu.cloudnetservice.cloudnet.v2.command.Command;
 import eu.cloudnetservice.cloudnet.v2.command.CommandSender;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.map.LruCache;
+import eu.cloudnetservice.cloudnet.v2.lib.network.FlushBatchingHandler;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompression;
+import eu.cloudnetservice.cloudnet.v2.lib.player.OfflinePlayer;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskMetrics;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 import eu.cloudnetservice.cloudnet.v2.master.database.StatisticManager;
+import eu.cloudnetservice.cloudnet.v2.master.network.PacketDispatcher;
+import eu.cloudnetservice.cloudnet.v2.master.network.components.INetworkComponent;
+import eu.cloudnetservice.cloudnet.v2.master.scaling.ScalingDecision;
 import org.jline.reader.ParsedLine;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 public final class CommandStatistic extends Command {
 
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
     public CommandStatistic() {
         super("statistic", "cloudnet.command.statistic");
 
@@ -21,10 +41,12 @@ public final class CommandStatistic extends Command {
     @Override
     public void onExecuteCommand(CommandSender sender, ParsedLine parsedLine) {
         DatabaseDocument document = StatisticManager.getInstance().getStatistics();
+        PacketDispatcher dispatcher = CloudNet.getInstance().getPacketDispatcher();
+        LruCache<UUID, OfflinePlayer> playerCache = CloudNet.getInstance().getDbHandlers().getPlayerDatabase().getCache();
         sender.sendMessage("CloudNet2 Statistics:",
                            " ",
-                           "  CloudStartups: " + StatisticManager.getInstance().getStatistics().getInt("cloudStartup"),
-                           "  Cloud online time: §e" + TimeUnit.MILLISECONDS.toMinutes(document.getInt("cloudOnlineTime")) + "min",
+                           "  CloudStartups: " + document.getInt("cloudStartup"),
+                           "  Cloud online time: §e" + TimeUnit.MILLISECONDS.toMinutes(document.getLong("cloudOnlineTime")) + "min",
                            "  Wrapper connections: " + document.getInt("wrapperConnections"),
                            "  Highest server online count: §e" + document.getInt("highestServerOnlineCount"),
                            "  Started servers: " + document.getLong("startedServers"),
@@ -35,6 +57,51 @@ public final class CommandStatistic extends Command {
                            "  Highest online count: " + document.getInt("highestPlayerOnline"),
                            "  Logins: " + document.getInt("playerLogin"),
                            "  Command executions: " + document.getInt("playerCommandExecutions"),
+                           "  Player cache: " + playerCache.size() + " cached, " + playerCache.getHits() + " hits, " +
+                               playerCache.getMisses() + " misses",
+                           " ",
+                           "  Network Statistics:",
+                           " ",
+                           "  Queued packets: " + dispatcher.getQueuedPackets(),
+                           "  Handled packets: " + dispatcher.getHandledPackets(),
+                           "  Handler time: avg " + TimeUnit.NANOSECONDS.toMicros(dispatcher.getAverageHandlerNanos()) +
+                               "µs, max " + TimeUnit.NANOSECONDS.toMillis(dispatcher.getMaxHandlerNanos()) + "ms",
+                           "  Paused reads: " + dispatcher.getPausedReads(),
+                           "  Saved flushes: " + savedFlushes(),
+                           "  Compressed frames: " + ProtocolCompression.getCompressedFrames() +
+                               " (saved " + ProtocolCompression.getSavedBytes() / 1024 + "KB)",
+                           " ",
+                           "  Scheduler Statistics:",
                            " ");
+        for (TaskPool pool : TaskPool.values()) {
+            sender.sendMessage("  " + pool.getThreadName() + ": " + TaskScheduler.getQueuedTasks(pool) + " queued, " +
+                                   TaskScheduler.getCompletedTasks(pool) + " completed");
+        }
+        for (TaskMetrics metrics : TaskScheduler.getTaskMetrics()) {
+            sender.sendMessage("  " + metrics.getName() + ": " + metrics.getRuns() + " runs, avg " +
+                                   TimeUnit.NANOSECONDS.toMillis(metrics.getAverageNanos()) + "ms, max " +
+                                   TimeUnit.NANOSECONDS.toMillis(metrics.getMaxNanos()) + "ms, late max " +
+                                   TimeUnit.NANOSECONDS.toMillis(metrics.getMaxLatenessNanos()) + "ms, overruns " +
+                                   metrics.getOverruns());
+        }
+        sender.sendMessage(" ", "  AutoScaler Decisions:", " ");
+        List<ScalingDecision> decisions = CloudNet.getInstance().getAutoScaler().getDecisions();
+        for (ScalingDecision decision : decisions.subList(Math.max(0, decisions.size() - 10), decisions.size())) {
+            sender.sendMessage("  " + TIME_FORMAT.format(Instant.ofEpochMilli(decision.getTimestamp())) + " " + decision);
+        }
+        sender.sendMessage(" ");
+    }
+
+    private static long savedFlushes() {
+        return Stream.of(CloudNet.getInstance().getWrappers().values(),
+                         CloudNet.getInstance().getServers().values(),
+                         CloudNet.getInstance().getProxys().values())
+                     .flatMap(Collection::stream)
+                     .map(INetworkComponent::getChannel)
+                     .filter(Objects::nonNull)
+                     .map(FlushBatchingHandler::get)
+                     .filter(Objects::nonNull)
+                     .mapToLong(FlushBatchingHandler::getSavedFlushes)
+                     .sum();
     }
 }
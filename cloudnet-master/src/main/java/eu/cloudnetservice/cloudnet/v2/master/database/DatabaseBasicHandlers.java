@@ -38,14 +38,14 @@ public class DatabaseBasicHandlers {
         Database config = databaseManager.getDatabase("cloud_internal_cfg");
 
         playerDatabase = new PlayerDatabase(databaseManager.getDatabase("cloudnet_internal_players"));
-        nameToUUIDDatabase = new NameToUUIDDatabase(databaseManager.getDatabase("cloud_internal_nameanduuid_dispatcher"));
+        nameToUUIDDatabase = new NameToUUIDDatabase(databaseManager.getRepository("cloud_internal_name_uuid_index", NameUUIDEntry.class));
 
         statisticManager = new StatisticManager(config);
         commandDispatcherDatabase = new CommandDispatcherDatabase(config);
         wrapperSessionDatabase = new WrapperSessionDatabase(databaseManager.getDatabase("cloudnet_internal_wrapper_session"));
         updateConfigurationDatabase = new UpdateConfigurationDatabase(config);
 
-        nameToUUIDDatabase.handleUpdate(updateConfigurationDatabase);
+        nameToUUIDDatabase.handleUpdate(updateConfigurationDatabase, databaseManager.getDatabase("cloud_internal_nameanduuid_dispatcher"));
 
         config.save();
     }
@@ -17,30 +17,63 @@
 
 package eu.cloudnetservice.cloudnet.v2.master.database;
 
-import eu.cloudnetservice.cloudnet.v2.database.DatabaseUsable;
 import eu.cloudnetservice.cloudnet.v2.lib.MultiValue;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
+import org.dizitart.no2.FindOptions;
+import org.dizitart.no2.IndexOptions;
+import org.dizitart.no2.IndexType;
+import org.dizitart.no2.SortOrder;
+import org.dizitart.no2.objects.ObjectRepository;
+import org.dizitart.no2.objects.filters.ObjectFilters;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Locale;
 import java.util.UUID;
 
-public final class NameToUUIDDatabase extends DatabaseUsable {
+/**
+ * Bidirectional index of player names and unique ids.
+ * Every unique id has one entry with its last known name, both are indexed.
+ * A name that has been used by several players resolves to the player that used it last.
+ */
+public final class NameToUUIDDatabase {
+
+    private final ObjectRepository<NameUUIDEntry> repository;
 
-    public NameToUUIDDatabase(Database database) {
-        super(database);
+    public NameToUUIDDatabase(ObjectRepository<NameUUIDEntry> repository) {
+        this.repository = repository;
+        if (!repository.hasIndex(NameUUIDEntry.UNIQUE_ID)) {
+            repository.createIndex(NameUUIDEntry.UNIQUE_ID, IndexOptions.indexOptions(IndexType.Unique));
+        }
+        if (!repository.hasIndex(NameUUIDEntry.LOWER_NAME)) {
+            repository.createIndex(NameUUIDEntry.LOWER_NAME, IndexOptions.indexOptions(IndexType.NonUnique));
+        }
     }
 
+    /**
+     * Stores the name of the player with the given unique id, replacing its previous name.
+     *
+     * @param values the name and the unique id of the player
+     */
     public void append(MultiValue<String, UUID> values) {
-        database.insert(new DatabaseDocument(values.getFirst().toLowerCase()).append("uniqueId", values.getSecond()));
-        database.insert(new DatabaseDocument(values.getSecond().toString()).append("name", values.getFirst()));
+        update(values.getSecond(), values.getFirst(), System.currentTimeMillis());
     }
 
+    /**
+     * Stores the name of the player with the given unique id, replacing its previous name.
+     *
+     * @param replacer the unique id and the name of the player
+     */
     public void replace(MultiValue<UUID, String> replacer) {
-        DatabaseDocument document = database.getDocument(replacer.getFirst().toString());
-        document.append("name", replacer.getSecond());
-        database.insert(document);
+        update(replacer.getFirst(), replacer.getSecond(), System.currentTimeMillis());
+    }
+
+    private void update(UUID uniqueId, String name, long lastUpdate) {
+        repository.update(ObjectFilters.eq(NameUUIDEntry.UNIQUE_ID, uniqueId.toString()),
+                          new NameUUIDEntry(uniqueId, name, lastUpdate),
+                          true);
     }
 
     public UUID get(String name) {
@@ -48,15 +81,10 @@ public final class NameToUUIDDatabase extends DatabaseUsable {
             return null;
         }
 
-        if (database.contains(name.toLowerCase())) {
-            DatabaseDocument document = database.getDocument(name.toLowerCase());
-            if (!document.contains("uniqueId")) {
-                database.delete(name.toLowerCase());
-                return null;
-            }
-            return document.getObject("uniqueId", UUID.class);
-        }
-        return null;
+        NameUUIDEntry entry = repository.find(ObjectFilters.eq(NameUUIDEntry.LOWER_NAME, name.toLowerCase(Locale.ROOT)),
+                                              FindOptions.sort(NameUUIDEntry.LAST_UPDATE, SortOrder.Descending))
+                                        .firstOrDefault();
+        return entry == null ? null : entry.getUniqueId();
     }
 
     public String get(UUID uniqueId) {
@@ -64,33 +92,55 @@ public final class NameToUUIDDatabase extends DatabaseUsable {
             return null;
         }
 
-        if (database.contains(uniqueId.toString())) {
-            DatabaseDocument document = database.getDocument(uniqueId.toString());
-            if (!document.contains("name")) {
-                database.delete(uniqueId.toString());
-                return null;
-            }
-            return document.getString("name");
-        }
-        return null;
+        NameUUIDEntry entry = repository.find(ObjectFilters.eq(NameUUIDEntry.UNIQUE_ID, uniqueId.toString())).firstOrDefault();
+        return entry == null ? null : entry.getName();
     }
 
-    public void handleUpdate(UpdateConfigurationDatabase updateConfigurationDatabase) {
-        final String updateKey = "updated_database_from_2_1_Pv29";
-        if (!updateConfigurationDatabase.get().contains(updateKey)) {
-            Collection<DatabaseDocument> documents = new LinkedList<>(database.loadDocuments().getDocuments().values());
+    /**
+     * Moves the entries of the previous name and unique id documents into this index, once.
+     * The previous database stored one document per lowercase name and one per unique id.
+     *
+     * @param updateConfigurationDatabase the database recording which updates have been done
+     * @param legacyDatabase              the previous database
+     */
+    public void handleUpdate(UpdateConfigurationDatabase updateConfigurationDatabase, Database legacyDatabase) {
+        final String updateKey = "updated_name_uuid_index";
+        if (updateConfigurationDatabase.get().contains(updateKey)) {
+            return;
+        }
+
+        Collection<DatabaseDocument> documents = new ArrayList<>(legacyDatabase.loadDocuments().getDocuments().values());
+        CloudNet.getLogger().info(String.format("Migrating %d name and unique id documents", documents.size()));
 
-            documents.forEach(document -> {
+        // unique id documents hold the last known name of every player
+        for (DatabaseDocument document : documents) {
+            if (document.contains("name")) {
+                try {
+                    UUID uniqueId = UUID.fromString(document.getString(Database.UNIQUE_NAME_KEY));
+                    update(uniqueId, document.getString("name"), 0L);
+                } catch (IllegalArgumentException exception) {
+                    CloudNet.getLogger().warning(String.format("Skipping invalid document %s", document.getString(Database.UNIQUE_NAME_KEY)));
+                }
+            }
+        }
+
+        // name documents point to the player that used the name last, which takes precedence when resolving the name
+        for (DatabaseDocument document : documents) {
+            if (document.contains("uniqueId")) {
                 String name = document.getString(Database.UNIQUE_NAME_KEY);
-                if (name != null && name.length() < 32) {
-                    database.delete(name);
-                    database.insert(document.append(Database.UNIQUE_NAME_KEY, name.toLowerCase()));
+                UUID uniqueId = document.getObject("uniqueId", UUID.class);
+                String knownName = get(uniqueId);
+                if (uniqueId != null && (knownName == null || knownName.equalsIgnoreCase(name))) {
+                    update(uniqueId, knownName == null ? name : knownName, 1L);
                 }
-            });
+            }
+        }
 
-            updateConfigurationDatabase.set(updateConfigurationDatabase.get().append(updateKey, true));
-            database.save();
-            database.clear();
+        for (DatabaseDocument document : documents) {
+            legacyDatabase.delete(document);
         }
+        legacyDatabase.save();
+
+        updateConfigurationDatabase.set(updateConfigurationDatabase.get().append(updateKey, true));
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.database;
+
+import org.dizitart.no2.Document;
+import org.dizitart.no2.mapper.Mappable;
+import org.dizitart.no2.mapper.NitriteMapper;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Entry of the {@link NameToUUIDDatabase}, associating a unique id with the last known name of the player.
+ */
+public final class NameUUIDEntry implements Mappable {
+
+    static final String UNIQUE_ID = "uniqueId";
+    static final String NAME = "name";
+    static final String LOWER_NAME = "lowerName";
+    static final String LAST_UPDATE = "lastUpdate";
+
+    private UUID uniqueId;
+    private String name;
+    private long lastUpdate;
+
+    public NameUUIDEntry() {
+    }
+
+    public NameUUIDEntry(UUID uniqueId, String name, long lastUpdate) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.lastUpdate = lastUpdate;
+    }
+
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastUpdate() {
+        return lastUpdate;
+    }
+
+    @Override
+    public Document write(NitriteMapper mapper) {
+        return new Document().put(UNIQUE_ID, uniqueId.toString())
+                             .put(NAME, name)
+                             .put(LOWER_NAME, name.toLowerCase(Locale.ROOT))
+                             .put(LAST_UPDATE, lastUpdate);
+    }
+
+    @Override
+    public void read(NitriteMapper mapper, Document document) {
+        this.uniqueId = UUID.fromString(document.get(UNIQUE_ID, String.class));
+        this.name = document.get(NAME, String.class);
+        this.lastUpdate = document.get(LAST_UPDATE, Long.class);
+    }
+
+    @Override
+    public String toString() {
+        return "NameUUIDEntry{" +
+            "uniqueId=" + uniqueId +
+            ", name='" + name + '\'' +
+            ", lastUpdate=" + lastUpdate +
+            '}';
+    }
+}
@@ -20,9 +20,13 @@ package eu.cloudnetservice.cloudnet.v2.master.database;
 import eu.cloudnetservice.cloudnet.v2.database.DatabaseUsable;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabasePage;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseQuery;
+import eu.cloudnetservice.cloudnet.v2.lib.map.LruCache;
 import eu.cloudnetservice.cloudnet.v2.lib.player.CloudPlayer;
 import eu.cloudnetservice.cloudnet.v2.lib.player.OfflinePlayer;
 import eu.cloudnetservice.cloudnet.v2.lib.player.PlayerConnection;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 import eu.cloudnetservice.cloudnet.v2.master.api.event.player.UpdatePlayerEvent;
@@ -30,11 +34,33 @@ import eu.cloudnetservice.cloudnet.v2.master.api.event.player.UpdatePlayerEvent;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Database of all players that have ever joined the network.
+ * Recently used players are cached, so repeated lookups skip the database and the deserialization.
+ * All changes are written through to the database immediately.
+ * Cached players are shared, they have to be changed with {@link #updatePlayer(OfflinePlayer)}.
+ */
 public class PlayerDatabase extends DatabaseUsable {
 
+    private static final int MAX_CACHED_PLAYERS = 10_000;
+    private static final long CACHE_IDLE_MINUTES = 30;
+
+    private final LruCache<UUID, OfflinePlayer> cache = new LruCache<>(MAX_CACHED_PLAYERS, CACHE_IDLE_MINUTES, TimeUnit.MINUTES);
+
     public PlayerDatabase(Database database) {
         super(database);
+        TaskScheduler.scheduleWithFixedDelay("PlayerCacheEviction", cache::evictExpired,
+                                             CACHE_IDLE_MINUTES, CACHE_IDLE_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @return the cache of recently used players, for its hit and miss counters
+     */
+    public LruCache<UUID, OfflinePlayer> getCache() {
+        return cache;
     }
 
     public OfflinePlayer registerPlayer(PlayerConnection playerConnection) {
@@ -45,6 +71,7 @@ public class PlayerDatabase extends DatabaseUsable {
                                                         System.currentTimeMillis(),
                                                         playerConnection);
         database.insert(new DatabaseDocument(playerConnection.getUniqueId().toString()).append("offlinePlayer", offlinePlayer));
+        cache.put(offlinePlayer.getUniqueId(), offlinePlayer);
         return offlinePlayer;
     }
 
@@ -53,25 +80,34 @@ public class PlayerDatabase extends DatabaseUsable {
         if (offlinePlayer == null) {
             return this;
         }
-        DatabaseDocument document = database.getDocument(offlinePlayer.getUniqueId().toString());
-        document.append("offlinePlayer", CloudPlayer.newOfflinePlayer(offlinePlayer));
-        database.insert(document);
+        OfflinePlayer stored = CloudPlayer.newOfflinePlayer(offlinePlayer);
+        database.insert(getOrCreateDocument(offlinePlayer.getUniqueId()).append("offlinePlayer", stored));
+        cache.put(stored.getUniqueId(), stored);
         CloudNet.getLogger().finest("PlayerDatabase updatePlayer call UpdatePlayerEvent");
         CloudNet.getInstance().getEventManager().callEvent(new UpdatePlayerEvent(offlinePlayer));
         return this;
     }
 
     public PlayerDatabase updateName(UUID uuid, String name) {
-        DatabaseDocument document = database.getDocument(uuid.toString());
-        OfflinePlayer offlinePlayer = document.getObject("offlinePlayer", OfflinePlayer.TYPE);
+        OfflinePlayer offlinePlayer = getPlayer(uuid);
+        if (offlinePlayer == null) {
+            return this;
+        }
         offlinePlayer.setName(name);
-        document.append("offlinePlayer", offlinePlayer);
-        database.insert(document);
+        database.insert(getOrCreateDocument(uuid).append("offlinePlayer", offlinePlayer));
         return this;
     }
 
+    /**
+     * Returns the stored document of a player, so that fields other modules added to it are kept when it is updated.
+     */
+    private DatabaseDocument getOrCreateDocument(UUID uuid) {
+        DatabaseDocument document = database.getDocument(uuid.toString());
+        return document != null ? document : new DatabaseDocument(uuid.toString());
+    }
+
     public boolean containsPlayer(UUID uuid) {
-        return database.contains(uuid.toString());
+        return cache.get(uuid) != null || database.contains(uuid.toString());
     }
 
     public OfflinePlayer getPlayer(UUID uniqueId) {
@@ -79,26 +115,68 @@ public class PlayerDatabase extends DatabaseUsable {
         if (uniqueId == null) {
             return null;
         }
+        OfflinePlayer cached = cache.get(uniqueId);
+        if (cached != null) {
+            return cached;
+        }
         DatabaseDocument document = database.getDocument(uniqueId.toString());
         CloudNet.getLogger().finest("PlayerDatabase getPlayer document null: " + (document == null));
         if (document == null) {
             return null;
         }
         CloudNet.getLogger().finest("PlayerDatabase getPlayer offlinePlayer contained: " + document.contains("offlinePlayer"));
-        return document.getObject("offlinePlayer", OfflinePlayer.TYPE);
+        OfflinePlayer offlinePlayer = document.getObject("offlinePlayer", OfflinePlayer.TYPE);
+        if (offlinePlayer != null) {
+            cache.put(uniqueId, offlinePlayer);
+        }
+        return offlinePlayer;
     }
 
+    /**
+     * @return all registered players
+     *
+     * @deprecated holds every registered player in memory at once,
+     * use {@link #forEachPlayer(Consumer)} or {@link #readPlayerPage(String, Consumer)} instead.
+     */
+    @Deprecated
     public Map<UUID, OfflinePlayer> getRegisteredPlayers() {
-        database.loadDocuments();
-
         Map<UUID, OfflinePlayer> map = new HashMap<>();
+        forEachPlayer(offlinePlayer -> map.put(offlinePlayer.getUniqueId(), offlinePlayer));
+        return map;
+    }
 
-        for (DatabaseDocument document : database.getDocuments().values()) {
-            final OfflinePlayer offlinePlayer = document.getObject("offlinePlayer", OfflinePlayer.TYPE);
-            map.put(offlinePlayer.getUniqueId(), offlinePlayer);
-        }
+    /**
+     * Calls the consumer for every registered player.
+     * The players are read page by page, so only one page of them is held in memory at once.
+     *
+     * @param consumer the consumer to call for every player
+     */
+    public void forEachPlayer(Consumer<OfflinePlayer> consumer) {
+        String continuation = null;
+        do {
+            continuation = readPlayerPage(continuation, consumer);
+        } while (continuation != null);
+    }
 
-        return map;
+    /**
+     * Calls the consumer for every player of one page of registered players.
+     *
+     * @param continuation the continuation returned for the previous page, or null for the first page
+     * @param consumer     the consumer to call for every player of the page
+     *
+     * @return the continuation of the next page, or null if this was the last page
+     */
+    public String readPlayerPage(String continuation, Consumer<OfflinePlayer> consumer) {
+        DatabasePage page = database.query(new DatabaseQuery().select("offlinePlayer")
+                                                              .pageSize(DatabaseQuery.MAX_PAGE_SIZE)
+                                                              .after(continuation));
+        for (DatabaseDocument document : page.getDocuments()) {
+            OfflinePlayer offlinePlayer = document.getObject("offlinePlayer", OfflinePlayer.TYPE);
+            if (offlinePlayer != null) {
+                consumer.accept(offlinePlayer);
+            }
+        }
+        return page.getContinuation();
     }
 
 }
@@ -20,157 +20,170 @@ package eu.cloudnetservice.cloudnet.v2.master.database;
 import eu.cloudnetservice.cloudnet.v2.database.DatabaseUsable;
 import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statistics of this CloudNet instance in memory.
+ * The statistics are written to the database periodically and on shutdown, see {@link #flush()}.
+ */
 public class StatisticManager extends DatabaseUsable {
 
     private static final String NAME = "statistics";
+    private static final long FLUSH_INTERVAL_SECONDS = 30;
     private static StatisticManager instance;
     private boolean statistic = true;
 
+    private final LongAdder playerLogin;
+    private final LongAdder startedProxys;
+    private final LongAdder startedServers;
+    private final LongAdder cloudStartup;
+    private final LongAdder wrapperConnections;
+    private final LongAdder playerCommandExecutions;
+    private final LongAdder cloudOnlineTime;
+    private final LongAccumulator highestServerOnlineCount;
+    private final LongAccumulator highestPlayerOnline;
+    private final AtomicBoolean changed = new AtomicBoolean();
+
     public StatisticManager(Database database) {
         super(database);
         instance = this;
-        if (!database.contains(NAME)) {
-            DatabaseDocument document = new DatabaseDocument(NAME);
+        DatabaseDocument document = database.getDocument(NAME);
+        if (document == null) {
+            document = new DatabaseDocument(NAME);
             database.insert(document);
         }
 
+        this.playerLogin = counter(document, "playerLogin");
+        this.startedProxys = counter(document, "startedProxys");
+        this.startedServers = counter(document, "startedServers");
+        this.cloudStartup = counter(document, "cloudStartup");
+        this.wrapperConnections = counter(document, "wrapperConnections");
+        this.playerCommandExecutions = counter(document, "playerCommandExecutions");
+        this.cloudOnlineTime = counter(document, "cloudOnlineTime");
+        this.highestServerOnlineCount = maximum(document, "highestServerOnlineCount");
+        this.highestPlayerOnline = maximum(document, "highestPlayerOnline");
+
         if (CloudNet.getInstance().getOptionSet().has("disable-statistics")) {
             statistic = false;
+        } else {
+            TaskScheduler.scheduleWithFixedDelay("StatisticFlush", TaskPool.IO, this::flush,
+                                                 FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private static LongAdder counter(DatabaseDocument document, String key) {
+        LongAdder adder = new LongAdder();
+        if (document.contains(key)) {
+            adder.add(document.getLong(key));
         }
+        return adder;
+    }
+
+    private static LongAccumulator maximum(DatabaseDocument document, String key) {
+        LongAccumulator accumulator = new LongAccumulator(Math::max, 0L);
+        if (document.contains(key)) {
+            accumulator.accumulate(document.getLong(key));
+        }
+        return accumulator;
     }
 
     public static StatisticManager getInstance() {
         return instance;
     }
 
+    /**
+     * @return the stored statistics document with the current counters merged in,
+     * including changes that have not been written to the database yet
+     */
     public DatabaseDocument getStatistics() {
-        return database.getDocument(NAME);
+        DatabaseDocument document = database.getDocument(NAME);
+        if (document == null) {
+            document = new DatabaseDocument(NAME);
+        }
+        // other fields of the document, written by modules or older versions, are kept
+        return document.append("playerLogin", playerLogin.sum())
+                       .append("startedProxys", startedProxys.sum())
+                       .append("startedServers", startedServers.sum())
+                       .append("cloudStartup", cloudStartup.sum())
+                       .append("wrapperConnections", wrapperConnections.sum())
+                       .append("playerCommandExecutions", playerCommandExecutions.sum())
+                       .append("cloudOnlineTime", cloudOnlineTime.sum())
+                       .append("highestServerOnlineCount", highestServerOnlineCount.get())
+                       .append("highestPlayerOnline", highestPlayerOnline.get());
     }
 
-    public void addPlayerLogin() {
-        if (!statistic) {
+    /**
+     * Writes the statistics to the database, if they have changed since the last flush.
+     */
+    public void flush() {
+        if (!changed.compareAndSet(true, false)) {
             return;
         }
-        try {
-            DatabaseDocument document = database.getDocument(NAME);
-            if (!document.contains("playerLogin")) {
-                document.append("playerLogin", 0L);
-            }
 
-            document.append("playerLogin", document.getLong("playerLogin") + 1L);
-            database.insert(document);
+        try {
+            database.insert(getStatistics());
         } catch (Exception ex) {
             ex.printStackTrace();
         }
     }
 
-    public void addStartedProxys() {
-        if (!statistic) {
-            return;
+    private void increment(LongAdder adder) {
+        if (statistic) {
+            adder.increment();
+            changed.set(true);
         }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("startedProxys")) {
-            document.append("startedProxys", 0);
+    }
+
+    private void maximum(LongAccumulator accumulator, int value) {
+        if (statistic && value > accumulator.get()) {
+            accumulator.accumulate(value);
+            changed.set(true);
         }
+    }
 
-        document.append("startedProxys", document.getInt("startedProxys") + 1);
-        database.insert(document);
+    public void addPlayerLogin() {
+        increment(playerLogin);
     }
 
-    public void addStartedServers() {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("startedServers")) {
-            document.append("startedServers", 0L);
-        }
+    public void addStartedProxys() {
+        increment(startedProxys);
+    }
 
-        document.append("startedServers", document.getLong("startedServers") + 1L);
-        database.insert(document);
+    public void addStartedServers() {
+        increment(startedServers);
     }
 
     public void addStartup() {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("cloudStartup")) {
-            document.append("cloudStartup", 0L);
-        }
-
-        document.append("cloudStartup", document.getLong("cloudStartup") + 1L);
-        database.insert(document);
+        increment(cloudStartup);
     }
 
     public void wrapperConnections() {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("wrapperConnections")) {
-            document.append("wrapperConnections", 0);
-        }
-
-        document.append("wrapperConnections", document.getLong("wrapperConnections") + 1L);
-        database.insert(document);
+        increment(wrapperConnections);
     }
 
     public void playerCommandExecutions() {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("playerCommandExecutions")) {
-            document.append("playerCommandExecutions", 0L);
-        }
-
-        document.append("playerCommandExecutions", document.getLong("playerCommandExecutions") + 1L);
-        database.insert(document);
+        increment(playerCommandExecutions);
     }
 
     public void highestServerOnlineCount(int value) {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("highestServerOnlineCount")) {
-            document.append("highestServerOnlineCount", 0);
-        }
-
-        if (value > document.getInt("highestServerOnlineCount")) {
-            document.append("highestServerOnlineCount", value);
-        }
-        database.insert(document);
+        maximum(highestServerOnlineCount, value);
     }
 
     public void highestPlayerOnlineCount(int value) {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("highestPlayerOnline")) {
-            document.append("highestPlayerOnline", 0);
-        }
-
-        if (value > document.getInt("highestPlayerOnline")) {
-            document.append("highestPlayerOnline", value);
-        }
-        database.insert(document);
+        maximum(highestPlayerOnline, value);
     }
 
     public void cloudOnlineTime(long activeNow) {
-        if (!statistic) {
-            return;
-        }
-        DatabaseDocument document = database.getDocument(NAME);
-        if (!document.contains("cloudOnlineTime")) {
-            document.append("cloudOnlineTime", 0);
+        if (statistic) {
+            cloudOnlineTime.add(System.currentTimeMillis() - activeNow);
+            changed.set(true);
         }
-        long append = System.currentTimeMillis() - activeNow;
-        document.append("cloudOnlineTime", document.getLong("cloudOnlineTime") + append);
-        database.insert(document);
     }
 }
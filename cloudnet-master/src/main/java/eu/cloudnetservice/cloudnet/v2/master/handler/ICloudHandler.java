@@ -21,12 +21,20 @@ import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 
 public interface ICloudHandler extends Runnable {
 
+    /**
+     * The length of a tick in milliseconds.
+     */
+    long TICK_MILLIS = 20;
+
     default void run() {
         onHandle(CloudNet.getInstance());
     }
 
     void onHandle(CloudNet cloudNet);
 
+    /**
+     * @return the amount of ticks between the end of one run and the start of the next one
+     */
     int getTicks();
 
 }
@@ -28,7 +28,6 @@ import eu.cloudnetservice.cloudnet.v2.master.network.components.INetworkComponen
 import eu.cloudnetservice.cloudnet.v2.master.network.components.MinecraftServer;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.ProxyServer;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.Wrapper;
-import eu.cloudnetservice.cloudnet.v2.master.network.packet.out.PacketOutCloudNetwork;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.out.PacketOutOnlineServer;
 import eu.cloudnetservice.cloudnet.v2.master.network.wrapper.WrapperSession;
 import io.netty.channel.Channel;
@@ -45,11 +44,13 @@ public class CloudNetClient extends SimpleChannelInboundHandler<Packet> {
 
     private Channel channel;
     private final INetworkComponent networkComponent;
+    private final PacketDispatcher.ComponentQueue packetQueue;
 
     public CloudNetClient(INetworkComponent iNetworkComponent, Channel channel) {
         this.networkComponent = iNetworkComponent;
         this.networkComponent.setChannel(channel);
         this.channel = channel;
+        this.packetQueue = CloudNet.getInstance().getPacketDispatcher().createQueue(iNetworkComponent, channel);
 
         System.out.println("Channel connected [" + channel.remoteAddress() + "/serverId=" + networkComponent.getServerId() + ']');
 
@@ -61,26 +62,35 @@ public class CloudNetClient extends SimpleChannelInboundHandler<Packet> {
                 new WrapperSession(UUID.randomUUID(), ((Wrapper) networkComponent).getNetworkInfo(), System.currentTimeMillis()));
         }
 
-        CloudNetwork cloudNetwork = CloudNet.getInstance().getNetworkManager().newCloudNetwork();
-        channel.writeAndFlush(new PacketOutCloudNetwork(cloudNetwork));
+        CloudNet.getInstance().getNetworkManager().sendCloudNetwork(networkComponent);
 
         if (networkComponent instanceof MinecraftServer) {
             ((MinecraftServer) networkComponent).setChannelLostTime(0L);
+            CloudNet.getInstance().getAutoScaler().recordConnected(((MinecraftServer) networkComponent).getServiceId());
             networkComponent.getWrapper().sendPacket(new PacketOutOnlineServer(((MinecraftServer) networkComponent).getServerInfo()));
         }
         if (networkComponent instanceof ProxyServer) {
             ((ProxyServer) networkComponent).setChannelLostTime(0L);
         }
         CloudNet.getInstance().getEventManager().callEvent(new ChannelInitEvent(channel, networkComponent));
-        init(cloudNetwork);
+        init();
     }
 
-    public static void init(CloudNetwork cloudNetwork) {
+    public static void init() {
         CloudNet.getExecutor().submit(() -> {
-            CloudNet.getInstance().getNetworkManager().sendAll(new PacketOutCloudNetwork(cloudNetwork));
+            CloudNet.getInstance().getNetworkManager().publishCloudNetwork();
         });
     }
 
+    /**
+     * @deprecated the cloud network is published from the current state, the given cloud network is ignored.
+     * Use {@link #init()} instead.
+     */
+    @Deprecated
+    public static void init(CloudNetwork cloudNetwork) {
+        init();
+    }
+
     @Override
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         this.channel = ctx.channel();
@@ -102,8 +112,7 @@ public class CloudNetClient extends SimpleChannelInboundHandler<Packet> {
                 try {
                     ((Wrapper) networkComponent).disconnect();
                 } catch (Exception ex) {
-                    ((Wrapper) networkComponent).getServers().clear();
-                    ((Wrapper) networkComponent).getProxies().clear();
+                    ((Wrapper) networkComponent).clearServices();
                 }
 
                 CloudNet.getInstance().getEventManager().callEvent(new WrapperChannelDisconnectEvent(((Wrapper) networkComponent)));
@@ -134,13 +143,17 @@ public class CloudNetClient extends SimpleChannelInboundHandler<Packet> {
         return channel;
     }
 
+    public PacketDispatcher.ComponentQueue getPacketQueue() {
+        return packetQueue;
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext channelHandlerContext, Packet packet) throws Exception {
         if (packet == null) {
             return;
         }
         CloudNet.getLogger().finest(String.format("Receiving packet %s from %s%n", packet, networkComponent.getServerId()));
-        CloudNet.getInstance().getPacketManager().dispatchPacket(packet, networkComponent);
+        packetQueue.offer(packet);
     }
 
 }
@@ -17,6 +17,7 @@
 
 package eu.cloudnetservice.cloudnet.v2.master.network;
 
+import eu.cloudnetservice.cloudnet.v2.lib.network.FlushBatchingHandler;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.IProtocol;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolRequest;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
@@ -64,7 +65,7 @@ public class CloudNetClientAuth extends SimpleChannelInboundHandler<Packet> impl
 
     @Override
     public void sendPacketSynchronized(Packet packet) {
-        channel.writeAndFlush(packet).syncUninterruptibly();
+        FlushBatchingHandler.writeAndFlushNow(channel, packet).syncUninterruptibly();
     }
 
     @Override
@@ -101,7 +102,7 @@ public class CloudNetClientAuth extends SimpleChannelInboundHandler<Packet> impl
 
     @Override
     public void sendSynchronized(Object object) {
-        channel.writeAndFlush(object).syncUninterruptibly();
+        FlushBatchingHandler.writeAndFlushNow(channel, object).syncUninterruptibly();
     }
 
     @Override
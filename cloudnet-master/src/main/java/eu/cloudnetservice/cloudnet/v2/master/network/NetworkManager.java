@@ -17,16 +17,22 @@
 
 package eu.cloudnetservice.cloudnet.v2.master.network;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import eu.cloudnetservice.cloudnet.v2.lib.CloudNetwork;
+import eu.cloudnetservice.cloudnet.v2.lib.CloudNetworkPatch;
 import eu.cloudnetservice.cloudnet.v2.lib.MultiValue;
 import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.network.WrapperInfo;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketBroadcast;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
 import eu.cloudnetservice.cloudnet.v2.lib.player.CloudPlayer;
 import eu.cloudnetservice.cloudnet.v2.lib.player.OfflinePlayer;
 import eu.cloudnetservice.cloudnet.v2.lib.player.PlayerCommandExecution;
 import eu.cloudnetservice.cloudnet.v2.lib.player.PlayerConnection;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroup;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroupMode;
 import eu.cloudnetservice.cloudnet.v2.lib.server.SimpleServerGroup;
@@ -53,14 +59,19 @@ import eu.cloudnetservice.cloudnet.v2.master.util.MessageConfig;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class NetworkManager {
 
     private final java.util.Map<UUID, CloudPlayer> waitingPlayers = new ConcurrentHashMap<>();
     private final java.util.Map<UUID, CloudPlayer> onlinePlayers = new ConcurrentHashMap<>();
     private final Document moduleProperties = new Document();
+    private final long networkEpoch = ThreadLocalRandom.current().nextLong();
 
     private final MessageConfig messageConfig;
+    private long networkVersion;
+    private CloudNetwork networkSnapshot;
+    private JsonObject networkState;
 
     public NetworkManager() {
         messageConfig = new MessageConfig();
@@ -88,8 +99,55 @@ public final class NetworkManager {
 
     public void updateAll() {
         CloudNet.getInstance().getEventManager().callEvent(new UpdateAllEvent(this, true));
-        PacketOutCloudNetwork cloudNetwork = new PacketOutCloudNetwork(newCloudNetwork());
-        sendAll(cloudNetwork);
+        publishCloudNetwork();
+    }
+
+    /**
+     * Compares the current cloud network with the last published one and sends the changes to all components.
+     * Components that announced support for patches only receive the changed parts, all others receive the
+     * full cloud network. Nothing is sent if the cloud network did not change.
+     *
+     * @return the version of the cloud network after publishing
+     */
+    public synchronized long publishCloudNetwork() {
+        CloudNetwork cloudNetwork = newCloudNetwork();
+        JsonObject state = Document.GSON.toJsonTree(cloudNetwork).getAsJsonObject();
+
+        if (networkState == null) {
+            networkSnapshot = cloudNetwork;
+            networkState = state;
+            sendAll(new PacketOutCloudNetwork(cloudNetwork, networkEpoch, networkVersion));
+            return networkVersion;
+        }
+
+        JsonArray changes = CloudNetworkPatch.diff(networkState, state);
+        if (changes.size() == 0) {
+            return networkVersion;
+        }
+
+        long fromVersion = networkVersion++;
+        networkSnapshot = cloudNetwork;
+        networkState = state;
+        sendAll(new PacketOutCloudNetworkPatch(networkEpoch, fromVersion, networkVersion, changes), NetworkManager::acceptsPatches);
+        sendAll(new PacketOutCloudNetwork(cloudNetwork, networkEpoch, networkVersion),
+                networkComponent -> !acceptsPatches(networkComponent));
+        return networkVersion;
+    }
+
+    /**
+     * Publishes pending changes and sends the full, versioned cloud network to a single component.
+     * Used when a component connects or when it missed a patch.
+     *
+     * @param networkComponent the component to send the cloud network to
+     */
+    public synchronized void sendCloudNetwork(INetworkComponent networkComponent) {
+        publishCloudNetwork();
+        networkComponent.sendPacket(new PacketOutCloudNetwork(networkSnapshot, networkEpoch, networkVersion));
+    }
+
+    private static boolean acceptsPatches(INetworkComponent networkComponent) {
+        return networkComponent.getChannel() != null &&
+            Boolean.TRUE.equals(networkComponent.getChannel().attr(CloudNetworkPatch.PATCHES).get());
     }
 
     public CloudNetwork newCloudNetwork() {
@@ -210,8 +268,7 @@ public final class NetworkManager {
 
     public void updateAll0() {
         CloudNet.getInstance().getEventManager().callEvent(new UpdateAllEvent(this, false));
-        PacketOutCloudNetwork cloudNetwork = new PacketOutCloudNetwork(newCloudNetwork());
-        sendAll(cloudNetwork);
+        publishCloudNetwork();
     }
 
     public void handlePlayerLoginRequest(ProxyServer proxyServer, PlayerConnection cloudPlayerConnection, UUID uniqueId) {
@@ -254,10 +311,6 @@ public final class NetworkManager {
                 .finest("player login request " + cloudPlayerConnection.getName() + '#' + uniqueId + " NameToUUIDDatabase append");
         CloudNet.getInstance().getDbHandlers().getNameToUUIDDatabase().append(new MultiValue<>(cloudPlayerConnection.getName(),
                                                                                                cloudPlayerConnection.getUniqueId()));
-        CloudNet.getLogger()
-                .finest("player login request " + cloudPlayerConnection.getName() + '#' + uniqueId + " NameToUUIDDatabase replace");
-        CloudNet.getInstance().getDbHandlers().getNameToUUIDDatabase().replace(new MultiValue<>(cloudPlayerConnection.getUniqueId(),
-                                                                                                cloudPlayerConnection.getName()));
 
         CloudNet.getLogger().finest("player login request " + cloudPlayerConnection.getName() + '#' + uniqueId + " setName");
         cloudPlayer.setName(cloudPlayerConnection.getName());
@@ -283,28 +336,40 @@ public final class NetworkManager {
         this.sendAll(new PacketOutUpdateOnlineCount(getOnlineCount()));
 
         StatisticManager.getInstance().addPlayerLogin();
+        CloudNet.getInstance().getAutoScaler().recordLogin();
         StatisticManager.getInstance().highestPlayerOnlineCount(getOnlineCount());
     }
 
+    /**
+     * Sends the packet to every connected component accepted by the filter.
+     * The packet is encoded only once and the same frame is written to every channel.
+     *
+     * @param packet the packet to send
+     * @param filter the filter selecting the receiving components
+     *
+     * @return this network manager
+     */
     public NetworkManager sendAll(Packet packet, ChannelFilter filter) {
-        NetworkUtils.getExecutor().submit(() -> {
-            for (Wrapper wrapper : CloudNet.getInstance().getWrappers().values()) {
-                if (wrapper.getChannel() != null && filter.accept(wrapper)) {
-                    wrapper.sendPacket(packet);
-                }
+        TaskScheduler.getExecutor(TaskPool.BROADCAST).submit(() -> {
+            try (PacketBroadcast broadcast = new PacketBroadcast(packet)) {
+                for (Wrapper wrapper : CloudNet.getInstance().getWrappers().values()) {
+                    if (wrapper.getChannel() != null && filter.accept(wrapper)) {
+                        broadcast.sendTo(wrapper);
+                    }
 
-                for (ProxyServer proxyServer : wrapper.getProxies().values()) {
-                    if (proxyServer.getChannel() != null && filter.accept(proxyServer)) {
-                        proxyServer.sendPacket(packet);
+                    for (ProxyServer proxyServer : wrapper.getProxies().values()) {
+                        if (proxyServer.getChannel() != null && filter.accept(proxyServer)) {
+                            broadcast.sendTo(proxyServer);
+                        }
                     }
-                }
 
-                for (MinecraftServer minecraftServer : wrapper.getServers().values()) {
-                    if (minecraftServer.getChannel() != null && filter.accept(minecraftServer)) {
-                        minecraftServer.sendPacket(packet);
+                    for (MinecraftServer minecraftServer : wrapper.getServers().values()) {
+                        if (minecraftServer.getChannel() != null && filter.accept(minecraftServer)) {
+                            broadcast.sendTo(minecraftServer);
+                        }
                     }
-                }
 
+                }
             }
         });
         return this;
@@ -321,9 +386,12 @@ public final class NetworkManager {
     }
 
     public void handleServerInfoUpdate(MinecraftServer minecraftServer, ServerInfo incoming) {
+        int oldOnlineCount = minecraftServer.getServerInfo().getOnlineCount();
         minecraftServer.setServerInfo(incoming);
+        CloudNet.getInstance().getPriorityStopTimer().update(minecraftServer, oldOnlineCount);
         CloudNet.getInstance().getEventManager().callEvent(new ServerInfoUpdateEvent(minecraftServer, incoming));
         this.sendAllUpdate(new PacketOutUpdateServerInfo(incoming));
+        CloudNet.getInstance().getAutoScaler().requestEvaluation();
 
     }
 
@@ -346,6 +414,7 @@ public final class NetworkManager {
 
         this.sendAllUpdate(new PacketOutUpdateProxyInfo(incoming));
         this.sendAll(new PacketOutUpdateOnlineCount(getOnlineCount()));
+        CloudNet.getInstance().getAutoScaler().requestEvaluation();
     }
 
     public void handleServerRemove(MinecraftServer minecraftServer) {
@@ -402,7 +471,13 @@ public final class NetworkManager {
     }
 
     public void handlePlayerUpdate(CloudPlayer cloudPlayer) {
-        this.onlinePlayers.put(cloudPlayer.getUniqueId(), cloudPlayer);
+        CloudPlayer previous = this.onlinePlayers.put(cloudPlayer.getUniqueId(), cloudPlayer);
+        if (cloudPlayer.getServer() != null && (previous == null || !cloudPlayer.getServer().equals(previous.getServer()))) {
+            MinecraftServer minecraftServer = CloudNet.getInstance().getServer(cloudPlayer.getServer());
+            if (minecraftServer != null) {
+                CloudNet.getInstance().getAutoScaler().recordJoin(minecraftServer.getServiceId().getGroup());
+            }
+        }
         CloudNet.getInstance().getEventManager().callEvent(new UpdatePlayerEvent(cloudPlayer));
         this.sendAllUpdate(new PacketOutUpdatePlayer(cloudPlayer));
 
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.network;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
+import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
+import eu.cloudnetservice.cloudnet.v2.master.network.components.INetworkComponent;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Handles incoming packets of network components outside of the netty event loops.
+ * Packets of a single component are handled in the order they were received, packets of different
+ * components are handled in parallel.
+ * <p>
+ * When the queue of a component grows beyond {@link #HIGH_WATER_MARK} packets, reading from its channel is
+ * paused until the queue has been drained to {@link #LOW_WATER_MARK} packets.
+ */
+public final class PacketDispatcher {
+
+    public static final int HIGH_WATER_MARK = 256;
+    public static final int LOW_WATER_MARK = 64;
+
+    /**
+     * The maximum amount of packets handled by a queue before giving the worker to other components.
+     */
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    private final ExecutorService workers = createWorkers();
+    private final AtomicInteger queuedPackets = new AtomicInteger();
+    private final LongAdder handledPackets = new LongAdder();
+    private final LongAdder handlerNanos = new LongAdder();
+    private final LongAccumulator maxHandlerNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder pausedReads = new LongAdder();
+
+    private static ExecutorService createWorkers() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException ignored) {
+            return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                                                new DefaultThreadFactory("PacketDispatcher", true));
+        }
+    }
+
+    /**
+     * Creates the ordered queue for a connected network component.
+     *
+     * @param networkComponent the component the packets are received from
+     * @param channel          the channel of the component
+     *
+     * @return the queue to dispatch the packets of the component with
+     */
+    public ComponentQueue createQueue(INetworkComponent networkComponent, Channel channel) {
+        return new ComponentQueue(networkComponent, channel);
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the amount of packets waiting to be handled over all components
+     */
+    public int getQueuedPackets() {
+        return queuedPackets.get();
+    }
+
+    /**
+     * @return the amount of packets handled since startup
+     */
+    public long getHandledPackets() {
+        return handledPackets.sum();
+    }
+
+    /**
+     * @return the average time spent in the packet handlers per packet in nanoseconds
+     */
+    public long getAverageHandlerNanos() {
+        long handled = handledPackets.sum();
+        return handled == 0 ? 0 : handlerNanos.sum() / handled;
+    }
+
+    /**
+     * @return the longest time spent in the packet handlers for a single packet in nanoseconds
+     */
+    public long getMaxHandlerNanos() {
+        return maxHandlerNanos.get();
+    }
+
+    /**
+     * @return how often reading from a channel has been paused because its queue was full
+     */
+    public long getPausedReads() {
+        return pausedReads.sum();
+    }
+
+    public final class ComponentQueue implements Runnable {
+
+        private final INetworkComponent networkComponent;
+        private final Channel channel;
+        private final Queue<Packet> packets = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private ComponentQueue(INetworkComponent networkComponent, Channel channel) {
+            this.networkComponent = networkComponent;
+            this.channel = channel;
+        }
+
+        /**
+         * Queues the given packet for handling. Has to be called from the event loop of the channel.
+         *
+         * @param packet the received packet
+         */
+        public void offer(Packet packet) {
+            packets.offer(packet);
+            queuedPackets.incrementAndGet();
+
+            if (size.incrementAndGet() >= HIGH_WATER_MARK && channel.config().isAutoRead()) {
+                channel.config().setAutoRead(false);
+                pausedReads.increment();
+                // the queue may have been drained in the meantime
+                if (size.get() <= LOW_WATER_MARK) {
+                    channel.config().setAutoRead(true);
+                }
+            }
+
+            schedule();
+        }
+
+        /**
+         * @return the amount of packets of this component waiting to be handled
+         */
+        public int size() {
+            return size.get();
+        }
+
+        @Override
+        public void run() {
+            Packet packet;
+            int handled = 0;
+            while (handled < DRAIN_BATCH_SIZE && (packet = packets.poll()) != null) {
+                long start = System.nanoTime();
+                try {
+                    CloudNet.getInstance().getPacketManager().dispatchPacket(packet, networkComponent);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+                long nanos = System.nanoTime() - start;
+                handlerNanos.add(nanos);
+                maxHandlerNanos.accumulate(nanos);
+                handledPackets.increment();
+                queuedPackets.decrementAndGet();
+                handled++;
+
+                if (size.decrementAndGet() <= LOW_WATER_MARK && !channel.config().isAutoRead()) {
+                    channel.config().setAutoRead(true);
+                }
+            }
+
+            scheduled.set(false);
+            if (!packets.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException ignored) {
+                    // the dispatcher has been shut down
+                    scheduled.set(false);
+                }
+            }
+        }
+    }
+}
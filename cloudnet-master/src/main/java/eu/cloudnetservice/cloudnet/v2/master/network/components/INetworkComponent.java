@@ -18,6 +18,7 @@
 package eu.cloudnetservice.cloudnet.v2.master.network.components;
 
 import eu.cloudnetservice.cloudnet.v2.lib.network.ChannelUser;
+import eu.cloudnetservice.cloudnet.v2.lib.network.FlushBatchingHandler;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.IProtocol;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolRequest;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
@@ -30,9 +31,22 @@ public interface INetworkComponent extends PacketSender, ChannelUser {
     Wrapper getWrapper();
 
     default void sendPacket(Packet... packets) {
+        if (getChannel() == null) {
+            return;
+        }
+        if (getChannel().eventLoop().inEventLoop()) {
+            writePackets(packets);
+        } else {
+            getChannel().eventLoop().execute(() -> writePackets(packets));
+        }
+    }
+
+    default void writePackets(Packet... packets) {
         for (Packet packet : packets) {
-            sendPacket(packet);
+            CloudNet.getLogger().finest(String.format("Sending packet %s to %s%n", packet, getServerId()));
+            getChannel().write(packet).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
         }
+        getChannel().flush();
     }
 
     String getServerId();
@@ -67,7 +81,7 @@ public interface INetworkComponent extends PacketSender, ChannelUser {
         }
         CloudNet.getLogger().finest(String.format("Sending packet %s to %s%n", packet, getServerId()));
 
-        getChannel().writeAndFlush(packet).syncUninterruptibly();
+        FlushBatchingHandler.writeAndFlushNow(getChannel(), packet).syncUninterruptibly();
     }
 
     @Override
@@ -90,7 +104,7 @@ public interface INetworkComponent extends PacketSender, ChannelUser {
 
     @Override
     default void sendSynchronized(Object object) {
-        getChannel().writeAndFlush(object).syncUninterruptibly();
+        FlushBatchingHandler.writeAndFlushNow(getChannel(), object).syncUninterruptibly();
     }
 
     @Override
@@ -20,6 +20,7 @@ package eu.cloudnetservice.cloudnet.v2.master.network.components;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroup;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroupMode;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerProcessMeta;
+import eu.cloudnetservice.cloudnet.v2.lib.server.ServerState;
 import eu.cloudnetservice.cloudnet.v2.lib.server.info.ServerInfo;
 import eu.cloudnetservice.cloudnet.v2.lib.service.ServiceId;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
@@ -85,7 +86,11 @@ public final class MinecraftServer implements INetworkComponent {
     }
 
     public void setServerInfo(ServerInfo serverInfo) {
+        ServerState previousState = this.serverInfo.getServerState();
         this.serverInfo = serverInfo;
+        if (previousState != serverInfo.getServerState()) {
+            CloudNet.getInstance().getServiceRegistry().updateServerState(this);
+        }
     }
 
     public ServerGroupMode getGroupMode() {
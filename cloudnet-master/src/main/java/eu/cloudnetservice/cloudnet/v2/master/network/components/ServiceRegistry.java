@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.network.components;
+
+import eu.cloudnetservice.cloudnet.v2.lib.server.ServerState;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of all services of the cloud network, indexed by server id, by group and by state.
+ * The services of a single wrapper are indexed by the wrapper itself, which keeps this registry updated
+ * whenever a service is added or removed. Groups are matched case-insensitively.
+ * <p>
+ * Reading is lock-free, all returned collections are unmodifiable live views.
+ */
+public final class ServiceRegistry {
+
+    private final Map<String, MinecraftServer> servers = new ConcurrentHashMap<>();
+    private final Map<String, ProxyServer> proxies = new ConcurrentHashMap<>();
+    private final Map<String, WaitingService> waitingServices = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, MinecraftServer>> serversByGroup = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, ProxyServer>> proxiesByGroup = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, WaitingService>> waitingServicesByGroup = new ConcurrentHashMap<>();
+    private final Map<ServerState, Map<String, MinecraftServer>> serversByState = new EnumMap<>(ServerState.class);
+    private final Collection<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    public ServiceRegistry() {
+        for (ServerState serverState : ServerState.values()) {
+            serversByState.put(serverState, new ConcurrentHashMap<>());
+        }
+    }
+
+    private static String groupKey(String group) {
+        return group.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a listener that is called whenever a service or a waiting service is added or removed.
+     * Listeners are called while the registry is locked and must not block.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    private void fireChange() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private static ServerState stateOf(MinecraftServer minecraftServer) {
+        ServerState serverState = minecraftServer.getServerInfo().getServerState();
+        return serverState == null ? ServerState.OFFLINE : serverState;
+    }
+
+    private static <T> Map<String, T> index(Map<String, Map<String, T>> groups, String group) {
+        return groups.computeIfAbsent(groupKey(group), key -> new ConcurrentHashMap<>());
+    }
+
+    synchronized void addServer(MinecraftServer minecraftServer) {
+        MinecraftServer previous = servers.put(minecraftServer.getServerId(), minecraftServer);
+        if (previous != null) {
+            removeServerIndexes(previous);
+        }
+        index(serversByGroup, minecraftServer.getServiceId().getGroup()).put(minecraftServer.getServerId(), minecraftServer);
+        serversByState.get(stateOf(minecraftServer)).put(minecraftServer.getServerId(), minecraftServer);
+        fireChange();
+    }
+
+    synchronized void removeServer(MinecraftServer minecraftServer) {
+        if (servers.remove(minecraftServer.getServerId(), minecraftServer)) {
+            removeServerIndexes(minecraftServer);
+            fireChange();
+        }
+    }
+
+    private void removeServerIndexes(MinecraftServer minecraftServer) {
+        index(serversByGroup, minecraftServer.getServiceId().getGroup()).remove(minecraftServer.getServerId(), minecraftServer);
+        for (Map<String, MinecraftServer> state : serversByState.values()) {
+            state.remove(minecraftServer.getServerId(), minecraftServer);
+        }
+    }
+
+    synchronized void updateServerState(MinecraftServer minecraftServer) {
+        if (servers.get(minecraftServer.getServerId()) == minecraftServer) {
+            ServerState current = stateOf(minecraftServer);
+            for (Map.Entry<ServerState, Map<String, MinecraftServer>> state : serversByState.entrySet()) {
+                if (state.getKey() != current) {
+                    state.getValue().remove(minecraftServer.getServerId(), minecraftServer);
+                }
+            }
+            serversByState.get(current).put(minecraftServer.getServerId(), minecraftServer);
+        }
+    }
+
+    synchronized void addProxy(ProxyServer proxyServer) {
+        ProxyServer previous = proxies.put(proxyServer.getServerId(), proxyServer);
+        if (previous != null) {
+            index(proxiesByGroup, previous.getServiceId().getGroup()).remove(previous.getServerId(), previous);
+        }
+        index(proxiesByGroup, proxyServer.getServiceId().getGroup()).put(proxyServer.getServerId(), proxyServer);
+        fireChange();
+    }
+
+    synchronized void removeProxy(ProxyServer proxyServer) {
+        if (proxies.remove(proxyServer.getServerId(), proxyServer)) {
+            index(proxiesByGroup, proxyServer.getServiceId().getGroup()).remove(proxyServer.getServerId(), proxyServer);
+            fireChange();
+        }
+    }
+
+    synchronized void addWaitingService(WaitingService waitingService) {
+        String serverId = waitingService.getServiceId().getServerId();
+        WaitingService previous = waitingServices.put(serverId, waitingService);
+        if (previous != null) {
+            index(waitingServicesByGroup, previous.getServiceId().getGroup()).remove(serverId, previous);
+        }
+        index(waitingServicesByGroup, waitingService.getServiceId().getGroup()).put(serverId, waitingService);
+        fireChange();
+    }
+
+    synchronized void removeWaitingService(WaitingService waitingService) {
+        String serverId = waitingService.getServiceId().getServerId();
+        if (waitingServices.remove(serverId, waitingService)) {
+            index(waitingServicesByGroup, waitingService.getServiceId().getGroup()).remove(serverId, waitingService);
+            fireChange();
+        }
+    }
+
+    /**
+     * @return all registered game servers by their server id
+     */
+    public Map<String, MinecraftServer> getServers() {
+        return Collections.unmodifiableMap(servers);
+    }
+
+    /**
+     * @param group the name of the server group
+     *
+     * @return all registered game servers of the given group
+     */
+    public Collection<MinecraftServer> getServers(String group) {
+        Map<String, MinecraftServer> index = serversByGroup.get(groupKey(group));
+        return index == null ? Collections.emptyList() : Collections.unmodifiableCollection(index.values());
+    }
+
+    /**
+     * @param serverState the state of the game servers
+     *
+     * @return all registered game servers that last reported the given state
+     */
+    public Collection<MinecraftServer> getServers(ServerState serverState) {
+        return Collections.unmodifiableCollection(serversByState.get(serverState).values());
+    }
+
+    public MinecraftServer getServer(String serverId) {
+        return servers.get(serverId);
+    }
+
+    /**
+     * @return all registered proxy servers by their server id
+     */
+    public Map<String, ProxyServer> getProxies() {
+        return Collections.unmodifiableMap(proxies);
+    }
+
+    /**
+     * @param group the name of the proxy group
+     *
+     * @return all registered proxy servers of the given group
+     */
+    public Collection<ProxyServer> getProxies(String group) {
+        Map<String, ProxyServer> index = proxiesByGroup.get(groupKey(group));
+        return index == null ? Collections.emptyList() : Collections.unmodifiableCollection(index.values());
+    }
+
+    public ProxyServer getProxy(String serverId) {
+        return proxies.get(serverId);
+    }
+
+    /**
+     * @return all services that have been requested from a wrapper but have not been registered yet, by their server id
+     */
+    public Map<String, WaitingService> getWaitingServices() {
+        return Collections.unmodifiableMap(waitingServices);
+    }
+
+    /**
+     * @param group the name of the server or proxy group
+     *
+     * @return all waiting services of the given group
+     */
+    public Collection<WaitingService> getWaitingServices(String group) {
+        Map<String, WaitingService> index = waitingServicesByGroup.get(groupKey(group));
+        return index == null ? Collections.emptyList() : Collections.unmodifiableCollection(index.values());
+    }
+}
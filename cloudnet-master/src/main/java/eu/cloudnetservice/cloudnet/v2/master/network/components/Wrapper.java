@@ -46,6 +46,11 @@ public final class Wrapper implements INetworkComponent {
     private final Map<String, MinecraftServer> servers = new ConcurrentHashMap<>();
     // Group, ServiceId
     private final Map<String, WaitingService> waitingServices = new ConcurrentHashMap<>();
+    private final Map<String, ProxyServer> proxiesView = new WrapperServiceMap<>(proxies, this::addProxy, this::removeProxy);
+    private final Map<String, MinecraftServer> serversView = new WrapperServiceMap<>(servers, this::addServer, this::removeServer);
+    private final Map<String, WaitingService> waitingServicesView = new WrapperServiceMap<>(waitingServices,
+                                                                                            this::addWaitingService,
+                                                                                            this::removeWaitingService);
     private Channel channel;
     private WrapperInfo wrapperInfo;
     private final WrapperMeta networkInfo;
@@ -76,16 +81,78 @@ public final class Wrapper implements INetworkComponent {
         this.cpuUsage = cpuUsage;
     }
 
+    /**
+     * @return a live view of the game servers running on this wrapper, changes to it are applied
+     * through {@link #addServer(MinecraftServer)} and {@link #removeServer(String)}
+     */
     public Map<String, MinecraftServer> getServers() {
-        return servers;
+        return serversView;
     }
 
+    /**
+     * @return a live view of the proxy servers running on this wrapper, changes to it are applied
+     * through {@link #addProxy(ProxyServer)} and {@link #removeProxy(String)}
+     */
     public Map<String, ProxyServer> getProxies() {
-        return proxies;
+        return proxiesView;
     }
 
+    /**
+     * @return a live view of the services that have been requested from this wrapper, but have not been registered yet
+     */
     public Map<String, WaitingService> getWaitingServices() {
-        return waitingServices;
+        return waitingServicesView;
+    }
+
+    public void addServer(MinecraftServer minecraftServer) {
+        servers.put(minecraftServer.getServerId(), minecraftServer);
+        CloudNet.getInstance().getServiceRegistry().addServer(minecraftServer);
+        removeWaitingService(minecraftServer.getServerId());
+    }
+
+    public MinecraftServer removeServer(String serverId) {
+        MinecraftServer minecraftServer = servers.remove(serverId);
+        if (minecraftServer != null) {
+            CloudNet.getInstance().getServiceRegistry().removeServer(minecraftServer);
+            CloudNet.getInstance().getPriorityStopTimer().remove(serverId);
+        }
+        return minecraftServer;
+    }
+
+    public void addProxy(ProxyServer proxyServer) {
+        proxies.put(proxyServer.getServerId(), proxyServer);
+        CloudNet.getInstance().getServiceRegistry().addProxy(proxyServer);
+        removeWaitingService(proxyServer.getServerId());
+    }
+
+    public ProxyServer removeProxy(String serverId) {
+        ProxyServer proxyServer = proxies.remove(serverId);
+        if (proxyServer != null) {
+            CloudNet.getInstance().getServiceRegistry().removeProxy(proxyServer);
+        }
+        return proxyServer;
+    }
+
+    private void addWaitingService(WaitingService waitingService) {
+        waitingServices.put(waitingService.getServiceId().getServerId(), waitingService);
+        CloudNet.getInstance().getServiceRegistry().addWaitingService(waitingService);
+    }
+
+    private WaitingService removeWaitingService(String serverId) {
+        WaitingService waitingService = waitingServices.remove(serverId);
+        if (waitingService != null) {
+            CloudNet.getInstance().getServiceRegistry().removeWaitingService(waitingService);
+        }
+        return waitingService;
+    }
+
+    /**
+     * Removes all services of this wrapper, for example after it has lost its connection.
+     */
+    public void clearServices() {
+        waitingServices.keySet().forEach(this::removeWaitingService);
+        servers.keySet().forEach(this::removeServer);
+        proxies.keySet().forEach(this::removeProxy);
     }
 
     public void setReady(boolean ready) {
@@ -163,9 +230,7 @@ public final class Wrapper implements INetworkComponent {
             }
         }
 
-        waitingServices.clear();
-        servers.clear();
-        proxies.clear();
+        clearServices();
     }
 
     public Wrapper updateWrapper() {
@@ -243,22 +308,21 @@ public final class Wrapper implements INetworkComponent {
         sendPacket(new PacketOutStartProxy(proxyProcessMeta));
         System.out.println("Proxy [" + proxyProcessMeta.getServiceId() + "] is now in " + serverId + " queue.");
 
-        this.waitingServices.put(proxyProcessMeta.getServiceId().getServerId(),
-                                 new WaitingService(proxyProcessMeta.getPort(),
-                                                    proxyProcessMeta.getMemory(),
-                                                    proxyProcessMeta.getServiceId(),
-                                                    null));
+        this.addWaitingService(new WaitingService(proxyProcessMeta.getPort(),
+                                                  proxyProcessMeta.getMemory(),
+                                                  proxyProcessMeta.getServiceId(),
+                                                  null));
     }
 
     public void startGameServer(ServerProcessMeta serverProcessMeta) {
         sendPacket(new PacketOutStartServer(serverProcessMeta));
         System.out.println("Server [" + serverProcessMeta.getServiceId() + "] is now in " + serverId + " queue.");
 
-        this.waitingServices.put(serverProcessMeta.getServiceId().getServerId(),
-                                 new WaitingService(serverProcessMeta.getPort(),
-                                                    serverProcessMeta.getMemory(),
-                                                    serverProcessMeta.getServiceId(),
-                                                    serverProcessMeta.getTemplate()));
+        this.addWaitingService(new WaitingService(serverProcessMeta.getPort(),
+                                                  serverProcessMeta.getMemory(),
+                                                  serverProcessMeta.getServiceId(),
+                                                  serverProcessMeta.getTemplate()));
+        CloudNet.getInstance().getAutoScaler().recordStartRequest(serverProcessMeta.getServiceId());
     }
 
     public Wrapper stopServer(MinecraftServer minecraftServer) {
@@ -266,7 +330,7 @@ public final class Wrapper implements INetworkComponent {
             sendPacket(new PacketOutStopServer(minecraftServer.getServerInfo()));
         }
 
-        this.waitingServices.remove(minecraftServer.getServerId());
+        this.removeWaitingService(minecraftServer.getServerId());
         return this;
     }
 
@@ -275,7 +339,7 @@ public final class Wrapper implements INetworkComponent {
             sendPacket(new PacketOutStopProxy(proxyServer.getProxyInfo()));
         }
 
-        this.waitingServices.remove(proxyServer.getServerId());
+        this.removeWaitingService(proxyServer.getServerId());
         return this;
     }
 
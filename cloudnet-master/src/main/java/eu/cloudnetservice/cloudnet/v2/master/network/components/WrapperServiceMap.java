@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.network.components;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mutable view of the services of a {@link Wrapper}.
+ * Reads go to the services of the wrapper, changes are routed through the wrapper,
+ * so the {@link ServiceRegistry} stays in sync with maps modules change directly.
+ * Added services are stored under their own server id, the given key is ignored.
+ *
+ * @param <V> the type of the services
+ */
+final class WrapperServiceMap<V> extends AbstractMap<String, V> {
+
+    private final Map<String, V> services;
+    private final Consumer<V> add;
+    private final Function<String, V> remove;
+
+    WrapperServiceMap(Map<String, V> services, Consumer<V> add, Function<String, V> remove) {
+        this.services = services;
+        this.add = add;
+        this.remove = remove;
+    }
+
+    @Override
+    public V get(Object key) {
+        return services.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return services.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return services.size();
+    }
+
+    @Override
+    public V put(String key, V value) {
+        V previous = services.get(key);
+        add.accept(value);
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof String ? remove.apply((String) key) : null;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                Iterator<Entry<String, V>> iterator = services.entrySet().iterator();
+                return new Iterator<Entry<String, V>>() {
+                    private Entry<String, V> current;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        Entry<String, V> entry = iterator.next();
+                        current = new SimpleEntry<String, V>(entry) {
+                            @Override
+                            public V setValue(V value) {
+                                super.setValue(value);
+                                return WrapperServiceMap.this.put(getKey(), value);
+                            }
+                        };
+                        return current;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (current == null) {
+                            throw new IllegalStateException();
+                        }
+                        WrapperServiceMap.this.remove(current.getKey());
+                        current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return services.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.network.components.priority;
+
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TimingWheel;
+import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
+import eu.cloudnetservice.cloudnet.v2.master.network.components.MinecraftServer;
+import eu.cloudnetservice.cloudnet.v2.master.scaling.ScalingDecision;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Automatically stops {@link MinecraftServer} instances based on their priority service configuration.
+ * <p>
+ * Every priority stop server without players has a timer in a single timing wheel, which is set when the server becomes
+ * empty and cancelled when a player joins it. A server is stopped when its timer expires.
+ */
+public final class PriorityStopTimer {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(WHEEL_SIZE, this::expire);
+
+    /**
+     * Starts ticking the timers once per second.
+     */
+    public void start() {
+        TaskScheduler.scheduleWithFixedDelay("PriorityStop", wheel::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts tracking a newly added server, if it should be stopped when idle.
+     *
+     * @param minecraftServer the added server
+     */
+    public void add(MinecraftServer minecraftServer) {
+        if (minecraftServer.getProcessMeta().isPriorityStop() && minecraftServer.getServerInfo().getOnlineCount() == 0) {
+            wheel.schedule(minecraftServer.getServerId(), stopTime(minecraftServer));
+        }
+    }
+
+    /**
+     * Sets or cancels the timer of a server after its online count changed.
+     *
+     * @param minecraftServer the updated server
+     * @param oldOnlineCount  the online count before the update
+     */
+    public void update(MinecraftServer minecraftServer, int oldOnlineCount) {
+        if (!minecraftServer.getProcessMeta().isPriorityStop()) {
+            return;
+        }
+
+        int onlineCount = minecraftServer.getServerInfo().getOnlineCount();
+        if (onlineCount == 0 && oldOnlineCount != 0) {
+            wheel.schedule(minecraftServer.getServerId(), stopTime(minecraftServer));
+        } else if (onlineCount != 0) {
+            wheel.cancel(minecraftServer.getServerId());
+        }
+    }
+
+    /**
+     * Stops tracking a removed server.
+     *
+     * @param serverId the id of the removed server
+     */
+    public void remove(String serverId) {
+        wheel.cancel(serverId);
+    }
+
+    private static long stopTime(MinecraftServer minecraftServer) {
+        return Math.max(1, minecraftServer.getGroup().getPriorityService().getStopTimeInSeconds());
+    }
+
+    private void expire(String serverId) {
+        MinecraftServer minecraftServer = CloudNet.getInstance().getServer(serverId);
+        if (minecraftServer == null || minecraftServer.getServerInfo().getOnlineCount() != 0) {
+            return;
+        }
+
+        CloudNet.getInstance().getAutoScaler().recordDecision(new ScalingDecision(
+            minecraftServer.getServiceId().getGroup(), ScalingDecision.Action.STOP, 1,
+            serverId + " had no players for " + stopTime(minecraftServer) + " seconds"));
+        minecraftServer.getWrapper().stopServer(minecraftServer);
+    }
+}
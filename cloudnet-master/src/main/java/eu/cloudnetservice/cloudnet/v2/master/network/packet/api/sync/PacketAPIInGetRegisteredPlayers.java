@@ -19,17 +19,24 @@ package eu.cloudnetservice.cloudnet.v2.master.network.packet.api.sync;
 
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
+import eu.cloudnetservice.cloudnet.v2.lib.player.OfflinePlayer;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 public final class PacketAPIInGetRegisteredPlayers implements PacketAPIIO {
 
     public void handleInput(Packet packet, PacketSender packetSender) {
-        packetSender.sendPacket(getResult(packet,
-                                          new Document("players",
-                                                       CloudNet.getInstance().getDbHandlers()
-                                                               .getPlayerDatabase()
-                                                               .getRegisteredPlayers())));
+        // Players are sent one page at a time, the continuation of the previous page selects the next one
+        Map<UUID, OfflinePlayer> players = new HashMap<>();
+        String continuation = CloudNet.getInstance().getDbHandlers()
+                                      .getPlayerDatabase()
+                                      .readPlayerPage(packet.getData().getString("after"),
+                                                      offlinePlayer -> players.put(offlinePlayer.getUniqueId(), offlinePlayer));
+        packetSender.sendPacket(getResult(packet, new Document("players", players).append("continuation", continuation)));
     }
 
     public Packet getResult(Packet packet, Document value) {
@@ -17,7 +17,10 @@
 
 package eu.cloudnetservice.cloudnet.v2.master.network.packet.dbsync;
 
+import eu.cloudnetservice.cloudnet.v2.lib.database.Database;
 import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseDocument;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabasePage;
+import eu.cloudnetservice.cloudnet.v2.lib.database.DatabaseQuery;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketRC;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
@@ -25,17 +28,24 @@ import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.api.sync.PacketAPIIO;
 
+import java.util.HashMap;
 import java.util.Map;
 
 public class PacketDBInGetDocument implements PacketAPIIO {
 
     public void handleInput(Packet packet, PacketSender packetSender) {
         if (!packet.getData().contains("name")) {
-            Map<String, DatabaseDocument> docs = CloudNet.getInstance()
-                                                         .getDatabaseManager()
-                                                         .getDatabase(packet.getData().getString("db"))
-                                                         .loadDocuments().getDocuments();
-            packetSender.sendPacket(getResult(packet, new Document("docs", docs)));
+            // Documents are sent one page at a time, so large databases neither exceed the frame size nor the memory
+            DatabasePage page = CloudNet.getInstance()
+                                        .getDatabaseManager()
+                                        .getDatabase(packet.getData().getString("db"))
+                                        .query(new DatabaseQuery().pageSize(DatabaseQuery.MAX_PAGE_SIZE)
+                                                                  .after(packet.getData().getString("after")));
+            Map<String, DatabaseDocument> docs = new HashMap<>();
+            for (DatabaseDocument document : page.getDocuments()) {
+                docs.put(document.getString(Database.UNIQUE_NAME_KEY), document);
+            }
+            packetSender.sendPacket(getResult(packet, new Document("docs", docs).append("continuation", page.getContinuation())));
         } else {
             String name = packet.getData().getString("name");
             String db = packet.getData().getString("db");
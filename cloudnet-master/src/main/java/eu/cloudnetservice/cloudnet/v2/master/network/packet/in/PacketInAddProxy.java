@@ -36,8 +36,13 @@ public final class PacketInAddProxy implements PacketInHandler {
         ProxyInfo nullServerInfo = packet.getData().getObject("proxyInfo", ProxyInfo.TYPE);
         ProxyProcessMeta proxyProcessMeta = packet.getData().getObject("proxyProcess", ProxyProcessMeta.TYPE);
         ProxyServer proxyServer = new ProxyServer(proxyProcessMeta, wrapper, nullServerInfo);
-        wrapper.getProxies().put(proxyProcessMeta.getServiceId().getServerId(), proxyServer);
-        wrapper.getWaitingServices().remove(proxyServer.getServerId());
+        if (packet.getData().contains("timings")) {
+            CloudNet.getLogger().fine(String.format("Proxy %s was prepared by wrapper %s: %s",
+                                                    proxyProcessMeta.getServiceId(),
+                                                    wrapper.getServerId(),
+                                                    packet.getData().getDocument("timings").convertToJsonString()));
+        }
+        wrapper.addProxy(proxyServer);
 
         CloudNet.getInstance().getNetworkManager().handleProxyAdd(proxyServer);
     }
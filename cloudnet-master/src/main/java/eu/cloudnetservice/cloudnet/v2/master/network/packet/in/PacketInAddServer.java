@@ -25,10 +25,6 @@ import eu.cloudnetservice.cloudnet.v2.lib.server.info.ServerInfo;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.MinecraftServer;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.Wrapper;
-import eu.cloudnetservice.cloudnet.v2.master.network.components.priority.PriorityStopTask;
-
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 public class PacketInAddServer implements PacketInHandler {
 
@@ -46,15 +42,14 @@ public class PacketInAddServer implements PacketInHandler {
                                                                       .getServerGroups()
                                                                       .get(serverInfo.getServiceId().getGroup()),
                                                               serverInfo);
-        wrapper.getServers().put(serverInfo.getServiceId().getServerId(), minecraftServer);
-        wrapper.getWaitingServices().remove(minecraftServer.getServerId());
-
-        if (serverProcessMeta.isPriorityStop()) {
-            final PriorityStopTask stopTask = new PriorityStopTask(minecraftServer,
-                                                                   minecraftServer.getGroup().getPriorityService().getStopTimeInSeconds());
-            Future<?> future = CloudNet.getExecutor().schedule(stopTask, 1, TimeUnit.SECONDS);
-            stopTask.setFuture(future);
+        if (packet.getData().contains("timings")) {
+            CloudNet.getLogger().fine(String.format("Server %s was prepared by wrapper %s: %s",
+                                                    serverInfo.getServiceId(),
+                                                    wrapper.getServerId(),
+                                                    packet.getData().getDocument("timings").convertToJsonString()));
         }
+        wrapper.addServer(minecraftServer);
+        CloudNet.getInstance().getPriorityStopTimer().add(minecraftServer);
 
         CloudNet.getInstance().getNetworkManager().handleServerAdd(minecraftServer);
     }
@@ -17,10 +17,15 @@
 
 package eu.cloudnetservice.cloudnet.v2.master.network.packet.in;
 
+import eu.cloudnetservice.cloudnet.v2.lib.CloudNetworkPatch;
+import eu.cloudnetservice.cloudnet.v2.lib.network.FlushBatchingHandler;
 import eu.cloudnetservice.cloudnet.v2.lib.network.auth.Auth;
 import eu.cloudnetservice.cloudnet.v2.lib.network.auth.AuthLoginResult;
 import eu.cloudnetservice.cloudnet.v2.lib.network.auth.AuthType;
 import eu.cloudnetservice.cloudnet.v2.lib.network.auth.packetio.PacketOutAuthResult;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.ProtocolProvider;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.codec.ProtocolCompression;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.BinaryPacketProtocol;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketInHandler;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
@@ -35,14 +40,29 @@ import eu.cloudnetservice.cloudnet.v2.master.network.components.Wrapper;
 import eu.cloudnetservice.cloudnet.v2.master.network.packet.out.PacketOutConsoleSettings;
 import io.netty.channel.Channel;
 
+import java.util.Arrays;
+
 public final class PacketInAuthHandler implements PacketInHandler {
 
     public void handleInput(Packet packet, PacketSender packetSender) {
         Auth auth = packet.getData().getObject("auth", Auth.TYPE);
-        handleAuth(auth.getType(), auth.getAuthData(), packetSender);
+        handleAuth(auth.getType(), auth.getAuthData(), packet.getData(), packetSender);
     }
 
     public static void handleAuth(AuthType authType, Document authData, PacketSender packetSender) {
+        handleAuth(authType, authData, new Document(), packetSender);
+    }
+
+    /**
+     * Handles the authentication of a new connection and switches the channel to the binary packet protocol
+     * and frame compression once it is authenticated, if the connecting side supports them.
+     *
+     * @param authType     the type of the authentication
+     * @param authData     the data to authenticate with
+     * @param capabilities the packet protocols, compression algorithms and other features the connecting side supports
+     * @param packetSender the connection to authenticate
+     */
+    public static void handleAuth(AuthType authType, Document authData, Document capabilities, PacketSender packetSender) {
         if (!(packetSender instanceof CloudNetClientAuth)) {
             return;
         }
@@ -58,23 +78,24 @@ public final class PacketInAuthHandler implements PacketInHandler {
                     if (wrapperKey != null && wrapper.getChannel() == null && wrapperKey.equals(key)) {
                         Channel channel = client.getChannel();
                         channel.pipeline().remove("client");
-                        client.getChannel().writeAndFlush(new PacketOutAuthResult(new AuthLoginResult(true))).syncUninterruptibly();
-                        client.getChannel().writeAndFlush(new PacketOutConsoleSettings(new Document()
-                                                                                           .append("console",
-                                                                                                   new Document()
-                                                                                                       .append("aliases", CloudNet.getInstance().getConfig().isAliases())
-                                                                                                       .append("showdescription", CloudNet.getInstance().getConfig().isShowDescription())
-                                                                                                       .append("showgroup", CloudNet.getInstance().getConfig().isShowGroup())
-                                                                                                       .append("elof", CloudNet.getInstance().getConfig().isElof())
-                                                                                                       .append("showmenu", CloudNet.getInstance().getConfig().isShowMenu())
-                                                                                                       .append("autolist", CloudNet.getInstance().getConfig().isAutoList())
-                                                                                                       .append("groupcolor", CloudNet.getInstance().getConfig().getGroupColor())
-                                                                                                       .append("color", CloudNet.getInstance().getConfig().getColor())
-                                                                                           ))).syncUninterruptibly();
+                        FlushBatchingHandler.writeAndFlushNow(client.getChannel(), new PacketOutAuthResult(new AuthLoginResult(true))).syncUninterruptibly();
+                        FlushBatchingHandler.writeAndFlushNow(client.getChannel(), new PacketOutConsoleSettings(new Document()
+                                                                                                                    .append("console",
+                                                                                                                            new Document()
+                                                                                                                                .append("aliases", CloudNet.getInstance().getConfig().isAliases())
+                                                                                                                                .append("showdescription", CloudNet.getInstance().getConfig().isShowDescription())
+                                                                                                                                .append("showgroup", CloudNet.getInstance().getConfig().isShowGroup())
+                                                                                                                                .append("elof", CloudNet.getInstance().getConfig().isElof())
+                                                                                                                                .append("showmenu", CloudNet.getInstance().getConfig().isShowMenu())
+                                                                                                                                .append("autolist", CloudNet.getInstance().getConfig().isAutoList())
+                                                                                                                                .append("groupcolor", CloudNet.getInstance().getConfig().getGroupColor())
+                                                                                                                                .append("color", CloudNet.getInstance().getConfig().getColor())
+                                                                                                                    ))).syncUninterruptibly();
+                        negotiateProtocol(channel, capabilities);
                         channel.pipeline().addLast(new CloudNetClient(wrapper, channel));
                         return;
                     } else {
-                        client.getChannel().writeAndFlush(new PacketOutAuthResult(new AuthLoginResult(false))).syncUninterruptibly();
+                        FlushBatchingHandler.writeAndFlushNow(client.getChannel(), new PacketOutAuthResult(new AuthLoginResult(false))).syncUninterruptibly();
                         if (wrapperKey != null) {
                             CloudNet.getLogger().info(
                                 "Authentication failed [Invalid WrapperKey or Wrapper is already connected!]");
@@ -84,7 +105,7 @@ public final class PacketInAuthHandler implements PacketInHandler {
                         }
                     }
                 } else {
-                    client.getChannel().writeAndFlush(new PacketOutAuthResult(new AuthLoginResult(false))).syncUninterruptibly();
+                    FlushBatchingHandler.writeAndFlushNow(client.getChannel(), new PacketOutAuthResult(new AuthLoginResult(false))).syncUninterruptibly();
                     client.getChannel().close().syncUninterruptibly();
                 }
             }
@@ -99,6 +120,8 @@ public final class PacketInAuthHandler implements PacketInHandler {
                             serviceId.getUniqueId())) {
                             Channel channel = client.getChannel();
                             channel.pipeline().remove("client");
+                            negotiateProtocol(channel, capabilities);
+                            negotiateNetworkPatches(channel, capabilities);
                             channel.pipeline().addLast(new CloudNetClient(minecraftServer, channel));
                         }
                     } else if (wrapper.getProxies().containsKey(serviceId.getServerId())) {
@@ -107,6 +130,8 @@ public final class PacketInAuthHandler implements PacketInHandler {
                             serviceId.getUniqueId())) {
                             Channel channel = client.getChannel();
                             channel.pipeline().remove("client");
+                            negotiateProtocol(channel, capabilities);
+                            negotiateNetworkPatches(channel, capabilities);
                             channel.pipeline().addLast(new CloudNetClient(proxyServer, channel));
                         }
                     } else {
@@ -118,4 +143,23 @@ public final class PacketInAuthHandler implements PacketInHandler {
             }
         }
     }
+
+    private static void negotiateProtocol(Channel channel, Document capabilities) {
+        int[] protocols = capabilities.getObject("protocols", int[].class);
+        if (protocols != null && Arrays.stream(protocols).anyMatch(id -> id == BinaryPacketProtocol.ID)) {
+            ProtocolProvider.negotiatePacketProtocol(channel, ProtocolProvider.getProtocol(BinaryPacketProtocol.ID));
+        }
+
+        String[] compression = capabilities.getObject("compression", String[].class);
+        if (ProtocolCompression.isEnabled() && compression != null &&
+            Arrays.asList(compression).contains(ProtocolCompression.ALGORITHM)) {
+            ProtocolCompression.negotiate(channel);
+        }
+    }
+
+    private static void negotiateNetworkPatches(Channel channel, Document capabilities) {
+        if (capabilities.getBoolean(CloudNetworkPatch.CAPABILITY)) {
+            channel.attr(CloudNetworkPatch.PATCHES).set(true);
+        }
+    }
 }
@@ -41,7 +41,7 @@ public final class PacketInRemoveProxy implements PacketInHandler {
                 minecraftServer.getChannel().close();
             }
 
-            wrapper.getProxies().remove(proxyInfo.getServiceId().getServerId());
+            wrapper.removeProxy(proxyInfo.getServiceId().getServerId());
             CloudNet.getInstance().getNetworkManager().handleProxyRemove(minecraftServer);
             CloudNet.getInstance().getScreenProvider().handleDisableScreen(proxyInfo.getServiceId());
         }
@@ -41,7 +41,7 @@ public class PacketInRemoveServer implements PacketInHandler {
                 minecraftServer.getChannel().close();
             }
 
-            wrapper.getServers().remove(serverInfo.getServiceId().getServerId());
+            wrapper.removeServer(serverInfo.getServiceId().getServerId());
             CloudNet.getInstance().getNetworkManager().handleServerRemove(minecraftServer);
             CloudNet.getInstance().getScreenProvider().handleDisableScreen(serverInfo.getServiceId());
         }
@@ -22,6 +22,7 @@ import eu.cloudnetservice.cloudnet.v2.lib.network.WrapperInfo;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketInHandler;
 import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
+import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
 import eu.cloudnetservice.cloudnet.v2.master.network.components.Wrapper;
 
 public final class PacketInUpdateWrapperInfo implements PacketInHandler {
@@ -53,5 +54,6 @@ public final class PacketInUpdateWrapperInfo implements PacketInHandler {
                                        "/Wrapper:" + wrapperInfo.getVersion() + "], please update");
             }
         }
+        CloudNet.getInstance().getAutoScaler().requestEvaluation();
     }
 }
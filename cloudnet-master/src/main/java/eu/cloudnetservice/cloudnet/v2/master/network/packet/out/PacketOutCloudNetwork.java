@@ -27,4 +27,9 @@ public class PacketOutCloudNetwork extends Packet {
     public PacketOutCloudNetwork(CloudNetwork cloudNetwork) {
         super(PacketRC.SERVER_HANDLE + 1, new Document("cloudnetwork", cloudNetwork));
     }
+
+    public PacketOutCloudNetwork(CloudNetwork cloudNetwork, long epoch, long version) {
+        super(PacketRC.SERVER_HANDLE + 1, new Document("cloudnetwork", cloudNetwork).append("epoch", epoch)
+                                                                                     .append("version", version));
+    }
 }
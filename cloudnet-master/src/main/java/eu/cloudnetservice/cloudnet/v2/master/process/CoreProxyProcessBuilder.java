@@ -110,6 +110,7 @@ public class CoreProxyProcessBuilder extends ProxyProcessBuilder {
                     if (wrapperInstance.getMaxMemory() > futureMemory &&
                         freeMemory > highestFreeMemory) {
                         wrapper = wrapperInstance;
+                        highestFreeMemory = freeMemory;
                     }
                 }
             }
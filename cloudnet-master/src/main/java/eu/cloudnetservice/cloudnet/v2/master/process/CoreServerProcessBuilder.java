@@ -127,6 +127,7 @@ public class CoreServerProcessBuilder extends ServerProcessBuilder {
                     if (wrapperInstance.getMaxMemory() > futureMemory &&
                         freeMemory > highestFreeMemory) {
                         wrapper = wrapperInstance;
+                        highestFreeMemory = freeMemory;
                     }
                 }
             }
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.scaling;
+
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
+import eu.cloudnetservice.cloudnet.v2.lib.server.ProxyGroup;
+import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroup;
+import eu.cloudnetservice.cloudnet.v2.lib.server.ServerGroupMode;
+import eu.cloudnetservice.cloudnet.v2.lib.server.priority.PriorityConfig;
+import eu.cloudnetservice.cloudnet.v2.lib.service.ServiceId;
+import eu.cloudnetservice.cloudnet.v2.master.CloudConfig;
+import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
+import eu.cloudnetservice.cloudnet.v2.master.process.CoreProxyProcessBuilder;
+import eu.cloudnetservice.cloudnet.v2.master.process.CoreServerProcessBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts servers and proxies for all groups that have less services than they need.
+ * <p>
+ * An evaluation is requested whenever services or waiting services are added or removed, the player count changes
+ * or a wrapper becomes ready. Requests are coalesced, so a burst of changes results in a single evaluation.
+ * Each evaluation computes the full deficit of every group and starts all missing services at once, the process builders
+ * spread them across the wrappers with the most free memory. A slow periodic evaluation catches changes without an event,
+ * like changed group configurations.
+ * <p>
+ * Every start, stop and failed start is recorded with its reason, see {@link #getDecisions()}.
+ * <p>
+ * With predictive scaling enabled, the player join rate of the network and of every group is tracked as an
+ * exponentially weighted average, as well as the time servers of every group take from their start request until they
+ * are connected. Priority groups are then scaled for the players expected to join while a new server boots,
+ * instead of only the players that are already online.
+ */
+public final class AutoScaler {
+
+    private static final long EVALUATION_DELAY_MILLIS = 100;
+    private static final long EVALUATION_INTERVAL_SECONDS = 10;
+    private static final int MAX_DECISIONS = 100;
+    private static final long SAMPLE_INTERVAL_SECONDS = 1;
+    private static final long MAX_BOOT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final CloudNet cloudNet;
+    private final AtomicBoolean evaluationRequested = new AtomicBoolean();
+    private final Deque<ScalingDecision> decisions = new ArrayDeque<>();
+    private final Map<String, String> lastFailures = new ConcurrentHashMap<>();
+    private final Map<String, GroupLoad> groupLoads = new ConcurrentHashMap<>();
+    private final GroupLoad networkLoad = new GroupLoad();
+    private final Map<ServiceId, Long> pendingBoots = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public AutoScaler(CloudNet cloudNet) {
+        this.cloudNet = cloudNet;
+    }
+
+    /**
+     * Starts listening for changes and schedules the periodic evaluation.
+     */
+    public void start() {
+        running = true;
+        cloudNet.getServiceRegistry().addListener(this::requestEvaluation);
+        TaskScheduler.scheduleWithFixedDelay("AutoScaler", this::evaluate, 0, EVALUATION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        TaskScheduler.scheduleWithFixedDelay("AutoScaler-Load",
+                                             this::sampleLoad,
+                                             SAMPLE_INTERVAL_SECONDS,
+                                             SAMPLE_INTERVAL_SECONDS,
+                                             TimeUnit.SECONDS);
+    }
+
+    /**
+     * Records a player that has logged in to the network.
+     */
+    public void recordLogin() {
+        networkLoad.recordJoin();
+    }
+
+    /**
+     * Records a player that has joined a server of the given group.
+     *
+     * @param group the name of the group
+     */
+    public void recordJoin(String group) {
+        groupLoad(group).recordJoin();
+    }
+
+    /**
+     * Records that the start of a service has been requested, to measure its boot time.
+     *
+     * @param serviceId the id of the service
+     */
+    public void recordStartRequest(ServiceId serviceId) {
+        pendingBoots.put(serviceId, System.currentTimeMillis());
+    }
+
+    /**
+     * Records that a service has connected to the master, completing its boot.
+     *
+     * @param serviceId the id of the service
+     */
+    public void recordConnected(ServiceId serviceId) {
+        Long requested = pendingBoots.remove(serviceId);
+        if (requested != null) {
+            groupLoad(serviceId.getGroup()).recordBootTime(System.currentTimeMillis() - requested);
+        }
+    }
+
+    private GroupLoad groupLoad(String group) {
+        return groupLoads.computeIfAbsent(group.toLowerCase(Locale.ROOT), key -> new GroupLoad());
+    }
+
+    private void sampleLoad() {
+        double weight = 1.0D - Math.exp(-SAMPLE_INTERVAL_SECONDS / (double) Math.max(1, cloudNet.getConfig().getPredictiveScalingWindow()));
+        networkLoad.sample(SAMPLE_INTERVAL_SECONDS, weight);
+        for (GroupLoad groupLoad : groupLoads.values()) {
+            groupLoad.sample(SAMPLE_INTERVAL_SECONDS, weight);
+        }
+
+        // services that never connected must not be counted as a boot later on
+        long expired = System.currentTimeMillis() - MAX_BOOT_MILLIS;
+        pendingBoots.values().removeIf(requested -> requested < expired);
+    }
+
+    /**
+     * Requests an evaluation of all groups shortly.
+     * Does nothing if an evaluation has already been requested or the auto scaler has not been started.
+     */
+    public void requestEvaluation() {
+        if (running && evaluationRequested.compareAndSet(false, true)) {
+            CloudNet.getExecutor().schedule(() -> {
+                evaluationRequested.set(false);
+                try {
+                    evaluate();
+                } catch (Exception exception) {
+                    exception.printStackTrace();
+                }
+            }, EVALUATION_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts the missing services of all server and proxy groups.
+     */
+    public synchronized void evaluate() {
+        for (ServerGroup serverGroup : cloudNet.getServerGroups().values()) {
+            scaleServerGroup(serverGroup);
+        }
+
+        for (ProxyGroup proxyGroup : cloudNet.getProxyGroups().values()) {
+            scaleProxyGroup(proxyGroup);
+        }
+    }
+
+    private void scaleServerGroup(ServerGroup serverGroup) {
+        int target = serverGroup.getMinOnlineServers();
+        String reason = "minimum of " + target + " online servers";
+
+        if (serverGroup.getGroupMode() != ServerGroupMode.STATIC && !serverGroup.isMaintenance()) {
+            int onlineCount = cloudNet.getNetworkManager().getOnlineCount();
+            int globalTarget = priorityTarget(serverGroup.getPriorityService().getGlobal(), onlineCount);
+            if (globalTarget > target) {
+                target = globalTarget;
+                reason = "global priority for " + onlineCount + " players";
+            }
+
+            int groupOnlineCount = cloudNet.getOnlineCount(serverGroup.getName());
+            int groupTarget = priorityTarget(serverGroup.getPriorityService().getGroup(), groupOnlineCount);
+            if (groupTarget > target) {
+                target = groupTarget;
+                reason = "group priority for " + groupOnlineCount + " players";
+            }
+
+            CloudConfig config = cloudNet.getConfig();
+            if (config.isPredictiveScaling()) {
+                GroupLoad groupLoad = groupLoad(serverGroup.getName());
+                double bootSeconds = groupLoad.getBootSeconds(config.getPredictiveScalingBootTime());
+
+                int networkJoins = (int) Math.ceil(networkLoad.getJoinRate() * bootSeconds);
+                int predictedGlobalTarget = priorityTarget(serverGroup.getPriorityService().getGlobal(), onlineCount + networkJoins);
+                if (networkJoins > 0 && predictedGlobalTarget > target) {
+                    target = predictedGlobalTarget;
+                    reason = String.format("global priority for %d players and %d predicted joins within %.1fs boot time",
+                                           onlineCount, networkJoins, bootSeconds);
+                }
+
+                int groupJoins = (int) Math.ceil(groupLoad.getJoinRate() * bootSeconds);
+                int predictedGroupTarget = priorityTarget(serverGroup.getPriorityService().getGroup(), groupOnlineCount + groupJoins);
+                if (groupJoins > 0 && predictedGroupTarget > target) {
+                    target = predictedGroupTarget;
+                    reason = String.format("group priority for %d players and %d predicted joins within %.1fs boot time",
+                                           groupOnlineCount, groupJoins, bootSeconds);
+                }
+            }
+        }
+
+        if (serverGroup.getMaxOnlineServers() > 0) {
+            target = Math.min(target, serverGroup.getMaxOnlineServers());
+        }
+
+        int current = cloudNet.getServersAndWaitings(serverGroup.getName()).size();
+        int started = 0;
+        String failure = null;
+        while (current + started < target) {
+            failure = failure(CoreServerProcessBuilder.create(serverGroup.getName()).startServer());
+            if (failure != null) {
+                break;
+            }
+            started++;
+        }
+
+        record(serverGroup.getName(), started, failure, reason + ", " + current + " online or starting");
+    }
+
+    private void scaleProxyGroup(ProxyGroup proxyGroup) {
+        int target = proxyGroup.getStartup();
+        int current = cloudNet.getProxysAndWaitings(proxyGroup.getName()).size();
+        int started = 0;
+        String failure = null;
+        while (current + started < target) {
+            failure = failure(CoreProxyProcessBuilder.create(proxyGroup.getName()).startProxy());
+            if (failure != null) {
+                break;
+            }
+            started++;
+        }
+
+        record(proxyGroup.getName(), started, failure, "startup of " + target + " proxies, " + current + " online or starting");
+    }
+
+    private static int priorityTarget(PriorityConfig priorityConfig, int onlineCount) {
+        if (priorityConfig.getOnlineServers() == 0 || priorityConfig.getOnlineCount() == 0) {
+            return 0;
+        }
+
+        double servers = priorityConfig.getOnlineServers() / (double) priorityConfig.getOnlineCount() *
+            (onlineCount == 0 ? 1.0D : onlineCount);
+        return (int) Math.max(1, Math.ceil(servers));
+    }
+
+    /**
+     * @return the message of the exception the start failed with, or null if the start has been requested
+     */
+    private static String failure(CompletableFuture<?> future) {
+        if (!future.isCompletedExceptionally()) {
+            return null;
+        }
+
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause() == null ? exception : exception.getCause();
+            return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        }
+    }
+
+    private void record(String group, int started, String failure, String reason) {
+        if (started > 0) {
+            recordDecision(new ScalingDecision(group, ScalingDecision.Action.START, started, reason));
+        }
+
+        if (failure == null) {
+            lastFailures.remove(group);
+        } else if (!failure.equals(lastFailures.put(group, failure))) {
+            // a failure is only recorded once until the group could be scaled again
+            recordDecision(new ScalingDecision(group, ScalingDecision.Action.FAILED, 1, reason + ", " + failure));
+        }
+    }
+
+    /**
+     * Records a decision in the decision log.
+     *
+     * @param decision the decision to record
+     */
+    public void recordDecision(ScalingDecision decision) {
+        synchronized (decisions) {
+            decisions.addLast(decision);
+            while (decisions.size() > MAX_DECISIONS) {
+                decisions.removeFirst();
+            }
+        }
+        CloudNet.getLogger().info("[AutoScaler] " + decision);
+    }
+
+    /**
+     * @return the last recorded decisions, oldest first
+     */
+    public List<ScalingDecision> getDecisions() {
+        synchronized (decisions) {
+            return new ArrayList<>(decisions);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.scaling;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exponentially weighted averages of the player join rate and the boot time of one group.
+ */
+final class GroupLoad {
+
+    private static final double BOOT_TIME_WEIGHT = 0.3D;
+
+    private final LongAdder joins = new LongAdder();
+    private volatile double joinRate;
+    private volatile double bootSeconds = Double.NaN;
+
+    void recordJoin() {
+        joins.increment();
+    }
+
+    /**
+     * Folds the joins since the last sample into the join rate.
+     *
+     * @param intervalSeconds the time since the last sample
+     * @param weight          the weight of the new sample, between 0 and 1
+     */
+    void sample(double intervalSeconds, double weight) {
+        double rate = joins.sumThenReset() / intervalSeconds;
+        joinRate += weight * (rate - joinRate);
+    }
+
+    synchronized void recordBootTime(long millis) {
+        double seconds = millis / 1000.0D;
+        bootSeconds = Double.isNaN(bootSeconds) ? seconds : bootSeconds + BOOT_TIME_WEIGHT * (seconds - bootSeconds);
+    }
+
+    /**
+     * @return the average joins per second
+     */
+    double getJoinRate() {
+        return joinRate;
+    }
+
+    /**
+     * @param fallback the boot time to use if no boot has been measured yet
+     *
+     * @return the average boot time in seconds
+     */
+    double getBootSeconds(double fallback) {
+        double seconds = bootSeconds;
+        return Double.isNaN(seconds) ? fallback : seconds;
+    }
+}
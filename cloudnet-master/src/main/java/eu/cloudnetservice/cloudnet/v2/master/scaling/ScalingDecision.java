@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.scaling;
+
+/**
+ * A single start or stop decision of the {@link AutoScaler}.
+ */
+public final class ScalingDecision {
+
+    private final long timestamp;
+    private final String group;
+    private final Action action;
+    private final int amount;
+    private final String reason;
+
+    public ScalingDecision(String group, Action action, int amount, String reason) {
+        this.timestamp = System.currentTimeMillis();
+        this.group = group;
+        this.action = action;
+        this.amount = amount;
+        this.reason = reason;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + amount + "x " + group + ": " + reason;
+    }
+
+    public enum Action {
+        START,
+        STOP,
+        FAILED
+    }
+}
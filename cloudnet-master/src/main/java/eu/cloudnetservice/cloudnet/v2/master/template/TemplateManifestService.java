@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.template;
+
+import eu.cloudnetservice.cloudnet.v2.lib.server.template.TemplateManifest;
+import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
+import eu.cloudnetservice.cloudnet.v2.master.network.components.Wrapper;
+import eu.cloudnetservice.cloudnet.v2.master.network.packet.out.PacketOutTemplateUpdate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the manifests of the templates in {@code local/templates}, so wrappers only have to download changed files.
+ * Checksums are cached per file and only recomputed when the size or modification time of a file changes.
+ */
+public final class TemplateManifestService {
+
+    private static final Path TEMPLATES = Paths.get("local", "templates").toAbsolutePath().normalize();
+
+    private final Map<Path, HashedFile> hashes = new ConcurrentHashMap<>();
+    private final Map<Path, TemplateManifest> manifests = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves the directory of a template, making sure it does not escape the template directory.
+     *
+     * @param group    the name of the group
+     * @param template the name of the template
+     *
+     * @return the directory of the template or {@code null}, if the names are invalid
+     */
+    public static Path resolveTemplate(String group, String template) {
+        Path directory = TEMPLATES.resolve(group).resolve(template).normalize();
+        return directory.getParent().getParent().equals(TEMPLATES) ? directory : null;
+    }
+
+    /**
+     * @param group    the name of the group
+     * @param template the name of the template
+     *
+     * @return the current manifest of the template or {@code null}, if the template does not exist
+     *
+     * @throws IOException if the template could not be read
+     */
+    public TemplateManifest getManifest(String group, String template) throws IOException {
+        Path directory = resolveTemplate(group, template);
+        if (directory == null || !Files.isDirectory(directory)) {
+            return null;
+        }
+        TemplateManifest manifest = TemplateManifest.create(directory, this::hash);
+        manifests.put(directory, manifest);
+        return manifest;
+    }
+
+    /**
+     * Finds a file of a template by its checksum.
+     *
+     * @param group    the name of the group
+     * @param template the name of the template
+     * @param sha256   the checksum of the file
+     *
+     * @return the file with the given checksum or {@code null}, if the template contains no such file
+     *
+     * @throws IOException if the template could not be read
+     */
+    public Path getBlob(String group, String template, String sha256) throws IOException {
+        Path directory = resolveTemplate(group, template);
+        if (directory == null) {
+            return null;
+        }
+
+        // Wrappers fetch blobs right after the manifest, so the last manifest is usually still valid
+        TemplateManifest manifest = manifests.get(directory);
+        Path blob = findBlob(directory, manifest, sha256);
+        if (blob == null) {
+            blob = findBlob(directory, getManifest(group, template), sha256);
+        }
+        return blob;
+    }
+
+    private Path findBlob(Path directory, TemplateManifest manifest, String sha256) throws IOException {
+        TemplateManifest.Entry entry = manifest == null ? null : manifest.findByChecksum(sha256);
+        if (entry == null) {
+            return null;
+        }
+        Path file = directory.resolve(entry.getPath());
+        if (!Files.isRegularFile(file) || !sha256.equals(hash(file, Files.readAttributes(file, BasicFileAttributes.class)))) {
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Notifies all wrappers about the new version of a template, after it was changed on the master.
+     *
+     * @param group    the name of the group
+     * @param template the name of the template
+     */
+    public void notifyChanged(String group, String template) {
+        try {
+            TemplateManifest manifest = getManifest(group, template);
+            if (manifest == null) {
+                return;
+            }
+            PacketOutTemplateUpdate packet = new PacketOutTemplateUpdate(group, template, manifest.getVersion());
+            for (Wrapper wrapper : CloudNet.getInstance().getWrappers().values()) {
+                wrapper.sendPacket(packet);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private String hash(Path file, BasicFileAttributes attributes) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        HashedFile hashedFile = hashes.get(key);
+        if (hashedFile == null || hashedFile.size != attributes.size() || hashedFile.lastModified != lastModified) {
+            hashedFile = new HashedFile(attributes.size(), lastModified, TemplateManifest.sha256(file));
+            hashes.put(key, hashedFile);
+        }
+        return hashedFile.sha256;
+    }
+
+    private static final class HashedFile {
+
+        private final long size;
+        private final long lastModified;
+        private final String sha256;
+
+        private HashedFile(long size, long lastModified, String sha256) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.web.api.v1;
+
+import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.RequestBodyHandler;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes an uploaded request body to a file, replacing the file only after the upload is complete.
+ */
+final class FileUploadHandler implements RequestBodyHandler {
+
+    private final HttpVersion httpVersion;
+    private final Path target;
+    private final Path staging;
+    private final FileChannel fileChannel;
+    private final Runnable deployed;
+
+    FileUploadHandler(HttpVersion httpVersion, Path target, Runnable deployed) throws IOException {
+        this.httpVersion = httpVersion;
+        this.target = target;
+        this.deployed = deployed;
+        Files.createDirectories(target.getParent());
+        this.staging = target.resolveSibling('.' + target.getFileName().toString() + ".upload-" + NetworkUtils.randomString(10));
+        this.fileChannel = FileChannel.open(staging, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void handleContent(ByteBuf content) throws IOException {
+        while (content.isReadable()) {
+            content.readBytes(fileChannel, content.readableBytes());
+        }
+    }
+
+    @Override
+    public CompletableFuture<FullHttpResponse> handleEnd() throws IOException {
+        fileChannel.close();
+        Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deployed.run();
+        return CompletableFuture.completedFuture(new DefaultFullHttpResponse(httpVersion, HttpResponseStatus.OK));
+    }
+
+    @Override
+    public void handleAbort() {
+        try {
+            fileChannel.close();
+            Files.deleteIfExists(staging);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -17,42 +17,42 @@
 
 package eu.cloudnetservice.cloudnet.v2.master.web.api.v1;
 
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
-import eu.cloudnetservice.cloudnet.v2.web.server.handler.MethodWebHandlerAdapter;
+import eu.cloudnetservice.cloudnet.v2.master.template.TemplateManifestService;
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.RequestBodyHandler;
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.StreamingWebHandler;
 import eu.cloudnetservice.cloudnet.v2.web.server.util.PathProvider;
 import eu.cloudnetservice.cloudnet.v2.web.server.util.QueryDecoder;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.*;
 
-import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
-public class WebsiteDeployment extends MethodWebHandlerAdapter {
+public class WebsiteDeployment extends StreamingWebHandler {
+
+    private static final Path PLUGINS = Paths.get("local", "plugins").toAbsolutePath().normalize();
+    private static final Path SERVERS = Paths.get("local", "servers").toAbsolutePath().normalize();
 
     public WebsiteDeployment() {
         super("/cloudnet/api/v1/deployment");
     }
 
     @Override
-    public FullHttpResponse post(ChannelHandlerContext channelHandlerContext,
-                                 QueryDecoder queryDecoder,
-                                 PathProvider path,
-                                 HttpRequest httpRequest) throws Exception {
+    public RequestBodyHandler handleRequestBody(ChannelHandlerContext channelHandlerContext,
+                                                QueryDecoder queryDecoder,
+                                                PathProvider path,
+                                                HttpRequest httpRequest) throws Exception {
         CloudNet.getLogger().finest("HTTP Request from " + channelHandlerContext.channel().remoteAddress());
 
-        if (!(httpRequest instanceof FullHttpRequest)) {
-            return null;
+        if (!HttpMethod.POST.equals(httpRequest.method())) {
+            return RequestBodyHandler.respond(new DefaultFullHttpResponse(httpRequest.protocolVersion(), HttpResponseStatus.NOT_FOUND));
         }
 
-        FullHttpRequest fullHttpRequest = ((FullHttpRequest) httpRequest);
         FullHttpResponse fullHttpResponse = new DefaultFullHttpResponse(httpRequest.protocolVersion(), HttpResponseStatus.UNAUTHORIZED);
 
         Document dataDocument = new Document("success", false).append("reason", new ArrayList<>()).append("response", new Document());
@@ -64,7 +64,7 @@ public class WebsiteDeployment extends MethodWebHandlerAdapter {
             .contains("-Xmessage")) {
             dataDocument.append("reason", Arrays.asList("-Xcloudnet-user, -Xcloudnet-token or -Xmessage not found!"));
             fullHttpResponse.content().writeBytes(dataDocument.convertToJsonString().getBytes(StandardCharsets.UTF_8));
-            return fullHttpResponse;
+            return RequestBodyHandler.respond(fullHttpResponse);
         }
 
         if (httpRequest.headers().contains("-Xcloudnet-token") ? !CloudNet.getInstance().authorization(httpRequest.headers()
@@ -75,109 +75,62 @@ public class WebsiteDeployment extends MethodWebHandlerAdapter {
             .authorizationPassword(httpRequest.headers().get("-Xcloudnet-user"), httpRequest.headers().get("-Xcloudnet-password"))) {
             dataDocument.append("reason", Arrays.asList("failed authorization!"));
             fullHttpResponse.content().writeBytes(dataDocument.convertToJsonString().getBytes(StandardCharsets.UTF_8));
-            return fullHttpResponse;
+            return RequestBodyHandler.respond(fullHttpResponse);
         }
 
+        fullHttpResponse.setStatus(HttpResponseStatus.BAD_REQUEST);
         switch (httpRequest.headers().get("-Xmessage").toLowerCase()) {
             case "plugin": {
-                fullHttpResponse.setStatus(HttpResponseStatus.OK);
                 String pluginName = httpRequest.headers().get("-Xvalue");
-                File file = new File(new StringBuilder("local/plugins/").append(pluginName).append(".jar").substring(0));
-                if (file.getParentFile().mkdirs()) {
-                }
-                file.createNewFile();
-                try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-                    fileOutputStream.write(fullHttpRequest.content().array());
+                Path file = pluginName == null ? null : resolve(PLUGINS, pluginName + ".jar");
+                if (file != null) {
+                    fullHttpResponse.release();
+                    return new FileUploadHandler(httpRequest.protocolVersion(), file, () ->
+                        System.out.println("Plugin deployed [\"" + pluginName + "\"]"));
                 }
-                System.out.println("Plugin deployed [\"" + pluginName + "\"]");
             }
             break;
             case "template": {
-                fullHttpResponse.setStatus(HttpResponseStatus.OK);
                 Document document = Document.load(httpRequest.headers().get("-Xvalue"));
                 if (document.contains("template") && document.contains("group")) {
-                    File file = new File("local/templates/" + document.getString("group") + NetworkUtils.SLASH_STRING + document.getString(
-                        "template") + NetworkUtils.SLASH_STRING + document.getString("template") + ".zip");
-
-                    file.getParentFile().mkdirs();
-                    file.createNewFile();
-
-                    try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-                        fileOutputStream.write(fullHttpRequest.content().readBytes(fullHttpRequest.content().readableBytes()).array());
-                        fileOutputStream.flush();
-                    }
-
-                    ZipFile zipFile = new ZipFile(file);
-                    StringBuilder stringBuilder = new StringBuilder("local/templates/").append(document.getString("group")).append(
-                        NetworkUtils.SLASH_STRING).append(document.getString("template"));
-                    for (ZipEntry zipEntry : Collections.list(zipFile.entries())) {
-                        extractEntry(zipFile, zipEntry, stringBuilder.toString());
+                    String group = document.getString("group");
+                    String template = document.getString("template");
+                    Path directory = TemplateManifestService.resolveTemplate(group, template);
+                    if (directory != null) {
+                        fullHttpResponse.release();
+                        return new ZipUploadHandler(channelHandlerContext.channel(), httpRequest.protocolVersion(), directory, () -> {
+                            System.out.println("Template deployed [\"" + template + "\"] for the group [\"" + group + "\"]");
+                            CloudNet.getInstance().getTemplateManifestService().notifyChanged(group, template);
+                        });
                     }
-                    file.delete();
-                    System.out.println("Template deployed [\"" + document.getString("template") + "\"] for the group [\"" + document.getString(
-                        "group") + "\"]");
                 }
             }
             break;
             case "custom": {
-                fullHttpResponse.setStatus(HttpResponseStatus.OK);
-                String payload = fullHttpRequest.headers().get("-Xvalue");
-                File file = new File("local/servers/" + payload + "/payload.zip");
-
-                file.getParentFile().mkdirs();
-                file.createNewFile();
-
-                try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-                    fileOutputStream.write(fullHttpRequest.content().readBytes(fullHttpRequest.content().readableBytes()).array());
-                    fileOutputStream.flush();
+                String payload = httpRequest.headers().get("-Xvalue");
+                Path directory = payload == null ? null : resolve(SERVERS, payload);
+                if (directory != null) {
+                    fullHttpResponse.release();
+                    return new ZipUploadHandler(channelHandlerContext.channel(), httpRequest.protocolVersion(), directory, () ->
+                        System.out.println("Custom server deployed \"" + payload + '"'));
                 }
-
-                ZipFile zipFile = new ZipFile(file);
-                for (ZipEntry zipEntry : Collections.list(zipFile.entries())) {
-                    extractEntry(zipFile, zipEntry, "local/servers/" + payload);
-                }
-                file.delete();
-                System.out.println("Custom server deployed \"" + payload + '"');
             }
             break;
         }
-        return fullHttpResponse;
+        return RequestBodyHandler.respond(fullHttpResponse);
     }
 
-    private void extractEntry(ZipFile zipFile, ZipEntry entry, String destDir) throws IOException {
-        File file = new File(destDir, entry.getName());
-
-        if (!file.toPath().normalize().startsWith(Paths.get(destDir))) {
-            return;
-        }
-
-        final byte[] BUFFER = new byte[0xFFFF];
-
-        if (entry.isDirectory()) {
-            file.mkdirs();
-        } else {
-            new File(file.getParent()).mkdirs();
-
-            InputStream is = null;
-            OutputStream os = null;
-
-            try {
-                is = zipFile.getInputStream(entry);
-                os = new FileOutputStream(file);
-
-                int len;
-                while ((len = is.read(BUFFER)) != -1) {
-                    os.write(BUFFER, 0, len);
-                }
-            } finally {
-                if (os != null) {
-                    os.close();
-                }
-                if (is != null) {
-                    is.close();
-                }
-            }
-        }
+    /**
+     * Resolves a file directly inside the given directory, making sure the name does not escape it.
+     *
+     * @param directory the directory containing the file
+     * @param name      the name of the file
+     *
+     * @return the resolved file or {@code null}, if the name is invalid
+     */
+    private static Path resolve(Path directory, String name) {
+        Path file = directory.resolve(name).normalize();
+        return directory.equals(file.getParent()) ? file : null;
     }
 
 }
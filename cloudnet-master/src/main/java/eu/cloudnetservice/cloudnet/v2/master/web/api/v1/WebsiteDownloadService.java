@@ -18,9 +18,11 @@
 package eu.cloudnetservice.cloudnet.v2.master.web.api.v1;
 
 import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
+import eu.cloudnetservice.cloudnet.v2.lib.server.template.TemplateManifest;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
-import eu.cloudnetservice.cloudnet.v2.lib.zip.ZipConverter;
+import eu.cloudnetservice.cloudnet.v2.lib.zip.ZipChunkedInput;
 import eu.cloudnetservice.cloudnet.v2.master.CloudNet;
+import eu.cloudnetservice.cloudnet.v2.web.server.StreamingHttpResponse;
 import eu.cloudnetservice.cloudnet.v2.web.server.handler.MethodWebHandlerAdapter;
 import eu.cloudnetservice.cloudnet.v2.web.server.util.PathProvider;
 import eu.cloudnetservice.cloudnet.v2.web.server.util.QueryDecoder;
@@ -32,6 +34,7 @@ import io.netty.handler.codec.http.HttpResponseStatus;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -85,10 +88,10 @@ public class WebsiteDownloadService extends MethodWebHandlerAdapter {
                 fullHttpResponse.setStatus(HttpResponseStatus.OK);
                 Path path1 = Paths.get("local/plugins/" + httpRequest.headers().get("-Xvalue") + ".jar");
                 if (Files.exists(path1)) {
-                    byte[] value = Files.readAllBytes(path1);
+                    fullHttpResponse = StreamingHttpResponse.ofFile(httpRequest, path1);
+                    fullHttpResponse.headers().set("Content-Type", "application/octet-stream");
                     fullHttpResponse.headers().set("content-disposition",
                                                    "attachment; filename = " + httpRequest.headers().get("-Xvalue") + ".jar");
-                    fullHttpResponse.content().writeBytes(value);
                 } else {
                     fullHttpResponse.headers().set("Content-Type", "application/json");
                     dataDocument.append("reason",
@@ -116,10 +119,10 @@ public class WebsiteDownloadService extends MethodWebHandlerAdapter {
                         }
                     }
 
-                    byte[] value = ZipConverter.convert(new Path[] {Paths.get(x)});
-                    fullHttpResponse.headers().set("content-disposition",
-                                                   "attachment; filename = " + document.getString("template") + ".zip");
-                    fullHttpResponse.content().writeBytes(value);
+                    TemplateManifest manifest = CloudNet.getInstance().getTemplateManifestService().getManifest(document.getString(
+                        "group"), document.getString("template"));
+                    String eTag = manifest == null ? null : "W/\"" + manifest.getVersion() + '"';
+                    fullHttpResponse = streamZip(httpRequest, Paths.get(x), eTag, document.getString("template"));
                 } else {
                     fullHttpResponse.headers().set("Content-Type", "application/json");
                     dataDocument.append("reason",
@@ -128,6 +131,45 @@ public class WebsiteDownloadService extends MethodWebHandlerAdapter {
                 }
             }
             break;
+            case "manifest": {
+                Document document = Document.load(httpRequest.headers().get("-Xvalue"));
+                TemplateManifest manifest = null;
+                if (document.contains("template") && document.contains("group")) {
+                    manifest = CloudNet.getInstance().getTemplateManifestService().getManifest(document.getString("group"),
+                                                                                               document.getString("template"));
+                }
+                fullHttpResponse.headers().set("Content-Type", "application/json");
+                if (manifest != null) {
+                    fullHttpResponse.setStatus(HttpResponseStatus.OK);
+                    fullHttpResponse.content().writeBytes(new Document("success", true).append("manifest", manifest).toBytes());
+                } else {
+                    fullHttpResponse.setStatus(HttpResponseStatus.NOT_FOUND);
+                    dataDocument.append("reason",
+                                        Collections.singletonList("cannot find template \"" + httpRequest.headers().get("-Xvalue") + '"'));
+                    fullHttpResponse.content().writeBytes(dataDocument.toBytes());
+                }
+            }
+            break;
+            case "blob": {
+                Document document = Document.load(httpRequest.headers().get("-Xvalue"));
+                Path blob = null;
+                if (document.contains("template") && document.contains("group") && document.contains("sha256")) {
+                    blob = CloudNet.getInstance().getTemplateManifestService().getBlob(document.getString("group"),
+                                                                                       document.getString("template"),
+                                                                                       document.getString("sha256"));
+                }
+                if (blob != null) {
+                    fullHttpResponse = StreamingHttpResponse.ofFile(httpRequest, blob);
+                    fullHttpResponse.headers().set("Content-Type", "application/octet-stream");
+                } else {
+                    fullHttpResponse.setStatus(HttpResponseStatus.NOT_FOUND);
+                    fullHttpResponse.headers().set("Content-Type", "application/json");
+                    dataDocument.append("reason",
+                                        Collections.singletonList("cannot find file \"" + httpRequest.headers().get("-Xvalue") + '"'));
+                    fullHttpResponse.content().writeBytes(dataDocument.toBytes());
+                }
+            }
+            break;
             case "custom": {
                 fullHttpResponse.setStatus(HttpResponseStatus.OK);
                 String server = httpRequest.headers().get("-Xvalue");
@@ -136,10 +178,10 @@ public class WebsiteDownloadService extends MethodWebHandlerAdapter {
                 if (!Files.exists(Paths.get(x))) {
                     Files.createDirectories(Paths.get(x + "/plugins"));
                 }
-                byte[] value = ZipConverter.convert(new Path[] {Paths.get(x)});
-
-                fullHttpResponse.headers().set("content-disposition", "attachment; filename = " + server + ".zip");
-                fullHttpResponse.content().writeBytes(value);
+                // Server directories may be large, so only the sizes and modification times make up the entity tag
+                TemplateManifest manifest = TemplateManifest.create(Paths.get(x), (file, attributes) ->
+                    attributes.size() + "-" + attributes.lastModifiedTime().toMillis());
+                fullHttpResponse = streamZip(httpRequest, Paths.get(x), "W/\"" + manifest.getVersion() + '"', server);
             }
             break;
             default:
@@ -149,4 +191,14 @@ public class WebsiteDownloadService extends MethodWebHandlerAdapter {
         return fullHttpResponse;
     }
 
+    private static FullHttpResponse streamZip(HttpRequest httpRequest, Path directory, String eTag, String name) throws IOException {
+        if (StreamingHttpResponse.isNotModified(httpRequest, eTag)) {
+            return StreamingHttpResponse.notModified(httpRequest, eTag);
+        }
+        FullHttpResponse fullHttpResponse = StreamingHttpResponse.ofChunks(httpRequest, new ZipChunkedInput(directory), eTag);
+        fullHttpResponse.headers().set("Content-Type", "application/octet-stream");
+        fullHttpResponse.headers().set("content-disposition", "attachment; filename = " + name + ".zip");
+        return fullHttpResponse;
+    }
+
 }
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.master.web.api.v1;
+
+import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskPool;
+import eu.cloudnetservice.cloudnet.v2.lib.scheduler.TaskScheduler;
+import eu.cloudnetservice.cloudnet.v2.web.server.handler.RequestBodyHandler;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts an uploaded zip archive while it is received and swaps it with the target directory once it is complete.
+ * The chunks are extracted on the {@link TaskPool#TRANSFER} pool; reading from the channel is paused while too many chunks
+ * are waiting to be extracted, so the memory used by an upload does not depend on its size.
+ * Swapping the directories and the deployment callback run on the same pool, so the event loop is never blocked.
+ */
+final class ZipUploadHandler implements RequestBodyHandler {
+
+    private static final int HIGH_WATER_MARK = 64;
+    private static final int LOW_WATER_MARK = 16;
+
+    private static final ByteBuf END_OF_INPUT = Unpooled.buffer(0);
+
+    private final Channel channel;
+    private final HttpVersion httpVersion;
+    private final Path target;
+    private final Path staging;
+    private final Runnable deployed;
+    private final BlockingQueue<ByteBuf> chunks = new LinkedBlockingQueue<>();
+    private final CompletableFuture<FullHttpResponse> response = new CompletableFuture<>();
+    private final Future<?> task;
+    private volatile boolean aborted;
+
+    ZipUploadHandler(Channel channel, HttpVersion httpVersion, Path target, Runnable deployed) {
+        this.channel = channel;
+        this.httpVersion = httpVersion;
+        this.target = target;
+        this.deployed = deployed;
+        this.staging = target.resolveSibling('.' + target.getFileName().toString() + ".upload-" + NetworkUtils.randomString(10));
+        this.task = TaskScheduler.getExecutor(TaskPool.TRANSFER).submit(this::deploy);
+    }
+
+    @Override
+    public void handleContent(ByteBuf content) {
+        if (!content.isReadable() || aborted) {
+            return;
+        }
+        chunks.add(content.retain());
+        if (chunks.size() >= HIGH_WATER_MARK) {
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    @Override
+    public CompletableFuture<FullHttpResponse> handleEnd() {
+        chunks.add(END_OF_INPUT);
+        return response;
+    }
+
+    @Override
+    public void handleAbort() {
+        aborted = true;
+        // Interrupts the extraction, which deletes the staging directory; if it never started, nothing was created
+        task.cancel(true);
+        releaseChunks();
+        channel.config().setAutoRead(true);
+    }
+
+    private void deploy() {
+        try {
+            Exception failure = extract();
+            if (aborted) {
+                return;
+            }
+            if (failure != null) {
+                failure.printStackTrace();
+                response.complete(new DefaultFullHttpResponse(httpVersion,
+                                                              HttpResponseStatus.BAD_REQUEST,
+                                                              Unpooled.copiedBuffer("Invalid archive: " + failure.getMessage(),
+                                                                                    StandardCharsets.UTF_8)));
+                return;
+            }
+
+            swap();
+            deployed.run();
+            response.complete(new DefaultFullHttpResponse(httpVersion, HttpResponseStatus.OK));
+        } catch (Exception e) {
+            response.completeExceptionally(e);
+        } finally {
+            if (Files.exists(staging)) {
+                deleteDirectory(staging);
+            }
+            if (aborted) {
+                releaseChunks();
+            }
+        }
+    }
+
+    /**
+     * Extracts the received archive into the staging directory.
+     *
+     * @return the exception that made the archive unusable or {@code null}, if it was extracted completely
+     */
+    private Exception extract() {
+        ChunkInputStream inputStream = new ChunkInputStream();
+        try (ZipInputStream zipInputStream = new ZipInputStream(inputStream, StandardCharsets.UTF_8)) {
+            Files.createDirectories(staging);
+            ZipEntry zipEntry;
+            int entries = 0;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                entries++;
+                Path file = staging.resolve(zipEntry.getName()).normalize();
+                if (!file.startsWith(staging)) {
+                    continue;
+                }
+                if (zipEntry.isDirectory()) {
+                    Files.createDirectories(file);
+                } else {
+                    Files.createDirectories(file.getParent());
+                    Files.copy(zipInputStream, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                zipInputStream.closeEntry();
+            }
+            if (entries == 0) {
+                // Never replace the target with an empty directory because of a broken upload
+                throw new IOException("archive contains no entries");
+            }
+            // The central directory and anything after it still has to be received
+            inputStream.drain();
+            return null;
+        } catch (Exception e) {
+            if (!aborted) {
+                try {
+                    inputStream.drain();
+                } catch (InterruptedIOException ignored) {
+                }
+            }
+            return e;
+        }
+    }
+
+    /**
+     * Replaces the target directory with the staging directory, restoring the previous directory if that fails.
+     */
+    private void swap() throws IOException {
+        Path previous = null;
+        if (Files.exists(target)) {
+            previous = target.resolveSibling('.' + target.getFileName().toString() + ".old-" + NetworkUtils.randomString(10));
+            Files.move(target, previous, StandardCopyOption.ATOMIC_MOVE);
+        }
+        try {
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (previous != null) {
+                Files.move(previous, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            throw e;
+        }
+        if (previous != null) {
+            deleteDirectory(previous);
+        }
+    }
+
+    private void releaseChunks() {
+        ByteBuf chunk;
+        while ((chunk = chunks.poll()) != null) {
+            chunk.release();
+        }
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exception) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the received chunks in order, resuming reading from the channel once enough chunks were consumed.
+     */
+    private final class ChunkInputStream extends InputStream {
+
+        private ByteBuf current;
+        private boolean endOfInput;
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int read = Math.min(len, current.readableBytes());
+            current.readBytes(b, off, read);
+            return read;
+        }
+
+        private boolean nextChunk() throws InterruptedIOException {
+            while (!endOfInput && (current == null || !current.isReadable())) {
+                if (current != null) {
+                    current.release();
+                    current = null;
+                }
+                ByteBuf chunk;
+                try {
+                    chunk = chunks.take();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Upload was aborted");
+                }
+                if (chunks.size() <= LOW_WATER_MARK && !channel.config().isAutoRead()) {
+                    channel.config().setAutoRead(true);
+                }
+                if (chunk == END_OF_INPUT) {
+                    endOfInput = true;
+                } else {
+                    current = chunk;
+                }
+            }
+            return !endOfInput;
+        }
+
+        private void drain() throws InterruptedIOException {
+            while (nextChunk()) {
+                current.skipBytes(current.readableBytes());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (current != null) {
+                current.release();
+                current = null;
+            }
+        }
+    }
+}
@@ -49,11 +49,14 @@ import eu.cloudnetservice.cloudnet.v2.wrapper.setup.spigot.SpigotBuilder;
 import eu.cloudnetservice.cloudnet.v2.wrapper.util.FileUtility;
 import eu.cloudnetservice.cloudnet.v2.wrapper.util.ShutdownHook;
 import eu.cloudnetservice.cloudnet.v2.wrapper.util.ShutdownOnCentral;
+import eu.cloudnetservice.cloudnet.v2.wrapper.util.TemplateCache;
+import eu.cloudnetservice.cloudnet.v2.wrapper.util.TemplateMaterializer;
 import joptsimple.OptionSet;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -78,6 +81,8 @@ public final class CloudNetWrapper implements Executable, ShutdownOnCentral {
     private Auth auth;
     private OptionSet optionSet;
     private ServerProcessQueue serverProcessQueue;
+    private TemplateMaterializer templateMaterializer;
+    private final TemplateCache templateCache = new TemplateCache();
     private SimpledUser simpledUser;
     private int maxMemory;
 
@@ -186,6 +191,13 @@ public final class CloudNetWrapper implements Executable, ShutdownOnCentral {
 
         this.auth = new Auth(key, wrapperConfig.getWrapperId());
         this.serverProcessQueue = new ServerProcessQueue(wrapperConfig.getProcessQueueSize());
+        // Downloaded templates are only ever replaced file by file, all other templates are linked from snapshots
+        this.templateMaterializer = new TemplateMaterializer(wrapperConfig.isLinkTemplates(),
+                                                             wrapperConfig.getLinkedTemplateExtensions(),
+                                                             Collections.singletonList(Paths.get("local", "cache", "web_templates")),
+                                                             Paths.get("local", "cache", "template_snapshots"),
+                                                             Paths.get("local"),
+                                                             Paths.get("temp"));
         this.maxMemory = wrapperConfig.getMaxMemory();
         Runtime.getRuntime().addShutdownHook(new Thread(new ShutdownHook(this)));
         if (!optionSet.has("disable-autoupdate")) {
@@ -209,6 +221,7 @@ public final class CloudNetWrapper implements Executable, ShutdownOnCentral {
         networkConnection.getPacketManager().registerHandler(PacketRC.CN_CORE + 10, PacketInCopyServer.class);
         networkConnection.getPacketManager().registerHandler(PacketRC.CN_CORE + 11, PacketInOnlineServer.class);
         networkConnection.getPacketManager().registerHandler(PacketRC.CN_CORE + 12, PacketInUpdateWrapperProperties.class);
+        networkConnection.getPacketManager().registerHandler(PacketRC.CN_CORE + 13, PacketInTemplateUpdate.class);
         networkConnection.getPacketManager().registerHandler(PacketRC.CN_CORE + 14, PacketInCopyDirectory.class);
         networkConnection.getPacketManager().registerHandler(PacketRC.CN_CORE + 15, PacketInConsoleSettings.class);
 
@@ -287,6 +300,10 @@ public final class CloudNetWrapper implements Executable, ShutdownOnCentral {
         System.out.println("Wrapper shutdown...");
 
         networkConnection.tryDisconnect();
+        // Services still being prepared would otherwise start after their processes have been stopped
+        if (serverProcessQueue != null) {
+            serverProcessQueue.shutdown();
+        }
         shutdownProcesses();
         NetworkUtils.getExecutor().shutdownNow();
 
@@ -354,6 +371,14 @@ public final class CloudNetWrapper implements Executable, ShutdownOnCentral {
         return this.serverProcessQueue;
     }
 
+    public TemplateCache getTemplateCache() {
+        return this.templateCache;
+    }
+
+    public TemplateMaterializer getTemplateMaterializer() {
+        return this.templateMaterializer;
+    }
+
     public SimpledUser getSimpledUser() {
         return this.simpledUser;
     }
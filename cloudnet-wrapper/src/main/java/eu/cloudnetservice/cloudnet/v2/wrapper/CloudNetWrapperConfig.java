@@ -27,6 +27,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 
 public class CloudNetWrapperConfig {
 
@@ -38,7 +40,8 @@ public class CloudNetWrapperConfig {
     private String wrapperId;
     private InetAddress proxyConfigHost;
 
-    private boolean savingRecords, autoUpdate, maintenanceCopy;
+    private boolean savingRecords, autoUpdate, maintenanceCopy, linkTemplates;
+    private List<String> linkedTemplateExtensions;
 
     private InetAddress cloudNetHost;
     private int cloudNetPort;
@@ -95,6 +98,15 @@ public class CloudNetWrapperConfig {
                 save();
             }
 
+            if (!configuration.getSection("general").contains("link-templates")) {
+                configuration.set("general.link-templates", true);
+                configuration.set("general.linked-template-extensions", Arrays.asList("jar"));
+                save();
+            }
+
+            this.linkTemplates = configuration.getBoolean("general.link-templates");
+            this.linkedTemplateExtensions = configuration.getStringList("general.linked-template-extensions");
+
             //generatated configurations
 
             this.proxyConfigHost = InetAddress.getByName(configuration.getString("general.proxy-config-host"));
@@ -178,4 +190,12 @@ public class CloudNetWrapperConfig {
         return savingRecords;
     }
 
+    public boolean isLinkTemplates() {
+        return linkTemplates;
+    }
+
+    public List<String> getLinkedTemplateExtensions() {
+        return linkedTemplateExtensions;
+    }
+
 }
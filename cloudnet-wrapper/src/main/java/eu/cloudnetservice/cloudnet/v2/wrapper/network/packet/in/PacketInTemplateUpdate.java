@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.wrapper.network.packet.in;
+
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.Packet;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketInHandler;
+import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketSender;
+import eu.cloudnetservice.cloudnet.v2.wrapper.CloudNetWrapper;
+
+public final class PacketInTemplateUpdate implements PacketInHandler {
+
+    public void handleInput(Packet packet, PacketSender packetSender) {
+        CloudNetWrapper.getInstance().getTemplateCache().announce(packet.getData().getString("group"),
+                                                                  packet.getData().getString("template"),
+                                                                  packet.getData().getString("version"));
+    }
+}
@@ -22,11 +22,13 @@ import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketRC;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ProxyProcessMeta;
 import eu.cloudnetservice.cloudnet.v2.lib.server.info.ProxyInfo;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import eu.cloudnetservice.cloudnet.v2.wrapper.server.process.BootstrapTimings;
 
 public class PacketOutAddProxy extends Packet {
 
-    public PacketOutAddProxy(ProxyInfo proxyInfo, ProxyProcessMeta proxyProcessMeta) {
-        super(PacketRC.CN_WRAPPER + 1, new Document("proxyInfo", proxyInfo).append("proxyProcess", proxyProcessMeta));
+    public PacketOutAddProxy(ProxyInfo proxyInfo, ProxyProcessMeta proxyProcessMeta, BootstrapTimings timings) {
+        super(PacketRC.CN_WRAPPER + 1, new Document("proxyInfo", proxyInfo).append("proxyProcess", proxyProcessMeta)
+                                                                           .append("timings", timings.getPhases()));
     }
 
 }
@@ -22,10 +22,12 @@ import eu.cloudnetservice.cloudnet.v2.lib.network.protocol.packet.PacketRC;
 import eu.cloudnetservice.cloudnet.v2.lib.server.ServerProcessMeta;
 import eu.cloudnetservice.cloudnet.v2.lib.server.info.ServerInfo;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import eu.cloudnetservice.cloudnet.v2.wrapper.server.process.BootstrapTimings;
 
 public class PacketOutAddServer extends Packet {
 
-    public PacketOutAddServer(ServerInfo serverInfo, ServerProcessMeta serverProcessMeta) {
-        super(PacketRC.CN_WRAPPER + 2, new Document("serverInfo", serverInfo).append("serverProcess", serverProcessMeta));
+    public PacketOutAddServer(ServerInfo serverInfo, ServerProcessMeta serverProcessMeta, BootstrapTimings timings) {
+        super(PacketRC.CN_WRAPPER + 2, new Document("serverInfo", serverInfo).append("serverProcess", serverProcessMeta)
+                                                                             .append("timings", timings.getPhases()));
     }
 }
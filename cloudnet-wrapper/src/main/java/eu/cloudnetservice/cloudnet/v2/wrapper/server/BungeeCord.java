@@ -36,6 +36,7 @@ import eu.cloudnetservice.cloudnet.v2.wrapper.CloudNetWrapper;
 import eu.cloudnetservice.cloudnet.v2.wrapper.network.packet.out.PacketOutAddProxy;
 import eu.cloudnetservice.cloudnet.v2.wrapper.network.packet.out.PacketOutRemoveProxy;
 import eu.cloudnetservice.cloudnet.v2.wrapper.screen.AbstractScreenService;
+import eu.cloudnetservice.cloudnet.v2.wrapper.server.process.BootstrapTimings;
 import eu.cloudnetservice.cloudnet.v2.wrapper.server.process.ServerDispatcher;
 import eu.cloudnetservice.cloudnet.v2.wrapper.util.FileUtility;
 
@@ -48,6 +49,7 @@ import java.util.HashMap;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.stream.Stream;
 
 public class BungeeCord extends AbstractScreenService implements ServerDispatcher {
@@ -102,7 +104,7 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
     @Override
     public boolean bootstrap() throws Exception {
 
-        long startupTime = System.currentTimeMillis();
+        BootstrapTimings timings = new BootstrapTimings();
         //        if (proxyGroup.getTemplate().getBackend().equals(TemplateResource.URL)) {
         //        }
 
@@ -113,6 +115,7 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
         for (ServerInstallablePlugin plugin : proxyGroup.getTemplate().getInstallablePlugins()) {
             GameServer.downloadInstallablePlugin(plugin);
         }
+        timings.mark("plugins");
 
         final Path pluginsPath = this.dir.resolve("plugins");
         final Path templatePath = Paths.get("local", "templates", proxyGroup.getName());
@@ -146,30 +149,45 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
                     Template template = proxyGroup.getTemplate();
                     if (template.getBackend().equals(TemplateResource.URL) && template.getUrl() != null) {
                         Path groupTemplates = Paths.get("local", "cache", "web_templates", proxyGroup.getName());
-                        TemplateLoader templateLoader = new TemplateLoader(template.getUrl(), groupTemplates.resolve("template.zip"));
-                        System.out.println("Downloading template for " + this.proxyProcessMeta.getServiceId().getGroup());
-                        templateLoader.load();
-                        templateLoader.unZip(groupTemplates);
-                        FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
-                    } else if (template.getBackend().equals(TemplateResource.MASTER) &&
-                        CloudNetWrapper.getInstance().getSimpledUser() != null) {
-                        Path groupTemplates = Paths.get("local", "cache", "web_templates", proxyGroup.getName(), template.getName());
-                        if (!Files.exists(groupTemplates)) {
-                            Files.createDirectories(groupTemplates);
-                            MasterTemplateLoader templateLoader = new MasterTemplateLoader(
-                                String.format("http://%s:%d/cloudnet/api/v1/download",
-                                              CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost(),
-                                              CloudNetWrapper.getInstance().getWrapperConfig().getWebPort()),
-                                groupTemplates.resolve("template.zip"),
-                                CloudNetWrapper.getInstance().getSimpledUser(),
-                                template,
-                                proxyGroup.getName()
-                            );
+                        synchronized (GameServer.CACHE_LOCK) {
+                            TemplateLoader templateLoader = new TemplateLoader(template.getUrl(), groupTemplates.resolve("template.zip"));
                             System.out.println("Downloading template for " + this.proxyProcessMeta.getServiceId().getGroup());
                             templateLoader.load();
                             templateLoader.unZip(groupTemplates);
+                            FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
+                        }
+                    } else if (template.getBackend().equals(TemplateResource.MASTER) &&
+                        CloudNetWrapper.getInstance().getSimpledUser() != null) {
+                        Path groupTemplates = Paths.get("local", "cache", "web_templates", proxyGroup.getName(), template.getName());
+                        ReadWriteLock lock = CloudNetWrapper.getInstance().getTemplateCache().getLock(proxyGroup.getName(), template.getName());
+                        lock.writeLock().lock();
+                        try {
+                            if (!CloudNetWrapper.getInstance().getTemplateCache().sync(proxyGroup.getName(), template.getName(), groupTemplates) &&
+                                !Files.exists(groupTemplates)) {
+                                Files.createDirectories(groupTemplates);
+                                MasterTemplateLoader templateLoader = new MasterTemplateLoader(
+                                    String.format("http://%s:%d/cloudnet/api/v1/download",
+                                                  CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost(),
+                                                  CloudNetWrapper.getInstance().getWrapperConfig().getWebPort()),
+                                    groupTemplates.resolve("template.zip"),
+                                    CloudNetWrapper.getInstance().getSimpledUser(),
+                                    template,
+                                    proxyGroup.getName()
+                                );
+                                System.out.println("Downloading template for " + this.proxyProcessMeta.getServiceId().getGroup());
+                                templateLoader.load();
+                                templateLoader.unZip(groupTemplates);
+                            }
+                            // Downgrading keeps the cache from being re-synced while it is copied, without blocking other services of the template
+                            lock.readLock().lock();
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                        try {
+                            FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
+                        } finally {
+                            lock.readLock().unlock();
                         }
-                        FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
                     } else if (Files.exists(Paths.get("local/templates/" + proxyGroup.getName()))) {
 
                         FileUtility.copyFilesInDirectory(templatePath, this.dir);
@@ -186,13 +204,11 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
 
                 Files.createDirectory(pluginsPath);
                 for (ServerInstallablePlugin plugin : proxyProcessMeta.getPlugins()) {
-                    FileUtility.copyFileToDirectory(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"),
-                                                    pluginsPath);
+                    materializeFile(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"), pluginsPath.resolve(plugin.getName() + ".jar"));
                 }
 
                 for (ServerInstallablePlugin plugin : proxyGroup.getTemplate().getInstallablePlugins()) {
-                    FileUtility.copyFileToDirectory(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"),
-                                                    pluginsPath);
+                    materializeFile(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"), pluginsPath.resolve(plugin.getName() + ".jar"));
                 }
 
 
@@ -205,44 +221,60 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
 
                 Files.createDirectory(pluginsPath);
                 for (ServerInstallablePlugin plugin : proxyProcessMeta.getPlugins()) {
-                    FileUtility.copyFileToDirectory(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"), pluginsPath);
+                    materializeFile(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"), pluginsPath.resolve(plugin.getName() + ".jar"));
                 }
 
                 Template template = proxyGroup.getTemplate();
                 if (template.getBackend().equals(TemplateResource.URL) && template.getUrl() != null) {
                     final Path groupTemplates = Paths.get("local", "cache", "web_templates", proxyGroup.getName());
 
-                    TemplateLoader templateLoader = new TemplateLoader(template.getUrl(), groupTemplates.resolve("template.zip"));
-                    System.out.println("Downloading template for " + this.proxyProcessMeta.getServiceId().getGroup());
-                    templateLoader.load();
-                    templateLoader.unZip(groupTemplates);
-                    FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
-                } else if (template.getBackend().equals(TemplateResource.MASTER) &&
-                    CloudNetWrapper.getInstance().getSimpledUser() != null) {
-                    final Path groupTemplates = Paths.get("local", "cache", "web_templates", proxyGroup.getName(), template.getName());
-                    if (!Files.exists(groupTemplates)) {
-                        Files.createDirectories(groupTemplates);
-                        MasterTemplateLoader templateLoader = new MasterTemplateLoader(
-                            String.format("http://%s:%d/cloudnet/api/v1/download",
-                                          CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost(),
-                                          CloudNetWrapper.getInstance().getWrapperConfig().getWebPort()),
-                            groupTemplates.resolve("template.zip"),
-                            CloudNetWrapper.getInstance().getSimpledUser(),
-                            template,
-                            proxyGroup.getName()
-                        );
+                    synchronized (GameServer.CACHE_LOCK) {
+                        TemplateLoader templateLoader = new TemplateLoader(template.getUrl(), groupTemplates.resolve("template.zip"));
                         System.out.println("Downloading template for " + this.proxyProcessMeta.getServiceId().getGroup());
                         templateLoader.load();
                         templateLoader.unZip(groupTemplates);
+                        materialize(groupTemplates);
+                    }
+                } else if (template.getBackend().equals(TemplateResource.MASTER) &&
+                    CloudNetWrapper.getInstance().getSimpledUser() != null) {
+                    final Path groupTemplates = Paths.get("local", "cache", "web_templates", proxyGroup.getName(), template.getName());
+                    ReadWriteLock lock = CloudNetWrapper.getInstance().getTemplateCache().getLock(proxyGroup.getName(), template.getName());
+                    lock.writeLock().lock();
+                    try {
+                        if (!CloudNetWrapper.getInstance().getTemplateCache().sync(proxyGroup.getName(), template.getName(), groupTemplates) &&
+                            !Files.exists(groupTemplates)) {
+                            Files.createDirectories(groupTemplates);
+                            MasterTemplateLoader templateLoader = new MasterTemplateLoader(
+                                String.format("http://%s:%d/cloudnet/api/v1/download",
+                                              CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost(),
+                                              CloudNetWrapper.getInstance().getWrapperConfig().getWebPort()),
+                                groupTemplates.resolve("template.zip"),
+                                CloudNetWrapper.getInstance().getSimpledUser(),
+                                template,
+                                proxyGroup.getName()
+                            );
+                            System.out.println("Downloading template for " + this.proxyProcessMeta.getServiceId().getGroup());
+                            templateLoader.load();
+                            templateLoader.unZip(groupTemplates);
+                        }
+                        // Downgrading keeps the cache from being re-synced while it is copied, without blocking other services of the template
+                        lock.readLock().lock();
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    try {
+                        materialize(groupTemplates);
+                    } finally {
+                        lock.readLock().unlock();
                     }
-                    FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
                 } else if (Files.exists(templatePath)) {
-                    FileUtility.copyFilesInDirectory(templatePath, this.dir);
+                    materialize(templatePath);
                 } else {
                     return false;
                 }
             }
         }
+        timings.mark("template");
 
         final Path configPath = this.dir.resolve("config.yml");
         if (!Files.exists(configPath)) {
@@ -252,20 +284,21 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
         if (!Files.exists(this.dir.resolve("BungeeCord.jar"))) {
             MultiValue<String, String> version = ProxyVersion.url(proxyGroup.getProxyVersion());
             Path path = Paths.get("local", "proxy_versions", version.getSecond());
-            if (!Files.exists(path)) {
-                try {
-                    URLConnection urlConnection = new URL(version.getFirst()).openConnection();
-                    urlConnection.setRequestProperty("User-Agent", NetworkUtils.USER_AGENT);
-                    urlConnection.connect();
-                    System.out.println("Downloading " + version.getSecond() + "...");
-                    Files.copy(urlConnection.getInputStream(), path);
-                } catch (Exception ex) {
-                    ex.printStackTrace();
+            synchronized (GameServer.CACHE_LOCK) {
+                if (!Files.exists(path)) {
+                    try {
+                        URLConnection urlConnection = new URL(version.getFirst()).openConnection();
+                        urlConnection.setRequestProperty("User-Agent", NetworkUtils.USER_AGENT);
+                        urlConnection.connect();
+                        System.out.println("Downloading " + version.getSecond() + "...");
+                        Files.copy(urlConnection.getInputStream(), path);
+                    } catch (Exception ex) {
+                        ex.printStackTrace();
+                    }
                 }
             }
 
-            FileUtility.copyFileToDirectory(path, this.dir);
-            Files.move(this.dir.resolve(version.getSecond()), this.dir.resolve("BungeeCord.jar"));
+            materializeFile(path, this.dir.resolve("BungeeCord.jar"));
         }
 
         if (!Files.exists(this.dir.resolve("server-icon.png")) &&
@@ -276,6 +309,8 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
         Files.deleteIfExists(pluginsPath.resolve("CloudNetAPI.jar"));
         FileUtility.insertData("files/CloudNetAPI.jar", pluginsPath.resolve("CloudNetAPI.jar"));
 
+        timings.mark("files");
+
         InetAddress proxyConfigHost = CloudNetWrapper.getInstance().getWrapperConfig().getProxyConfigHost();
 
         if (proxyConfigHost instanceof Inet4Address) {
@@ -328,15 +363,46 @@ public class BungeeCord extends AbstractScreenService implements ServerDispatche
         commandBuilder.append("-Dfile.encoding=UTF-8 -Dcom.mojang.eula.agree=true -Djline.terminal=jline.UnsupportedTerminal -Xmx")
                       .append(proxyProcessMeta.getMemory())
                       .append("M -jar BungeeCord.jar");
+        timings.mark("configure");
+
+        // The wrapper stopped its processes meanwhile, a process started now would never be stopped
+        if (!CloudNetWrapper.getInstance().getServerProcessQueue().isRunning()) {
+            return false;
+        }
 
-        CloudNetWrapper.getInstance().getNetworkConnection().sendPacket(new PacketOutAddProxy(proxyInfo, proxyProcessMeta));
-        System.out.println("Proxy " + this.getServiceId() + " started in [" + (System.currentTimeMillis() - startupTime) + " milliseconds]");
+        CloudNetWrapper.getInstance().getNetworkConnection().sendPacket(new PacketOutAddProxy(proxyInfo, proxyProcessMeta, timings));
 
         this.instance = Runtime.getRuntime().exec(commandBuilder.substring(0).split(NetworkUtils.SPACE_STRING), null, this.dir.toFile());
+        timings.mark("process");
+        System.out.println("Proxy " + this.getServiceId() + " started in [" + timings.getTotal() + " milliseconds] (" + timings + ')');
         CloudNetWrapper.getInstance().getProxies().put(this.proxyProcessMeta.getServiceId().getServerId(), this);
         return true;
     }
 
+    /**
+     * Materializes the files of the given directory into the proxy directory.
+     * Only dynamic proxies share files with their templates, static proxies always get their own copy.
+     *
+     * @param sourceDirectory the directory to materialize
+     *
+     * @throws IOException if a file could not be materialized
+     */
+    private void materialize(Path sourceDirectory) throws IOException {
+        if (proxyGroup.getProxyGroupMode() == ProxyGroupMode.STATIC) {
+            FileUtility.copyFilesInDirectory(sourceDirectory, this.dir);
+        } else {
+            CloudNetWrapper.getInstance().getTemplateMaterializer().materialize(sourceDirectory, this.dir);
+        }
+    }
+
+    private void materializeFile(Path file, Path target) throws IOException {
+        if (proxyGroup.getProxyGroupMode() == ProxyGroupMode.STATIC) {
+            FileUtility.copy(file, target);
+        } else {
+            CloudNetWrapper.getInstance().getTemplateMaterializer().materializeFile(file, target);
+        }
+    }
+
     @Override
     public boolean shutdown() {
 
@@ -35,9 +35,11 @@ import eu.cloudnetservice.cloudnet.v2.wrapper.CloudNetWrapper;
 import eu.cloudnetservice.cloudnet.v2.wrapper.network.packet.out.PacketOutAddServer;
 import eu.cloudnetservice.cloudnet.v2.wrapper.network.packet.out.PacketOutRemoveServer;
 import eu.cloudnetservice.cloudnet.v2.wrapper.screen.AbstractScreenService;
+import eu.cloudnetservice.cloudnet.v2.wrapper.server.process.BootstrapTimings;
 import eu.cloudnetservice.cloudnet.v2.wrapper.server.process.ServerDispatcher;
 import eu.cloudnetservice.cloudnet.v2.wrapper.util.FileUtility;
 import eu.cloudnetservice.cloudnet.v2.wrapper.util.MasterTemplateDeploy;
+import eu.cloudnetservice.cloudnet.v2.wrapper.util.TemplateCache;
 import net.md_5.bungee.config.Configuration;
 import net.md_5.bungee.config.ConfigurationProvider;
 import net.md_5.bungee.config.YamlConfiguration;
@@ -54,10 +56,17 @@ import java.util.Enumeration;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.logging.Level;
 
 public class GameServer extends AbstractScreenService implements ServerDispatcher {
 
+    /**
+     * Guards the shared download caches, as several services may be prepared concurrently.
+     * Master templates are guarded by the locks of the {@link TemplateCache}.
+     */
+    static final Object CACHE_LOCK = new Object();
+
     private final ServerProcessMeta serverProcessMeta;
     private final ServerGroup serverGroup;
     private final Path dir;
@@ -156,7 +165,7 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
      */
     @Override
     public boolean bootstrap() throws Exception {
-        long startupTime = System.currentTimeMillis();
+        BootstrapTimings timings = new BootstrapTimings();
 
         for (ServerInstallablePlugin plugin : serverProcessMeta.getPlugins()) {
             downloadInstallablePlugin(plugin);
@@ -165,6 +174,7 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
         for (ServerInstallablePlugin url : serverProcessMeta.getTemplate().getInstallablePlugins()) {
             downloadInstallablePlugin(url);
         }
+        timings.mark("plugins");
 
         if (serverGroup.getTemplates().size() == 0 && serverProcessMeta.getTemplateUrl() == null) {
             return false;
@@ -177,26 +187,26 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
         } else if (!templateDownloader()) {
             return false;
         }
+        timings.mark("template");
 
         for (ServerInstallablePlugin plugin : serverProcessMeta.getPlugins()) {
-            FileUtility.copyFileToDirectory(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"),
-                                            this.dir.resolve("plugins"));
+            materializeFile(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"), this.dir.resolve("plugins"));
         }
 
         for (ServerInstallablePlugin plugin : serverProcessMeta.getTemplate().getInstallablePlugins()) {
-            FileUtility.copyFileToDirectory(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"),
-                                            this.dir.resolve("plugins"));
+            materializeFile(Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar"), this.dir.resolve("plugins"));
         }
 
 
         if (serverGroup.getServerType().equals(ServerGroupType.BUKKIT)) {
             if (!Files.exists(this.dir.resolve("spigot.jar"))) {
-                FileUtility.copyFileToDirectory(Paths.get("local", "spigot.jar"), this.dir);
+                materializeFile(Paths.get("local", "spigot.jar"), this.dir);
             }
         }
         copyConfigurations();
         copyCloudNetApi();
-        FileUtility.copyFilesInDirectory(Paths.get("local", "global"), this.dir);
+        materialize(Paths.get("local", "global"));
+        timings.mark("files");
 
         if (!serverGroup.getServerType().equals(ServerGroupType.GLOWSTONE)) {
             this.serverInfo = configureNormalServer();
@@ -204,15 +214,24 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
             this.serverInfo = configureGlowstoneServer();
         }
         generateCloudNetConfigurations();
+        timings.mark("configure");
+
+        // The wrapper stopped its processes meanwhile, a process started now would never be stopped
+        if (!CloudNetWrapper.getInstance().getServerProcessQueue().isRunning()) {
+            return false;
+        }
 
         CloudNetWrapper.getInstance().getNetworkConnection().sendPacket(new PacketOutAddServer(this.serverInfo,
-                                                                                               this.serverProcessMeta));
-        logger.info(String.format("Server %s started in [%d] milliseconds",
-                                  this.getServiceId(),
-                                  (System.currentTimeMillis() - startupTime)));
+                                                                                               this.serverProcessMeta,
+                                                                                               timings));
         this.startupTimeStamp = System.currentTimeMillis();
 
         startProcess();
+        timings.mark("process");
+        logger.info(String.format("Server %s started in [%d] milliseconds (%s)",
+                                  this.getServiceId(),
+                                  timings.getTotal(),
+                                  timings));
 
         CloudNetWrapper.getInstance().getServers().put(this.serverProcessMeta.getServiceId().getServerId(), this);
         return true;
@@ -225,6 +244,12 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
      */
     public static void downloadInstallablePlugin(ServerInstallablePlugin plugin) {
         final Path path = Paths.get("local", "cache", "web_plugins", plugin.getName() + ".jar");
+        synchronized (CACHE_LOCK) {
+            downloadInstallablePlugin(plugin, path);
+        }
+    }
+
+    private static void downloadInstallablePlugin(ServerInstallablePlugin plugin, Path path) {
         if (plugin.getPluginResourceType().equals(PluginResourceType.URL)) {
             if (!Files.exists(path)) {
                 try {
@@ -285,7 +310,7 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
             } else {
                 final Path templatePath = Paths.get("local", "templates", serverGroup.getName(), template.getName());
                 if (Files.exists(templatePath)) {
-                    FileUtility.copyFilesInDirectory(templatePath, this.dir);
+                    materialize(templatePath);
                 }
             }
         }
@@ -321,7 +346,7 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
                 downloadTemplate(template);
                 return true;
             } else if (Files.exists(sourcePath)) {
-                FileUtility.copyFilesInDirectory(sourcePath, this.dir);
+                materialize(sourcePath);
             } else {
                 return false;
             }
@@ -556,6 +581,34 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
         this.instance = Runtime.getRuntime().exec(commandBuilder.toString().split(NetworkUtils.SPACE_STRING), null, this.dir.toFile());
     }
 
+    /**
+     * Materializes the files of the given directory into the server directory.
+     * Only dynamic servers share files with their templates, static servers always get their own copy.
+     *
+     * @param sourceDirectory the directory to materialize
+     *
+     * @throws IOException if a file could not be materialized
+     */
+    private void materialize(Path sourceDirectory) throws IOException {
+        if (isStatic()) {
+            FileUtility.copyFilesInDirectory(sourceDirectory, this.dir);
+        } else {
+            CloudNetWrapper.getInstance().getTemplateMaterializer().materialize(sourceDirectory, this.dir);
+        }
+    }
+
+    private void materializeFile(Path file, Path targetDirectory) throws IOException {
+        if (isStatic()) {
+            FileUtility.copyFileToDirectory(file, targetDirectory);
+        } else {
+            CloudNetWrapper.getInstance().getTemplateMaterializer().materializeFile(file, targetDirectory.resolve(file.getFileName()));
+        }
+    }
+
+    private boolean isStatic() {
+        return serverGroup.getGroupMode().equals(ServerGroupMode.STATIC) || serverGroup.getGroupMode().equals(ServerGroupMode.STATIC_LOBBY);
+    }
+
     /**
      * Download the template from url.
      *
@@ -565,16 +618,18 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
      */
     private void downloadURL(Template template) throws IOException {
         final Path groupTemplates = Paths.get("local", "cache", "web_templates", serverGroup.getName(), template.getName());
-        if (!Files.exists(groupTemplates)) {
-            Files.createDirectories(groupTemplates);
-            TemplateLoader templateLoader = new TemplateLoader(template.getUrl(), groupTemplates.resolve("template.zip"));
-            logger.info(String.format("Downloading template for %s %s",
-                                      this.serverProcessMeta.getServiceId().getGroup(),
-                                      template.getName()));
-            templateLoader.load();
-            templateLoader.unZip(groupTemplates);
+        synchronized (CACHE_LOCK) {
+            if (!Files.exists(groupTemplates)) {
+                Files.createDirectories(groupTemplates);
+                TemplateLoader templateLoader = new TemplateLoader(template.getUrl(), groupTemplates.resolve("template.zip"));
+                logger.info(String.format("Downloading template for %s %s",
+                                          this.serverProcessMeta.getServiceId().getGroup(),
+                                          template.getName()));
+                templateLoader.load();
+                templateLoader.unZip(groupTemplates);
+            }
         }
-        FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
+        materialize(groupTemplates);
     }
 
     /**
@@ -586,24 +641,37 @@ public class GameServer extends AbstractScreenService implements ServerDispatche
      */
     private void downloadTemplate(Template template) throws IOException {
         final Path groupTemplates = Paths.get("local", "cache", "web_templates", serverGroup.getName(), template.getName());
-        if (!Files.exists(groupTemplates)) {
-            Files.createDirectories(groupTemplates);
-            MasterTemplateLoader templateLoader = new MasterTemplateLoader(
-                String.format("http://%s:%d/cloudnet/api/v1/download",
-                              CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost(),
-                              CloudNetWrapper.getInstance().getWrapperConfig().getWebPort()),
-                groupTemplates.resolve("template.zip"),
-                CloudNetWrapper.getInstance().getSimpledUser(),
-                template,
-                serverGroup.getName());
-            logger.info(String.format("Downloading template for %s %s",
-                                      this.serverProcessMeta.getServiceId().getGroup(),
-                                      template.getName()));
-
-            templateLoader.load();
-            templateLoader.unZip(groupTemplates);
+        ReadWriteLock lock = CloudNetWrapper.getInstance().getTemplateCache().getLock(serverGroup.getName(), template.getName());
+        lock.writeLock().lock();
+        try {
+            if (!CloudNetWrapper.getInstance().getTemplateCache().sync(serverGroup.getName(), template.getName(), groupTemplates) &&
+                !Files.exists(groupTemplates)) {
+                Files.createDirectories(groupTemplates);
+                MasterTemplateLoader templateLoader = new MasterTemplateLoader(
+                    String.format("http://%s:%d/cloudnet/api/v1/download",
+                                  CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost(),
+                                  CloudNetWrapper.getInstance().getWrapperConfig().getWebPort()),
+                    groupTemplates.resolve("template.zip"),
+                    CloudNetWrapper.getInstance().getSimpledUser(),
+                    template,
+                    serverGroup.getName());
+                logger.info(String.format("Downloading template for %s %s",
+                                          this.serverProcessMeta.getServiceId().getGroup(),
+                                          template.getName()));
+
+                templateLoader.load();
+                templateLoader.unZip(groupTemplates);
+            }
+            // Downgrading keeps the cache from being re-synced while it is copied, without blocking other services of the template
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            materialize(groupTemplates);
+        } finally {
+            lock.readLock().unlock();
         }
-        FileUtility.copyFilesInDirectory(groupTemplates, this.dir);
     }
 
     /**
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.wrapper.server.process;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the single phases of a service bootstrap took.
+ * Each call to {@link #mark(String)} closes the current phase and starts the next one.
+ */
+public final class BootstrapTimings {
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final long startTime = System.nanoTime();
+    private long phaseStartTime = startTime;
+
+    /**
+     * Ends the current phase and stores its duration under the given name.
+     *
+     * @param phase the name of the phase that just finished
+     */
+    public void mark(String phase) {
+        long now = System.nanoTime();
+        phases.merge(phase, TimeUnit.NANOSECONDS.toMillis(now - phaseStartTime), Long::sum);
+        phaseStartTime = now;
+    }
+
+    /**
+     * @return the recorded phases and their duration in milliseconds, in recording order
+     */
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    /**
+     * @return the milliseconds elapsed since these timings were created
+     */
+    public long getTotal() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ");
+        phases.forEach((phase, millis) -> joiner.add(phase + '=' + millis + "ms"));
+        return joiner.toString();
+    }
+}
@@ -26,25 +26,50 @@ import eu.cloudnetservice.cloudnet.v2.wrapper.server.GameServer;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of services waiting to be started on this wrapper.
+ * Up to {@code processQueueSize} services are prepared concurrently by a dedicated worker pool,
+ * while the queue itself is only drained from its head, so services start in the order they were requested.
+ */
 public class ServerProcessQueue implements Runnable {
 
-    private final Queue<ServerProcessMeta> servers = new ConcurrentLinkedQueue<>();
-    private final Queue<ProxyProcessMeta> proxies = new ConcurrentLinkedQueue<>();
+    private final Deque<ServerProcessMeta> servers = new ConcurrentLinkedDeque<>();
+    private final Deque<ProxyProcessMeta> proxies = new ConcurrentLinkedDeque<>();
     private final int processQueueSize;
+    private final ExecutorService workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger reservedMemory = new AtomicInteger();
     private volatile boolean running = true;
 
     public ServerProcessQueue(int processQueueSize) {
-        this.processQueueSize = processQueueSize;
+        this.processQueueSize = Math.max(1, processQueueSize);
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.processQueueSize, runnable -> {
+            Thread thread = new Thread(runnable, "ServerProcessQueue-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public void setRunning(boolean running) {
         this.running = running;
     }
 
-    public Queue<ServerProcessMeta> getServers() {
+    /**
+     * @return whether queued services may be started
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Deque<ServerProcessMeta> getServers() {
         return servers;
     }
 
@@ -52,10 +77,17 @@ public class ServerProcessQueue implements Runnable {
         return processQueueSize;
     }
 
-    public Queue<ProxyProcessMeta> getProxies() {
+    public Deque<ProxyProcessMeta> getProxies() {
         return proxies;
     }
 
+    /**
+     * @return the amount of services that are currently being prepared
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
     public void putProcess(ServerProcessMeta serverProcessMeta) {
         this.servers.offer(serverProcessMeta);
     }
@@ -64,6 +96,23 @@ public class ServerProcessQueue implements Runnable {
         this.proxies.offer(proxyProcessMeta);
     }
 
+    /**
+     * Stops the worker pool, interrupting all services that are still being prepared,
+     * and waits for the workers to finish, so no service is started after this method returned.
+     */
+    public void shutdown() {
+        this.running = false;
+        this.workers.shutdownNow();
+        try {
+            if (!this.workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                CloudNetWrapper.getInstance().getCloudNetLogging().warning("Services are still being prepared after 30 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public void run() {
         if (!Files.exists(Paths.get("local/spigot.jar"))) {
@@ -74,63 +123,112 @@ public class ServerProcessQueue implements Runnable {
             return;
         }
 
-        if (!servers.isEmpty() &&
-            hasFreeCpu(CloudNetWrapper.getInstance().getWrapperConfig().getPercentOfCPUForANewServer())) {
-            ServerProcessMeta serverProcessMeta = servers.poll();
-            if (serverProcessMeta != null) {
-
-                int memory = CloudNetWrapper.getInstance().getUsedMemory();
-
-                if ((memory + serverProcessMeta.getMemory()) < CloudNetWrapper.getInstance().getMaxMemory()) {
-                    try {
-                        GameServer gameServer = new GameServer(
-                            serverProcessMeta,
-                            CloudNetWrapper.getInstance().getServerGroups().get(serverProcessMeta.getServiceId().getGroup()));
-
-                        CloudNetWrapper.getInstance().getCloudNetLogging().info("Fetching entry [" + gameServer.getServiceId() + ']');
-
-                        if (!gameServer.bootstrap()) {
-                            this.servers.add(serverProcessMeta);
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        this.servers.add(serverProcessMeta);
-                    }
-                } else {
-                    this.servers.add(serverProcessMeta);
-                }
+        boolean dispatched = true;
+        while (dispatched && inFlight.get() < processQueueSize) {
+            dispatched = dispatchServer();
+            if (inFlight.get() < processQueueSize) {
+                dispatched |= dispatchProxy();
             }
+        }
+    }
+
+    private boolean dispatchServer() {
+        if (servers.isEmpty() ||
+            !hasFreeCpu(CloudNetWrapper.getInstance().getWrapperConfig().getPercentOfCPUForANewServer())) {
+            return false;
+        }
 
+        ServerProcessMeta serverProcessMeta = servers.pollFirst();
+        if (serverProcessMeta == null) {
+            return false;
         }
+        if (!reserveMemory(serverProcessMeta.getMemory())) {
+            servers.offerFirst(serverProcessMeta);
+            return false;
+        }
+
+        inFlight.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                GameServer gameServer = new GameServer(
+                    serverProcessMeta,
+                    CloudNetWrapper.getInstance().getServerGroups().get(serverProcessMeta.getServiceId().getGroup()));
 
-        if (!proxies.isEmpty() &&
-            (hasFreeCpu(CloudNetWrapper.getInstance().getWrapperConfig().getPercentOfCPUForANewProxy()))) {
+                CloudNetWrapper.getInstance().getCloudNetLogging().info("Fetching entry [" + gameServer.getServiceId() + ']');
 
-            ProxyProcessMeta proxyProcessMeta = proxies.poll();
-            if (proxyProcessMeta != null) {
-                int memory = CloudNetWrapper.getInstance().getUsedMemory();
+                if (!gameServer.bootstrap()) {
+                    requeue(servers, serverProcessMeta);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                requeue(servers, serverProcessMeta);
+            } finally {
+                release(serverProcessMeta.getMemory());
+            }
+        });
+        return true;
+    }
 
+    private boolean dispatchProxy() {
+        if (proxies.isEmpty() ||
+            !hasFreeCpu(CloudNetWrapper.getInstance().getWrapperConfig().getPercentOfCPUForANewProxy())) {
+            return false;
+        }
 
-                if ((memory + proxyProcessMeta.getMemory()) < CloudNetWrapper.getInstance().getMaxMemory()) {
+        ProxyProcessMeta proxyProcessMeta = proxies.pollFirst();
+        if (proxyProcessMeta == null) {
+            return false;
+        }
+        if (!reserveMemory(proxyProcessMeta.getMemory())) {
+            proxies.offerFirst(proxyProcessMeta);
+            return false;
+        }
 
-                    BungeeCord bungeeCord = new BungeeCord(
-                        proxyProcessMeta,
-                        CloudNetWrapper.getInstance().getProxyGroups().get(proxyProcessMeta.getServiceId().getGroup()));
+        inFlight.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                BungeeCord bungeeCord = new BungeeCord(
+                    proxyProcessMeta,
+                    CloudNetWrapper.getInstance().getProxyGroups().get(proxyProcessMeta.getServiceId().getGroup()));
 
-                    try {
-                        System.out.println("Fetching entry [" + bungeeCord.getServiceId() + ']');
+                System.out.println("Fetching entry [" + bungeeCord.getServiceId() + ']');
 
-                        if (!bungeeCord.bootstrap()) {
-                            this.proxies.add(proxyProcessMeta);
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        this.proxies.add(proxyProcessMeta);
-                    }
-                } else {
-                    this.proxies.add(proxyProcessMeta);
+                if (!bungeeCord.bootstrap()) {
+                    requeue(proxies, proxyProcessMeta);
                 }
+            } catch (Exception e) {
+                e.printStackTrace();
+                requeue(proxies, proxyProcessMeta);
+            } finally {
+                release(proxyProcessMeta.getMemory());
             }
+        });
+        return true;
+    }
+
+    /**
+     * Reserves the memory of a service that is about to be prepared.
+     * Services in preparation are not yet part of {@link CloudNetWrapper#getUsedMemory()},
+     * so their memory is held here until the bootstrap finished.
+     * Only the scheduling thread reserves memory, workers only release it.
+     */
+    private boolean reserveMemory(int memory) {
+        int used = CloudNetWrapper.getInstance().getUsedMemory() + reservedMemory.get();
+        if (used + memory >= CloudNetWrapper.getInstance().getMaxMemory()) {
+            return false;
+        }
+        reservedMemory.addAndGet(memory);
+        return true;
+    }
+
+    private void release(int memory) {
+        reservedMemory.addAndGet(-memory);
+        inFlight.decrementAndGet();
+    }
+
+    private <T> void requeue(Deque<T> queue, T processMeta) {
+        if (running) {
+            queue.offerFirst(processMeta);
         }
     }
 
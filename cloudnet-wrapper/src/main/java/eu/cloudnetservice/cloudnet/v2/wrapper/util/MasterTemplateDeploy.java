@@ -18,21 +18,25 @@
 package eu.cloudnetservice.cloudnet.v2.wrapper.util;
 
 import eu.cloudnetservice.cloudnet.v2.lib.ConnectableAddress;
-import eu.cloudnetservice.cloudnet.v2.lib.NetworkUtils;
 import eu.cloudnetservice.cloudnet.v2.lib.server.template.Template;
 import eu.cloudnetservice.cloudnet.v2.lib.user.SimpledUser;
 import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
 import eu.cloudnetservice.cloudnet.v2.lib.zip.ZipConverter;
 
-import java.io.File;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.zip.ZipOutputStream;
 
 public class MasterTemplateDeploy {
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final Path CLOUDNET_API = Paths.get("plugins", "CloudNetAPI.jar");
+
     private final Path dir;
 
     private final ConnectableAddress connectableAddress;
@@ -77,13 +81,6 @@ public class MasterTemplateDeploy {
 
     public void deploy() throws Exception {
         System.out.println("Trying to setup the new template... [" + template.getName() + ']');
-        Path dir = Paths.get("local/cache/" + NetworkUtils.randomString(10));
-        try {
-            FileUtility.copyFilesInDirectory(this.dir, dir);
-            new File(dir + "/plugins/CloudNetAPI.jar").delete();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
         HttpURLConnection urlConnection = (HttpURLConnection) new URL(
             String.format("http://%s:%d/cloudnet/api/v1/deployment",
                           connectableAddress.getHostName(),
@@ -97,19 +94,22 @@ public class MasterTemplateDeploy {
             .append("group", group).convertToJsonString());
         urlConnection.setUseCaches(false);
         urlConnection.setDoOutput(true);
+        // The archive is zipped straight into the request body, so it is never held in memory as a whole
+        urlConnection.setChunkedStreamingMode(CHUNK_SIZE);
         urlConnection.connect();
         System.out.println("Connected and deployed template... [" + template.getName() + ']');
 
-        try (OutputStream outputStream = urlConnection.getOutputStream()) {
-            outputStream.write(ZipConverter.convert(new Path[] {dir}));
-            outputStream.flush();
+        try (OutputStream outputStream = urlConnection.getOutputStream();
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8)) {
+            ZipConverter.convert(zipOutputStream, dir, file -> !file.equals(CLOUDNET_API));
         }
-        System.out.println("Successfully deploy template [" + template.getName() + ']');
-        urlConnection.disconnect();
-        try {
-            FileUtility.deleteDirectory(dir.toFile());
-        } catch (Exception ignored) {
 
+        int responseCode = urlConnection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_OK) {
+            System.out.println("Successfully deploy template [" + template.getName() + ']');
+        } else {
+            System.out.println("Failed to deploy template [" + template.getName() + "], the master responded with " + responseCode);
         }
+        urlConnection.disconnect();
     }
 }
@@ -0,0 +1,393 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.wrapper.util;
+
+import eu.cloudnetservice.cloudnet.v2.lib.server.template.TemplateManifest;
+import eu.cloudnetservice.cloudnet.v2.lib.user.SimpledUser;
+import eu.cloudnetservice.cloudnet.v2.lib.utility.document.Document;
+import eu.cloudnetservice.cloudnet.v2.wrapper.CloudNetWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the templates of the master in sync, downloading only files that changed.
+ * <p>
+ * Every file is stored once in a content-addressed blob store, named by its SHA-256 checksum,
+ * and linked into the template directories in {@code local/cache/web_templates}.
+ * The master announces new template versions, which are synchronized the next time the template is used.
+ * Templates are also synchronized once after the wrapper started, as announcements may have been missed.
+ * If the master cannot be reached, an existing copy of the template is used as it is.
+ * Blobs are read-only and checked against their checksum before they are reused.
+ * Blobs no longer referenced by any stored manifest are deleted after each synchronization.
+ */
+public final class TemplateCache {
+
+    private static final Path BLOBS = Paths.get("local", "cache", "template_blobs");
+    private static final Path MANIFESTS = Paths.get("local", "cache", "template_manifests");
+
+    private final Map<String, String> announcedVersions = new ConcurrentHashMap<>();
+    private final Map<String, String> syncedVersions = new ConcurrentHashMap<>();
+    private final Map<String, ReadWriteLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Held shared while blobs are stored and linked, and exclusively while unused blobs are deleted.
+     */
+    private final ReadWriteLock blobLock = new ReentrantReadWriteLock();
+
+    private static String key(String group, String template) {
+        return group + '/' + template;
+    }
+
+    /**
+     * Returns the lock guarding the cached directory of a template.
+     * The write lock has to be held while the directory is synchronized, the read lock while it is copied,
+     * so services of the same template can be set up concurrently.
+     *
+     * @param group    the name of the group
+     * @param template the name of the template
+     *
+     * @return the lock of the template
+     */
+    public ReadWriteLock getLock(String group, String template) {
+        return locks.computeIfAbsent(key(group, template), key -> new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Marks a new version of a template, which will be synchronized the next time the template is used.
+     *
+     * @param group    the name of the group
+     * @param template the name of the template
+     * @param version  the new version of the template
+     */
+    public void announce(String group, String template, String version) {
+        announcedVersions.put(key(group, template), version);
+    }
+
+    /**
+     * Brings the given directory up to date with the template on the master.
+     * Callers have to hold the write lock of the template, see {@link #getLock(String, String)}.
+     *
+     * @param group     the name of the group
+     * @param template  the name of the template
+     * @param directory the cached template directory
+     *
+     * @return {@code false}, if the master does not provide a manifest for the template
+     *
+     * @throws IOException if the template could not be synchronized and there is no cached copy
+     */
+    public boolean sync(String group, String template, Path directory) throws IOException {
+        String key = key(group, template);
+        String synced = syncedVersions.get(key);
+        String announced = announcedVersions.get(key);
+        if (synced != null && Files.isDirectory(directory) && (announced == null || announced.equals(synced))) {
+            return true;
+        }
+
+        TemplateManifest manifest;
+        try {
+            Document response = request("manifest", new Document("group", group).append("template", template));
+            manifest = response == null ? null : response.getObject("manifest", TemplateManifest.TYPE);
+        } catch (IOException e) {
+            return useCachedCopy(group, template, directory, e);
+        }
+        if (manifest == null) {
+            return false;
+        }
+
+        Path manifestPath = MANIFESTS.resolve(group).resolve(template + ".json");
+        TemplateManifest previous = Files.isDirectory(directory) ? loadManifest(manifestPath) : null;
+        if (previous != null && previous.getVersion().equals(manifest.getVersion())) {
+            syncedVersions.put(key, manifest.getVersion());
+            return true;
+        }
+
+        int downloaded;
+        blobLock.readLock().lock();
+        try {
+            downloaded = store(group, template, directory, manifest, previous, manifestPath);
+        } finally {
+            blobLock.readLock().unlock();
+        }
+        if (downloaded < 0) {
+            return true;
+        }
+
+        syncedVersions.put(key, manifest.getVersion());
+        CloudNetWrapper.getInstance().getCloudNetLogging().info(String.format(
+            "Synchronized template %s/%s, downloaded %d of %d files",
+            group, template, downloaded, manifest.getFiles().size()));
+        // Blobs downloaded by a concurrent synchronization are not referenced by a stored manifest yet
+        if (blobLock.writeLock().tryLock()) {
+            try {
+                collectGarbage();
+            } finally {
+                blobLock.writeLock().unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the files of the manifest in the blob store, links them into the directory and saves the manifest.
+     *
+     * @return the number of downloaded files, or -1 if the cached copy is used
+     */
+    private int store(String group, String template, Path directory, TemplateManifest manifest,
+                      TemplateManifest previous, Path manifestPath) throws IOException {
+        // All missing files are downloaded before the directory is touched, so it stays usable if the master goes away
+        int downloaded = 0;
+        Set<String> replaced = new HashSet<>();
+        try {
+            for (TemplateManifest.Entry entry : manifest.getFiles()) {
+                Path blob = blob(entry.getSha256());
+                if (Files.exists(blob) && isIntact(blob, entry)) {
+                    continue;
+                }
+                if (Files.exists(blob)) {
+                    CloudNetWrapper.getInstance().getCloudNetLogging().warning(String.format(
+                        "Cached file %s of template %s/%s was modified, downloading it again", entry.getPath(), group, template));
+                    replaced.add(entry.getSha256());
+                }
+                downloadBlob(group, template, entry, blob);
+                downloaded++;
+            }
+        } catch (IOException e) {
+            useCachedCopy(group, template, directory, e);
+            return -1;
+        }
+
+        if (previous == null) {
+            FileUtility.deleteDirectory(directory);
+        }
+
+        Map<String, TemplateManifest.Entry> removed = new HashMap<>();
+        if (previous != null) {
+            for (TemplateManifest.Entry entry : previous.getFiles()) {
+                removed.put(entry.getPath(), entry);
+            }
+        }
+
+        Files.createDirectories(directory);
+        for (TemplateManifest.Entry entry : manifest.getFiles()) {
+            Path target = resolve(directory, entry.getPath());
+            TemplateManifest.Entry old = removed.remove(entry.getPath());
+            // links to a replaced blob still point to the modified file
+            if (entry.equals(old) && Files.exists(target) && !replaced.contains(entry.getSha256())) {
+                continue;
+            }
+
+            Path blob = blob(entry.getSha256());
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(target);
+            try {
+                Files.createLink(target, blob);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(blob, target);
+            }
+        }
+        for (TemplateManifest.Entry entry : removed.values()) {
+            Files.deleteIfExists(resolve(directory, entry.getPath()));
+        }
+
+        for (String emptyDirectory : manifest.getDirectories()) {
+            Files.createDirectories(resolve(directory, emptyDirectory));
+        }
+        if (previous != null) {
+            List<String> removedDirectories = new ArrayList<>(previous.getDirectories());
+            removedDirectories.removeAll(manifest.getDirectories());
+            // Deepest directories first, so nested empty directories are removed as well
+            removedDirectories.sort(Comparator.reverseOrder());
+            for (String removedDirectory : removedDirectories) {
+                try {
+                    Files.deleteIfExists(resolve(directory, removedDirectory));
+                } catch (DirectoryNotEmptyException ignored) {
+                }
+            }
+        }
+
+        Files.createDirectories(manifestPath.getParent());
+        new Document("manifest", manifest).saveAsConfig(manifestPath);
+        return downloaded;
+    }
+
+    private static boolean useCachedCopy(String group, String template, Path directory, IOException exception) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw exception;
+        }
+        CloudNetWrapper.getInstance().getCloudNetLogging().warning(String.format(
+            "Could not synchronize template %s/%s, using the cached copy: %s", group, template, exception.getMessage()));
+        return true;
+    }
+
+    private static Path blob(String sha256) {
+        return BLOBS.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Checks whether a stored blob still has the content its name promises.
+     * Blobs are linked into service directories, so a service writing to its file in place changes the blob.
+     *
+     * @param blob  the stored blob
+     * @param entry the manifest entry the blob is used for
+     *
+     * @return whether the size and checksum of the blob match the entry
+     *
+     * @throws IOException if the blob could not be read
+     */
+    private static boolean isIntact(Path blob, TemplateManifest.Entry entry) throws IOException {
+        return Files.size(blob) == entry.getSize() && entry.getSha256().equals(TemplateManifest.sha256(blob));
+    }
+
+    /**
+     * Deletes all blobs that are not referenced by any stored manifest anymore.
+     * Template directories hold their own links to the files, so deleting a blob does not affect them.
+     */
+    private static void collectGarbage() throws IOException {
+        if (!Files.isDirectory(BLOBS)) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>();
+        if (Files.isDirectory(MANIFESTS)) {
+            Files.walkFileTree(MANIFESTS, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    TemplateManifest manifest = loadManifest(file);
+                    if (manifest != null) {
+                        for (TemplateManifest.Entry entry : manifest.getFiles()) {
+                            referenced.add(entry.getSha256());
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        Files.walkFileTree(BLOBS, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (!referenced.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static TemplateManifest loadManifest(Path manifestPath) {
+        if (!Files.exists(manifestPath)) {
+            return null;
+        }
+        return Document.loadDocument(manifestPath).getObject("manifest", TemplateManifest.TYPE);
+    }
+
+    private static Path resolve(Path directory, String path) throws IOException {
+        Path target = directory.resolve(path).normalize();
+        if (!target.startsWith(directory.normalize())) {
+            throw new IOException("Template file " + path + " is outside of the template directory");
+        }
+        return target;
+    }
+
+    private void downloadBlob(String group, String template, TemplateManifest.Entry entry, Path blob) throws IOException {
+        Files.createDirectories(blob.getParent());
+        // Templates sharing a file may download it concurrently
+        Path temporary = Files.createTempFile(blob.getParent(), blob.getFileName().toString(), ".tmp");
+        try {
+            HttpURLConnection connection = open("blob", new Document("group", group).append("template", template)
+                                                                                 .append("sha256", entry.getSha256()));
+            try {
+                if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Could not download " + entry.getPath() + ": HTTP " + connection.getResponseCode());
+                }
+                try (InputStream inputStream = connection.getInputStream()) {
+                    Files.copy(inputStream, temporary, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                connection.disconnect();
+            }
+
+            if (!entry.getSha256().equals(TemplateManifest.sha256(temporary))) {
+                throw new IOException("Checksum mismatch for " + entry.getPath());
+            }
+            // blobs belong to the wrapper, services writing to a linked file must not change them
+            temporary.toFile().setReadOnly();
+            Files.move(temporary, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Document request(String message, Document value) throws IOException {
+        HttpURLConnection connection = open(message, value);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+            try (Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+                StringBuilder stringBuilder = new StringBuilder();
+                char[] buffer = new char[4096];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    stringBuilder.append(buffer, 0, read);
+                }
+                return Document.load(stringBuilder.toString());
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static HttpURLConnection open(String message, Document value) throws IOException {
+        SimpledUser simpledUser = CloudNetWrapper.getInstance().getSimpledUser();
+        HttpURLConnection connection = (HttpURLConnection) new URL(String.format(
+            "http://%s:%d/cloudnet/api/v1/download",
+            CloudNetWrapper.getInstance().getWrapperConfig().getCloudNetHost().getHostAddress(),
+            CloudNetWrapper.getInstance().getWrapperConfig().getWebPort())).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setRequestProperty("-Xcloudnet-user", simpledUser.getUserName());
+        connection.setRequestProperty("-Xcloudnet-token", simpledUser.getApiToken());
+        connection.setRequestProperty("-Xmessage", message);
+        connection.setRequestProperty("-Xvalue", value.convertToJsonString());
+        connection.setUseCaches(false);
+        return connection;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2017 Tarek Hosni El Alaoui
+ * Copyright 2020 CloudNetService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.cloudnet.v2.wrapper.util;
+
+import eu.cloudnetservice.cloudnet.v2.wrapper.CloudNetWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Materializes templates into the directories of dynamic services without copying every byte.
+ * <p>
+ * If the file system supports reflinks, whole directories are cloned with {@code cp --reflink=always},
+ * which shares all blocks copy-on-write.
+ * Otherwise, files with one of the configured extensions, which servers only ever read, are hard linked.
+ * Files of the wrapper's own caches, which are never changed in place, are linked directly.
+ * Files maintained by the operator, such as those in {@code local/templates}, are copied once into a read-only
+ * snapshot owned by the wrapper and linked from there.
+ * A snapshot is taken again when the size or modification time of the file or of its snapshot changed,
+ * so neither the operator nor a service writing to its file can change the files of other services.
+ * Snapshots are deleted when the wrapper starts, outdated ones are only replaced until then.
+ * All remaining files are copied as usual.
+ */
+public final class TemplateMaterializer {
+
+    private final boolean enabled;
+    private final Set<String> linkedExtensions = new HashSet<>();
+    private final List<Path> linkedDirectories = new ArrayList<>();
+    private final Path snapshotDirectory;
+    private final Map<Path, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final boolean reflinkSupported;
+    private volatile boolean hardLinkSupported = true;
+
+    /**
+     * @param enabled          whether templates should be linked at all, or just copied
+     * @param linkedExtensions  the extensions of files that are hard linked, if reflinks are not supported
+     * @param linkedDirectories the directories whose files may be hard linked, because they are never changed in place
+     * @param snapshotDirectory the directory for snapshots of all other linked files, which is cleared
+     * @param sourceDirectory   a directory on the file system of the templates
+     * @param targetDirectory   a directory on the file system of the dynamic services
+     */
+    public TemplateMaterializer(boolean enabled,
+                                Collection<String> linkedExtensions,
+                                Collection<Path> linkedDirectories,
+                                Path snapshotDirectory,
+                                Path sourceDirectory,
+                                Path targetDirectory) {
+        this.enabled = enabled;
+        this.snapshotDirectory = snapshotDirectory;
+        FileUtility.deleteDirectory(snapshotDirectory);
+        for (String extension : linkedExtensions) {
+            this.linkedExtensions.add(extension.toLowerCase(Locale.ROOT));
+        }
+        for (Path directory : linkedDirectories) {
+            this.linkedDirectories.add(directory.toAbsolutePath().normalize());
+        }
+        this.reflinkSupported = enabled && probeReflink(sourceDirectory, targetDirectory);
+    }
+
+    private static boolean probeReflink(Path sourceDirectory, Path targetDirectory) {
+        Path source = sourceDirectory.resolve(".reflink_probe");
+        Path target = targetDirectory.resolve(".reflink_probe");
+        try {
+            Files.write(source, new byte[] {0});
+            return cp("--reflink=always", source.toString(), target.toString());
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(source);
+                Files.deleteIfExists(target);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static boolean cp(String... arguments) {
+        String[] command = new String[arguments.length + 1];
+        command[0] = "cp";
+        System.arraycopy(arguments, 0, command, 1, arguments.length);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (InputStream inputStream = process.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                while (inputStream.read(buffer) != -1) {
+                    // cp only prints errors, the exit code is all we need
+                }
+            }
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public boolean isReflinkSupported() {
+        return reflinkSupported;
+    }
+
+    /**
+     * Materializes all files of the source directory into the target directory.
+     * Existing files in the target directory are replaced, never written through.
+     *
+     * @param sourceDirectory the template directory
+     * @param targetDirectory the directory of the service
+     *
+     * @throws IOException if a file could neither be linked nor copied
+     */
+    public void materialize(Path sourceDirectory, Path targetDirectory) throws IOException {
+        if (!enabled) {
+            FileUtility.copyFilesInDirectory(sourceDirectory, targetDirectory);
+            return;
+        }
+        if (!Files.isDirectory(sourceDirectory)) {
+            return;
+        }
+        Files.createDirectories(targetDirectory);
+
+        if (reflinkSupported && cp("-R", "--reflink=always", "--remove-destination",
+                                   sourceDirectory.toString() + "/.", targetDirectory.toString())) {
+            return;
+        }
+
+        try (Stream<Path> sourceFiles = Files.walk(sourceDirectory)) {
+            for (Path path : (Iterable<Path>) sourceFiles::iterator) {
+                Path target = targetDirectory.resolve(sourceDirectory.relativize(path));
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else if (Files.isRegularFile(path)) {
+                    materializeFile(path, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Materializes a single file, replacing the target if it exists.
+     *
+     * @param source the file to materialize
+     * @param target the path of the file in the service directory
+     *
+     * @throws IOException if the file could neither be linked nor copied
+     */
+    public void materializeFile(Path source, Path target) throws IOException {
+        if (!enabled || !Files.isRegularFile(source)) {
+            FileUtility.copy(source, target);
+            return;
+        }
+        if (reflinkSupported) {
+            Files.createDirectories(target.getParent());
+            if (cp("--reflink=always", "--remove-destination", source.toString(), target.toString())) {
+                return;
+            }
+        } else if (hardLinkSupported && isLinked(source)) {
+            Path linkSource;
+            try {
+                linkSource = isImmutable(source) ? source : snapshot(source);
+            } catch (IOException e) {
+                CloudNetWrapper.getInstance().getCloudNetLogging().warning(
+                    "Could not take a snapshot of " + source + ", copying it: " + e.getMessage());
+                FileUtility.copy(source, target);
+                return;
+            }
+            try {
+                Files.createDirectories(target.getParent());
+                Files.deleteIfExists(target);
+                Files.createLink(target, linkSource);
+                return;
+            } catch (IOException | UnsupportedOperationException e) {
+                hardLinkSupported = false;
+                CloudNetWrapper.getInstance().getCloudNetLogging().warning(
+                    "Hard links are not supported for templates, falling back to copying: " + e.getMessage());
+            }
+        }
+        FileUtility.copy(source, target);
+    }
+
+    private boolean isLinked(Path path) {
+        String fileName = path.getFileName().toString();
+        int index = fileName.lastIndexOf('.');
+        return index != -1 && linkedExtensions.contains(fileName.substring(index + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private boolean isImmutable(Path path) {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        return linkedDirectories.stream().anyMatch(absolutePath::startsWith);
+    }
+
+    /**
+     * Returns the read-only snapshot of the given file, taking a new one if the file or the snapshot changed.
+     *
+     * @param source the file maintained by the operator
+     *
+     * @return the snapshot to link from
+     *
+     * @throws IOException if the snapshot could not be taken
+     */
+    private Path snapshot(Path source) throws IOException {
+        Path key = source.toAbsolutePath().normalize();
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.isCurrent(source)) {
+            return snapshot.file;
+        }
+
+        Files.createDirectories(snapshotDirectory);
+        Path file = Files.createTempFile(snapshotDirectory, "snapshot-", "-" + source.getFileName());
+        try {
+            Files.copy(source, file, StandardCopyOption.REPLACE_EXISTING);
+            file.toFile().setReadOnly();
+            // A previous snapshot may still be about to be linked by a concurrent service start, it is kept until restart
+            snapshots.put(key, new Snapshot(source, file));
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * A read-only copy of a file maintained by the operator.
+     * The size and modification time of the file, and of the copy, tell whether either has been changed since.
+     */
+    private static final class Snapshot {
+
+        private final Path file;
+        private final long sourceSize;
+        private final long sourceModified;
+        private final long fileSize;
+        private final long fileModified;
+
+        private Snapshot(Path source, Path file) throws IOException {
+            this.file = file;
+            this.sourceSize = Files.size(source);
+            this.sourceModified = Files.getLastModifiedTime(source).toMillis();
+            this.fileSize = Files.size(file);
+            this.fileModified = Files.getLastModifiedTime(file).toMillis();
+        }
+
+        private boolean isCurrent(Path source) throws IOException {
+            return Files.exists(file) &&
+                Files.size(source) == sourceSize &&
+                Files.getLastModifiedTime(source).toMillis() == sourceModified &&
+                Files.size(file) == fileSize &&
+                Files.getLastModifiedTime(file).toMillis() == fileModified;
+        }
+    }
+}